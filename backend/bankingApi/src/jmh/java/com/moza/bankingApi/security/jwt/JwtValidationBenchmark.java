@@ -0,0 +1,110 @@
+package com.moza.bankingApi.security.jwt;
+
+import com.moza.bankingApi.config.KeyProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * JMH benchmark of the token validation done by {@link JwtFilter} on every request: the single
+ * verifying parse of {@link JwtUtil#parseToken(String)} against the previous behaviour, which
+ * built a parser and derived the key three times per request.
+ *
+ * <p>{@link JwtUtil} is built by hand, without a Spring context. Run with
+ * {@code mvn test -Pbenchmark -Dtest=JwtValidationBenchmark}; the JUnit test starts the JMH runner
+ * with one and four threads.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final int TOKENS = 64;
+
+    private JwtUtil jwtUtil;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new KeyProvider() {
+            @Override
+            public String getSecret() {
+                return SECRET;
+            }
+        });
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = jwtUtil.generateToken(new User("bench" + i, "", List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+        }
+    }
+
+    @Benchmark
+    public String parseToken() {
+        return jwtUtil.parseToken(nextToken()).getSubject();
+    }
+
+    @Benchmark
+    public String parserPerCallThreeTimes() {
+        String token = nextToken();
+        String username = parseOnce(token).getSubject();
+        String again = parseOnce(token).getSubject();
+        return parseOnce(token).getExpiration().getTime() > System.currentTimeMillis() && username.equals(again) ? username : null;
+    }
+
+    private String nextToken() {
+        return tokens[next++ & (TOKENS - 1)];
+    }
+
+    private static Claims parseOnce(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(SECRET.getBytes())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws Exception {
+        setUp();
+        assertEquals("bench0", parseToken());
+        assertEquals("bench1", parserPerCallThreeTimes());
+        assertNull(jwtUtil.parseToken(tokens[0] + "x"));
+
+        for (int threads : new int[]{1, 4}) {
+            Collection<RunResult> results = new Runner(new OptionsBuilder()
+                    .include(JwtValidationBenchmark.class.getName())
+                    .threads(threads)
+                    .build()).run();
+            assertEquals(2, results.size());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.moza.bankingApi.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code AccountCacheProperties} groups the tunables of the per-account read cache in front of
+ * {@code /accounts/me} and {@code /transactions/extract}, and of the account key cache used by
+ * the transfer engines.
+ */
+@Component
+@Getter
+public class AccountCacheProperties {
+
+    /**
+     * Maximum number of accounts whose details are kept in memory.
+     */
+    @Value("${app.cache.accounts.max-size:10000}")
+    private long accountsMaxSize;
+
+    /**
+     * Maximum number of accounts whose first statement page is kept in memory.
+     */
+    @Value("${app.cache.statements.max-size:10000}")
+    private long statementsMaxSize;
+
+    /**
+     * Maximum number of username to account id mappings kept in memory.
+     */
+    @Value("${app.cache.owners.max-size:100000}")
+    private long ownersMaxSize;
+
+    /**
+     * Time, in milliseconds, an entry stays in memory after being loaded. Transfers evict the
+     * accounts they touch, so this only bounds how long a change made outside the transfer
+     * engines may go unnoticed.
+     */
+    @Value("${app.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    /**
+     * Whether the transfer engines resolve account numbers through the in-process key cache
+     * rather than with a query per transfer.
+     */
+    @Value("${app.cache.account-keys.enabled:true}")
+    private boolean keysEnabled;
+
+    /**
+     * Maximum number of account number to account key mappings kept in memory.
+     */
+    @Value("${app.cache.account-keys.max-size:100000}")
+    private long keysMaxSize;
+
+    /**
+     * Time, in milliseconds, a key stays in memory after being loaded. Account numbers and ids
+     * never change; this only bounds how long another instance's change of an account's hot
+     * mode may go unnoticed.
+     */
+    @Value("${app.cache.account-keys.ttl-ms:600000}")
+    private long keysTtlMs;
+}
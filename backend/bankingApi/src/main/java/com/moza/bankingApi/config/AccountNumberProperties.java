@@ -0,0 +1,29 @@
+package com.moza.bankingApi.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code AccountNumberProperties} groups the tunables of the server-side account number allocator
+ * and of the format check applied to transfers.
+ */
+@Component
+@Getter
+public class AccountNumberProperties {
+
+    /**
+     * Number of account numbers reserved from the range table per round trip. Numbers of a block
+     * not handed out before a restart are skipped.
+     */
+    @Value("${app.account-number.block-size:100}")
+    private int blockSize;
+
+    /**
+     * When {@code true}, transfers naming an account number without valid check digits are
+     * rejected. When {@code false}, only numbers in the allocated 13-digit format are checked, so
+     * accounts created before the allocator keep working.
+     */
+    @Value("${app.account-number.require-check-digit:false}")
+    private boolean requireCheckDigit;
+}
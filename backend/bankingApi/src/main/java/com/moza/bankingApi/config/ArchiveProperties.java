@@ -0,0 +1,57 @@
+package com.moza.bankingApi.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code ArchiveProperties} groups the tunables of the cold-storage archive of old transactions.
+ * The archiver only runs with {@code app.archive.enabled=true}; existing archive files are read
+ * by the statements whatever the setting.
+ */
+@Component
+@Getter
+public class ArchiveProperties {
+
+    /**
+     * Whether old transactions are moved out of the database into the archive.
+     */
+    @Value("${app.archive.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Directory holding the per-account archive files.
+     */
+    @Value("${app.archive.dir:transaction-archive}")
+    private String dir;
+
+    /**
+     * Age, in days, from which a transaction is archived.
+     */
+    @Value("${app.archive.retention-days:365}")
+    private int retentionDays;
+
+    /**
+     * Maximum number of transactions archived and deleted in one database transaction.
+     */
+    @Value("${app.archive.batch-size:5000}")
+    private int batchSize;
+
+    /**
+     * Maximum number of batches per archiver run, so that a large backlog is spread over several runs.
+     */
+    @Value("${app.archive.max-batches:100}")
+    private int maxBatches;
+
+    /**
+     * Maximum number of transactions compressed together in one archive block.
+     */
+    @Value("${app.archive.block-rows:1024}")
+    private int blockRows;
+
+    /**
+     * Maximum number of parsed archive indexes kept in memory, one per account.
+     */
+    @Value("${app.archive.index-cache-size:10000}")
+    private int indexCacheSize;
+}
@@ -0,0 +1,40 @@
+package com.moza.bankingApi.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code AuthProperties} groups the tunables of the JWT authentication of every request.
+ */
+@Component
+@Getter
+public class AuthProperties {
+
+    /**
+     * When {@code true}, requests are authenticated from the verified claims of their token alone,
+     * without loading the user from the database. A role or password change then only applies to
+     * tokens issued afterwards; revoke the older ones to apply it right away.
+     */
+    @Value("${app.security.stateless:false}")
+    private boolean stateless;
+
+    /**
+     * Whether the users loaded for each request are cached; only used when not stateless.
+     */
+    @Value("${app.security.user-cache.enabled:true}")
+    private boolean userCacheEnabled;
+
+    /**
+     * Maximum number of cached users.
+     */
+    @Value("${app.security.user-cache.max-size:10000}")
+    private long userCacheMaxSize;
+
+    /**
+     * Time-to-live, in milliseconds, of a cached user. Changes made through this node evict it at
+     * once; this bounds how long a change made on another node takes to apply here.
+     */
+    @Value("${app.security.user-cache.ttl-ms:30000}")
+    private long userCacheTtlMs;
+}
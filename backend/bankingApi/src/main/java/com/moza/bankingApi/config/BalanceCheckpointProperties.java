@@ -0,0 +1,27 @@
+package com.moza.bankingApi.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code BalanceCheckpointProperties} groups the tunables of the nightly daily-balance checkpoints
+ * used by the historical balance queries.
+ */
+@Component
+@Getter
+public class BalanceCheckpointProperties {
+
+    /**
+     * Number of past days the job checkpoints when it has fallen behind, e.g. after downtime.
+     * Days further back are left without checkpoints and are served from the older ones.
+     */
+    @Value("${app.balance.checkpoint.catch-up-days:7}")
+    private int catchUpDays;
+
+    /**
+     * Maximum number of accounts checkpointed in one database transaction.
+     */
+    @Value("${app.balance.checkpoint.chunk-size:1000}")
+    private int chunkSize;
+}
@@ -25,6 +25,7 @@ import java.util.List;
  *   <li><b>Allowed Origins:</b> Only <code>http://localhost:4200</code> is permitted (typical for Angular dev environment).</li>
  *   <li><b>Allowed Methods:</b> Standard HTTP verbs like GET, POST, PUT, DELETE, and OPTIONS are explicitly allowed.</li>
  *   <li><b>Allowed Headers:</b> Wildcard ("*") allows all headers.</li>
+ *   <li><b>Exposed Headers:</b> <code>Link</code>, carrying the next page of paginated responses.</li>
  *   <li><b>Allow Credentials:</b> Enabled to permit cross-origin requests with cookies or authorization tokens.</li>
  * </ul>
  *
@@ -62,6 +63,9 @@ public class CorsConfig {
         // Allow all headers in requests (e.g., Content-Type, Authorization)
         configuration.setAllowedHeaders(List.of("*"));
 
+        // Let the frontend read the pagination link of the statement
+        configuration.setExposedHeaders(List.of("Link"));
+
         // Enable credentials (e.g., cookies, Authorization headers) in cross-origin requests
         configuration.setAllowCredentials(true);
 
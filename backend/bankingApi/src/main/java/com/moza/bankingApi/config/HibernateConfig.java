@@ -0,0 +1,46 @@
+package com.moza.bankingApi.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code HibernateConfig} sets the Hibernate properties the transfer engine relies on, so that they
+ * do not depend on each environment's {@code application.yml}.
+ */
+@Configuration
+public class HibernateConfig {
+
+    /**
+     * Applies the engine's Hibernate settings.
+     *
+     * <ul>
+     *   <li>{@code hibernate.order_updates}: dirty entities are flushed in primary key order, so two
+     *       lock-free transfers touching the same accounts write their rows in the same order and
+     *       cannot deadlock at commit.</li>
+     *   <li>{@code hibernate.jdbc.batch_size}: inserts and updates of the same statement are sent to
+     *       the database in JDBC batches, e.g. the {@code Transaction} rows of a batch transfer.</li>
+     *   <li>{@code hibernate.order_inserts}: inserts are grouped by entity so that interleaved
+     *       entities (accounts, slots, transactions) do not break the batches.</li>
+     *   <li>{@code hibernate.id.optimizer.pooled.preferred}: the entities' sequence generators hand
+     *       out ids from an in-memory block ({@code pooled-lo}), hitting the database once per
+     *       {@code allocationSize} ids. On MySQL each sequence is emulated by its own table, so
+     *       entities no longer contend on a shared generator row.</li>
+     * </ul>
+     * <p>
+     * Each entry can be overridden with {@code spring.jpa.properties.*}.
+     * </p>
+     *
+     * @return the customizer applied to the JPA vendor properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer transferEngineHibernateProperties() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, "true");
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, "50");
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, "true");
+            properties.putIfAbsent(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+        };
+    }
+}
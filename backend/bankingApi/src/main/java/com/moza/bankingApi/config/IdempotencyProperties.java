@@ -0,0 +1,45 @@
+package com.moza.bankingApi.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code IdempotencyProperties} groups the tunables of the {@code Idempotency-Key} support
+ * of the transfer endpoint.
+ */
+@Component
+@Getter
+public class IdempotencyProperties {
+
+    /**
+     * Maximum number of keys kept in memory; the least recently used key is evicted first.
+     */
+    @Value("${app.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    /**
+     * Time, in milliseconds, a completed key stays in memory. Older keys are answered from the database.
+     */
+    @Value("${app.idempotency.cache-ttl-ms:600000}")
+    private long cacheTtlMs;
+
+    /**
+     * Time, in hours, a key is kept in the database; a retry after that executes again.
+     */
+    @Value("${app.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    /**
+     * Maximum time, in milliseconds, a duplicate request waits for the in-flight first attempt.
+     */
+    @Value("${app.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    /**
+     * Time, in milliseconds, after which a key whose first attempt never completed (e.g. its node
+     * crashed) may be claimed by a retry. Must exceed the longest transfer, lock retries included.
+     */
+    @Value("${app.idempotency.lease-ms:60000}")
+    private long leaseMs;
+}
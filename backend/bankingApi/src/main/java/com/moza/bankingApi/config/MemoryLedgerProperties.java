@@ -0,0 +1,56 @@
+package com.moza.bankingApi.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code MemoryLedgerProperties} groups the tunables of the in-memory ledger engine, enabled with
+ * {@code app.transactions.engine=memory}.
+ */
+@Component
+@Getter
+public class MemoryLedgerProperties {
+
+    /**
+     * Directory holding the memory-mapped journal segments.
+     */
+    @Value("${app.ledger.memory.journal-dir:ledger-journal}")
+    private String journalDir;
+
+    /**
+     * Size of each journal segment file, in megabytes.
+     */
+    @Value("${app.ledger.memory.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    /**
+     * Capacity of the ring buffer feeding the writer thread. Submitters wait when it is full.
+     */
+    @Value("${app.ledger.memory.queue-capacity:65536}")
+    private int queueCapacity;
+
+    /**
+     * Maximum number of commands the writer applies and journals with a single {@code force()}.
+     */
+    @Value("${app.ledger.memory.writer-batch:1024}")
+    private int writerBatch;
+
+    /**
+     * How long a submitter waits for a free ring buffer slot or for its acknowledgement, in milliseconds.
+     */
+    @Value("${app.ledger.memory.submit-timeout-ms:5000}")
+    private long submitTimeoutMs;
+
+    /**
+     * Maximum delay between two database flushes, in milliseconds.
+     */
+    @Value("${app.ledger.memory.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    /**
+     * Maximum number of journal records written to the database in one transaction.
+     */
+    @Value("${app.ledger.memory.flush-batch:5000}")
+    private int flushBatch;
+}
@@ -0,0 +1,27 @@
+package com.moza.bankingApi.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code OnboardingProperties} groups the tunables of the bulk customer import behind
+ * {@code POST /api/v1/users/import}.
+ */
+@Component
+@Getter
+public class OnboardingProperties {
+
+    /**
+     * Number of CSV rows checked, hashed and inserted together, in one transaction.
+     */
+    @Value("${app.onboarding.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Number of threads hashing passwords, shared by all running imports; {@code 0} uses one
+     * per available processor.
+     */
+    @Value("${app.onboarding.hash-threads:0}")
+    private int hashThreads;
+}
@@ -0,0 +1,152 @@
+package com.moza.bankingApi.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code TransferProperties} groups the tunables of the transfer engine.
+ *
+ * <p>Every property has a sensible default so that the application starts without
+ * any extra entry in {@code application.yml}.</p>
+ */
+@Component
+@Getter
+public class TransferProperties {
+
+    /**
+     * Concurrency control used by {@code TransactionServiceImpl.transfer}.
+     */
+    public enum Concurrency {
+        /** Row locks taken in a fixed global order for the whole transaction. */
+        PESSIMISTIC,
+        /** Lock-free reads with a version check at commit, falling back to locks under contention. */
+        OPTIMISTIC
+    }
+
+    @Value("${app.transfer.concurrency:PESSIMISTIC}")
+    private Concurrency concurrency;
+
+    /**
+     * Maximum number of attempts for a transfer whose row locks could not be acquired
+     * (lock wait timeout or deadlock victim) before the failure is propagated.
+     */
+    @Value("${app.transfer.lock.max-attempts:5}")
+    private int lockMaxAttempts;
+
+    /**
+     * Base back-off, in milliseconds, between two lock attempts. Grows linearly with the attempt number.
+     */
+    @Value("${app.transfer.lock.backoff-ms:20}")
+    private long lockBackoffMs;
+
+    /**
+     * Maximum number of optimistic attempts before the transfer falls back to row locks.
+     */
+    @Value("${app.transfer.optimistic.max-attempts:4}")
+    private int optimisticMaxAttempts;
+
+    /**
+     * Base back-off, in milliseconds, of the optimistic retries. Doubles on every attempt, with full jitter.
+     */
+    @Value("${app.transfer.optimistic.backoff-ms:2}")
+    private long optimisticBackoffMs;
+
+    /**
+     * Upper bound, in milliseconds, of a single optimistic back-off.
+     */
+    @Value("${app.transfer.optimistic.max-backoff-ms:50}")
+    private long optimisticMaxBackoffMs;
+
+    /**
+     * Retries allowed per incoming transfer, e.g. {@code 0.2} lets retries add at most 20% extra load.
+     */
+    @Value("${app.transfer.optimistic.retry-budget-ratio:0.2}")
+    private double retryBudgetRatio;
+
+    /**
+     * Maximum number of retries that can be banked while the system is quiet.
+     */
+    @Value("${app.transfer.optimistic.retry-budget-cap:100}")
+    private int retryBudgetCap;
+
+    /**
+     * Maximum number of legs accepted by a single batch transfer.
+     */
+    @Value("${app.transfer.batch.max-legs:1000}")
+    private int batchMaxLegs;
+
+    /**
+     * Maximum number of postings of one account folded into its balance snapshot per snapshotter run.
+     */
+    @Value("${app.transfer.ledger.snapshot-batch:10000}")
+    private int ledgerSnapshotBatch;
+
+    /**
+     * Maximum number of accounts snapshotted per snapshotter run.
+     */
+    @Value("${app.transfer.ledger.snapshot-accounts:500}")
+    private int ledgerSnapshotAccounts;
+
+    /**
+     * Maximum number of asynchronously submitted transfers executing at the same time, each on its
+     * own virtual thread. Keep it at or below the connection pool size.
+     */
+    @Value("${app.transfer.async.concurrency:16}")
+    private int asyncConcurrency;
+
+    /**
+     * Maximum number of asynchronously submitted transfers waiting for execution; beyond it
+     * submissions are rejected with {@code 503 Service Unavailable} and {@code Retry-After}.
+     */
+    @Value("${app.transfer.async.queue-capacity:10000}")
+    private int asyncQueueCapacity;
+
+    /**
+     * Number of transfer statuses kept for polling; the oldest are forgotten first.
+     */
+    @Value("${app.transfer.async.status-capacity:100000}")
+    private int asyncStatusCapacity;
+
+    /**
+     * Transfer engine selected by {@code app.transactions.engine}: empty for the default
+     * {@code TransactionServiceImpl}, {@code double-entry} or {@code memory}.
+     */
+    @Value("${app.transactions.engine:}")
+    private String engine;
+
+    /**
+     * Whether concurrent transfers are committed together by the group-commit stage. It stages
+     * the default engine only, so it cannot be combined with {@code app.transactions.engine}:
+     * <ul>
+     *   <li>no engine, group commit off: {@code TransactionServiceImpl} (default);</li>
+     *   <li>no engine, group commit on: {@code GroupCommitTransactionService};</li>
+     *   <li>{@code double-entry} or {@code memory}, group commit off: that engine;</li>
+     *   <li>{@code double-entry} or {@code memory}, group commit on: rejected at startup.</li>
+     * </ul>
+     */
+    @Value("${app.transfer.group-commit.enabled:false}")
+    private boolean groupCommitEnabled;
+
+    /**
+     * Time, in milliseconds, the group-commit stage waits for more transfers after the first one
+     * of a group arrives.
+     */
+    @Value("${app.transfer.group-commit.window-ms:2}")
+    private long groupCommitWindowMs;
+
+    /**
+     * Maximum number of transfers committed together by the group-commit stage.
+     */
+    @Value("${app.transfer.group-commit.max-size:128}")
+    private int groupCommitMaxSize;
+
+    @PostConstruct
+    void validate() {
+        if (groupCommitEnabled && !engine.isEmpty()) {
+            throw new IllegalStateException("app.transfer.group-commit.enabled=true requires the default transfer engine, "
+                    + "but app.transactions.engine=" + engine + "; disable one of them");
+        }
+    }
+}
@@ -1,21 +1,32 @@
 package com.moza.bankingApi.controller;
 
+import com.moza.bankingApi.dto.request.AccountCursor;
+import com.moza.bankingApi.dto.request.AccountFilter;
 import com.moza.bankingApi.dto.request.AccountRequest;
-import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.dto.request.AccountSort;
+import com.moza.bankingApi.dto.response.AccountDetailsResponse;
+import com.moza.bankingApi.dto.response.AccountSummaryResponse;
+import com.moza.bankingApi.dto.response.BalanceResponse;
 import com.moza.bankingApi.service.AccountService;
+import com.moza.bankingApi.service.BalanceHistoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
 /**
  * REST controller to manage bank accounts.
  * <p>
- * Provides endpoints for creating accounts, retrieving all accounts (admin only),
+ * Provides endpoints for creating accounts, listing the accounts page by page (admin only),
  * and retrieving the authenticated user's own account details.
  * </p>
  */
@@ -24,6 +35,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AccountController {
     private final AccountService service;
+    private final BalanceHistoryService balanceHistoryService;
 
     /**
      * Creates a new bank account.
@@ -41,24 +53,72 @@ public class AccountController {
     }
 
     /**
-     * Retrieves a list of all bank accounts.
+     * Retrieves one page of the bank accounts, for the admin dashboard.
      * <p>
-     * This endpoint is restricted to users with the ADMIN role.
+     * Each account is a flat {@link AccountSummaryResponse} read by a single query, whatever the
+     * number of accounts. When more accounts may follow, the response carries a
+     * {@code Link: <...>; rel="next"} header pointing to the next page, with the same filters and
+     * order. This endpoint is restricted to users with the ADMIN role.
      * </p>
      *
-     * @return List of all Account entities.
+     * @param accountNumber optional account number prefix
+     * @param userName      optional account holder name prefix
+     * @param nuit          optional exact tax number
+     * @param sort          {@code id} (default), {@code accountNumber} or {@code userName}
+     * @param direction     {@code asc} (default) or {@code desc}
+     * @param after         optional cursor of the last account of the previous page
+     * @param limit         the page size, 50 by default and at most 500
+     * @return List of {@link AccountSummaryResponse} representing one page of the accounts.
      */
     @GetMapping("/")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Account>> getAllAccounts() {
-        return ResponseEntity.ok(service.getAllAccounts());
+    public ResponseEntity<List<AccountSummaryResponse>> getAccounts(
+            @RequestParam(required = false) String accountNumber,
+            @RequestParam(required = false) String userName,
+            @RequestParam(required = false) String nuit,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        AccountFilter filter = new AccountFilter(accountNumber, userName, nuit);
+        List<AccountSummaryResponse> page = service.getAccounts(filter, sort, direction, after, limit);
+        if (page.size() < limit) {
+            return ResponseEntity.ok(page);
+        }
+        AccountSummaryResponse last = page.get(page.size() - 1);
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", new AccountCursor(AccountSort.parse(sort).keyOf(last), last.getId()))
+                .replaceQueryParam("limit", limit)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page);
     }
 
+    /**
+     * Switches an account in or out of hot mode.
+     * <p>
+     * Hot accounts spread incoming credits across {@code slots} sub-balances, which lets accounts
+     * receiving thousands of transfers per minute accept credits concurrently. {@code slots=0}
+     * turns hot mode off. This endpoint is restricted to users with the ADMIN role.
+     * </p>
+     *
+     * @param accountNumber the account to configure.
+     * @param slots         the number of balance slots.
+     * @return a String message about the operation status.
+     */
+    @PutMapping("/{accountNumber}/hot-slots")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> configureHotSlots(@PathVariable String accountNumber, @RequestParam int slots) {
+        return ResponseEntity.ok(service.configureHotSlots(accountNumber, slots));
+    }
 
     /**
      * Retrieves the authenticated user's own account details.
      * <p>
      * This endpoint uses the username from the JWT authentication token to fetch the account.
+     * The response carries an {@code ETag}; a request whose {@code If-None-Match} still matches
+     * it gets {@code 304 Not Modified} with no body, served from cache once the details are.
      * </p>
      *
      * @param authentication Injected Authentication object with user details.
@@ -67,8 +127,46 @@ public class AccountController {
     @GetMapping("/me")
     public ResponseEntity<AccountRequest> getMyAccount(Authentication authentication) {
         String username = authentication.getName(); // username do usuário autenticado via JWT
-        AccountRequest account = service.getAccountByUsername(username);
-        return ResponseEntity.ok(account);
+        AccountDetailsResponse details = service.getAccountByUsername(username);
+        // Spring answers 304 itself, without writing the body, when If-None-Match matches the ETag
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(details.getEtag())
+                .body(details.getAccount());
     }
 
+    /**
+     * Retrieves the balance the authenticated user's account had at a past instant.
+     * <p>
+     * The balance includes every transfer made strictly before {@code asOf}: the closing balance
+     * of a day is the balance as of the next day at {@code 00:00}. It is computed from the nearest
+     * daily checkpoint, without replaying the account history.
+     * </p>
+     *
+     * @param asOf the instant, {@code yyyy-MM-dd'T'HH:mm:ss}
+     * @return the {@link BalanceResponse} at that instant
+     */
+    @GetMapping("/me/balance")
+    public ResponseEntity<BalanceResponse> getMyBalanceAsOf(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(balanceHistoryService.getBalanceAsOf(asOf));
+    }
+
+    /**
+     * Retrieves the balance any account had at a past instant, for disputes and regulatory reports.
+     * <p>
+     * This endpoint is restricted to users with the ADMIN role.
+     * </p>
+     *
+     * @param accountNumber the account
+     * @param asOf          the instant, {@code yyyy-MM-dd'T'HH:mm:ss}
+     * @return the {@link BalanceResponse} at that instant
+     */
+    @GetMapping("/{accountNumber}/balance")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BalanceResponse> getBalanceAsOf(
+            @PathVariable String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(balanceHistoryService.getBalanceAsOf(accountNumber, asOf));
+    }
 }
@@ -2,6 +2,8 @@ package com.moza.bankingApi.controller;
 
 import com.moza.bankingApi.dto.request.AuthRequest;
 import com.moza.bankingApi.security.jwt.JwtUtil;
+import com.moza.bankingApi.security.jwt.TokenDenylist;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,6 +13,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -89,6 +92,11 @@ public class AuthController {
      */
     private final UserDetailsService userDetailsService;
 
+    /**
+     * Ids of the tokens revoked before their expiration.
+     */
+    private final TokenDenylist tokenDenylist;
+
     /**
      * Handles HTTP POST requests for login authentication.
      * Validates user credentials, and returns a signed JWT on success.
@@ -108,4 +116,22 @@ public class AuthController {
         return ResponseEntity.ok(Map.of("token", token));
     }
 
+    /**
+     * Handles HTTP POST requests for logout.
+     * Revokes the bearer token of the request on every node, until its expiration.
+     *
+     * @param authorization The {@code Authorization} header carrying the token to revoke.
+     * @return A {@link ResponseEntity} with no content; an invalid or missing token is ignored.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            Claims claims = jwtUtil.parseToken(authorization.substring(7));
+            if (claims != null && claims.getId() != null) {
+                tokenDenylist.revoke(claims.getId(), claims.getExpiration());
+            }
+        }
+        return ResponseEntity.noContent().build();
+    }
+
 }
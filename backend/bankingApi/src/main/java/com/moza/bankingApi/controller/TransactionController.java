@@ -1,15 +1,33 @@
 package com.moza.bankingApi.controller;
 
+import com.moza.bankingApi.dto.request.StatementCursor;
+import com.moza.bankingApi.dto.request.StatementFilter;
 import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.dto.response.MonthlySummaryResponse;
 import com.moza.bankingApi.dto.response.TransactionResponse;
+import com.moza.bankingApi.dto.response.TransferStatusResponse;
 import com.moza.bankingApi.service.AccountService;
+import com.moza.bankingApi.service.AsyncTransferService;
+import com.moza.bankingApi.service.IdempotencyService;
+import com.moza.bankingApi.service.MonthlySummaryService;
+import com.moza.bankingApi.service.StatementExportService;
 import com.moza.bankingApi.service.TransactionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * REST controller responsible for handling transaction-related HTTP requests.
@@ -24,31 +42,180 @@ import java.util.List;
 public class TransactionController {
     private final TransactionService transactionService;
     private final AccountService accountService;
+    private final IdempotencyService idempotencyService;
+    private final AsyncTransferService asyncTransferService;
+    private final StatementExportService statementExportService;
+    private final MonthlySummaryService monthlySummaryService;
 
     /**
      * Executes a funds transfer between two accounts.
      * <p>
      * This operation requires the authenticated user to have the "CLIENTE" role.
      * </p>
+     * <p>
+     * When an {@code Idempotency-Key} header is sent, retries of the same request with the same key
+     * return the stored response instead of executing the transfer again.
+     * </p>
+     * <p>
+     * When a {@code Prefer: respond-async} header is sent, the transfer is only validated and queued:
+     * the response is {@code 202 Accepted} with the transfer status, and its {@code Location} points
+     * to {@code GET /api/v1/transactions/{id}/status}.
+     * </p>
      *
+     * @param idempotencyKey optional client-generated key identifying this transfer across retries
+     * @param prefer optional {@code Prefer} header; {@code respond-async} selects the asynchronous mode
      * @param request the {@link TransferRequest} containing transfer details (from account, to account, amount, description)
-     * @return a {@link ResponseEntity} with a success message if the transfer completes successfully
+     * @return a {@link ResponseEntity} with a success message if the transfer completes successfully,
+     * or with the {@link TransferStatusResponse} of the queued transfer in asynchronous mode
      */
     @PostMapping("/transfer")
     @PreAuthorize("hasRole('CLIENTE')")
-    public ResponseEntity<?> transfer(@RequestBody TransferRequest request) {
-        transactionService.transfer(request);
-        return ResponseEntity.ok("Transferência realizada com sucesso");
+    public ResponseEntity<?> transfer(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                      @RequestHeader(value = "Prefer", required = false) String prefer,
+                                      @RequestBody TransferRequest request) {
+        boolean async = prefer != null && prefer.contains("respond-async");
+        Supplier<String> operation = async
+                ? () -> asyncTransferService.submit(request)
+                : () -> {
+                    transactionService.transfer(request);
+                    return "Transferência realizada com sucesso";
+                };
+        String result = idempotencyKey == null
+                ? operation.get()
+                : idempotencyService.execute(idempotencyKey, request, operation);
+
+        if (!async) {
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/transactions/" + result + "/status"))
+                .body(asyncTransferService.getStatus(result));
+    }
+
+    /**
+     * Reports the state of a transfer submitted with {@code Prefer: respond-async}.
+     *
+     * @param id the transfer id returned on submission
+     * @return a {@link ResponseEntity} containing the {@link TransferStatusResponse}
+     */
+    @GetMapping("/{id}/status")
+    @PreAuthorize("hasRole('CLIENTE')")
+    public ResponseEntity<TransferStatusResponse> transferStatus(@PathVariable String id) {
+        return ResponseEntity.ok(asyncTransferService.getStatus(id));
     }
 
     /**
-     * Retrieves the transaction extract (history) for the authenticated user.
+     * Executes several transfers all-or-nothing in a single database transaction.
+     * <p>
+     * Meant for partner systems settling many transfers at once: one HTTP round trip, one
+     * authentication and one database transaction instead of one {@code /transfer} call per leg.
+     * This operation requires the authenticated user to have the "CLIENTE" role.
+     * </p>
+     *
+     * @param legs the list of {@link TransferRequest} legs, applied in order
+     * @return a {@link ResponseEntity} with a success message if every leg completes successfully
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('CLIENTE')")
+    public ResponseEntity<?> transferBatch(@RequestBody List<TransferRequest> legs) {
+        transactionService.transferBatch(legs);
+        return ResponseEntity.ok(legs.size() + " transferências realizadas com sucesso");
+    }
+
+    /**
+     * Retrieves one page of the transaction extract (history) for the authenticated user, newest first.
+     * <p>
+     * When more transactions may follow, the response carries a {@code Link: <...>; rel="next"}
+     * header pointing to the next page; its {@code after} cursor is the {@code dateTime,id} of the
+     * last transaction returned.
+     * </p>
      *
+     * <p>
+     * The statement can be narrowed with any combination of filters; the {@code next} link keeps them.
+     * </p>
+     *
+     * @param from optional first day, {@code yyyy-MM-dd}, inclusive
+     * @param to optional last day, {@code yyyy-MM-dd}, inclusive
+     * @param type optional {@code ENVIADA} or {@code RECEBIDA}
+     * @param minAmount optional smallest amount
+     * @param maxAmount optional largest amount
+     * @param after optional cursor of the last transaction of the previous page
+     * @param limit the page size, 50 by default and at most 500
      * @return a {@link ResponseEntity} containing a list of {@link TransactionResponse} objects
-     * representing the user's transaction history
+     * representing one page of the user's transaction history
      */
     @GetMapping("/extract")
-    public ResponseEntity<List<TransactionResponse>> consultarExtrato() {
-        return ResponseEntity.ok(transactionService.getBankStatement());
+    public ResponseEntity<List<TransactionResponse>> consultarExtrato(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        StatementFilter filter = new StatementFilter(from, to, type, minAmount, maxAmount);
+        List<TransactionResponse> page = transactionService.getBankStatement(filter, StatementCursor.parse(after), limit);
+        if (page.size() < limit) {
+            return ResponseEntity.ok(page);
+        }
+        TransactionResponse last = page.get(page.size() - 1);
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", new StatementCursor(last.getDateTime(), last.getId()))
+                .replaceQueryParam("limit", limit)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page);
+    }
+
+    /**
+     * Downloads the complete transaction history of the authenticated user, oldest first.
+     * <p>
+     * The file is streamed to the client while it is read from the database, so its size is not
+     * limited by the server memory. Archived transactions are included, ahead of the database ones. Long exports may need a larger
+     * {@code spring.mvc.async.request-timeout}.
+     * </p>
+     *
+     * @param format {@code csv} (default) or {@code ndjson}
+     * @return a {@link ResponseEntity} streaming the statement as an attachment
+     */
+    @GetMapping("/extract/export")
+    public ResponseEntity<StreamingResponseBody> exportarExtrato(@RequestParam(defaultValue = "csv") String format) {
+        StreamingResponseBody body = statementExportService.exportStatement(format);
+        boolean csv = "csv".equals(format);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"extrato." + format + "\"")
+                .body(body);
+    }
+
+    /**
+     * Retrieves the monthly totals of the authenticated user's account, newest month first.
+     * <p>
+     * Totals are maintained by the transfers themselves, so the cost does not grow with the
+     * length of the history. Months without transfers are omitted.
+     * </p>
+     *
+     * @param months the number of months to return, 12 by default and at most 120
+     * @return a {@link ResponseEntity} containing the list of {@link MonthlySummaryResponse}
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<MonthlySummaryResponse>> consultarResumoMensal(@RequestParam(defaultValue = "12") int months) {
+        return ResponseEntity.ok(monthlySummaryService.getMonthlySummaries(months));
+    }
+
+    /**
+     * Retrieves the monthly totals of any account, for the admin dashboard.
+     *
+     * @param accountNumber the account
+     * @param months the number of months to return, 12 by default and at most 120
+     * @return a {@link ResponseEntity} containing the list of {@link MonthlySummaryResponse}
+     */
+    @GetMapping("/summary/{accountNumber}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<MonthlySummaryResponse>> consultarResumoMensalDaConta(@PathVariable String accountNumber,
+                                                                                    @RequestParam(defaultValue = "12") int months) {
+        return ResponseEntity.ok(monthlySummaryService.getMonthlySummaries(accountNumber, months));
     }
 }
@@ -1,23 +1,47 @@
 package com.moza.bankingApi.controller;
 
 import com.moza.bankingApi.dto.request.UserRequest;
+import com.moza.bankingApi.dto.response.CustomerImportResponse;
 import com.moza.bankingApi.dto.response.UserResponse;
+import com.moza.bankingApi.service.CustomerImportService;
 import com.moza.bankingApi.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/users")
 public class UserController {
     private final UserService service;
+    private final CustomerImportService customerImportService;
 
     @PostMapping
     public ResponseEntity<UserResponse> create(@RequestBody UserRequest request) {
         return ResponseEntity.ok(service.createUser(request));
     }
+
+    /**
+     * Onboards customers in bulk: one user and its account per row of a CSV upload, read as it
+     * arrives. The header names the columns {@code username, password, role, userName, nuit,
+     * balance} and optionally {@code accountNumber}; accounts without one get an allocated number.
+     * Rejected rows are reported and do not stop the import.
+     * This endpoint is restricted to users with the ADMIN role.
+     *
+     * @param csv the request body, {@code text/csv} in UTF-8
+     * @return ResponseEntity with the number of rows read and customers created, and the rejected rows
+     * @throws IOException if the upload cannot be read
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CustomerImportResponse> importCustomers(InputStream csv) throws IOException {
+        return ResponseEntity.ok(customerImportService.importCustomers(csv));
+    }
 }
@@ -0,0 +1,47 @@
+package com.moza.bankingApi.dto.request;
+
+import com.moza.bankingApi.exception.BadRequestException;
+
+/**
+ * {@code AccountCursor} is the keyset position of an account listing page: the sort key and id of
+ * the last account already returned. It travels as {@code ?after=<key>,<id>}, or {@code ?after=<id>}
+ * when sorting by id or when the last account had no sort key; accounts without one are listed
+ * after all the others, by id.
+ *
+ * @param key the sort key of the last account returned, {@code null} when sorting by id or when
+ *            the account has none
+ * @param id  the id of the last account returned, to break ties
+ */
+public record AccountCursor(String key, Long id) {
+
+    /**
+     * Parses the value of the {@code after} query parameter.
+     *
+     * @param value the cursor, or {@code null} for the first page
+     * @param sort  the order of the listing
+     * @return the cursor, or {@code null} if {@code value} is {@code null} or blank
+     * @throws BadRequestException if the value is malformed
+     */
+    public static AccountCursor parse(String value, AccountSort sort) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            if (sort == AccountSort.ID) {
+                return new AccountCursor(null, Long.parseLong(value));
+            }
+            int comma = value.lastIndexOf(',');
+            if (comma < 0) {
+                return new AccountCursor(null, Long.parseLong(value));
+            }
+            return new AccountCursor(value.substring(0, comma), Long.parseLong(value.substring(comma + 1)));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Cursor inválido: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return key == null ? String.valueOf(id) : key + "," + id;
+    }
+}
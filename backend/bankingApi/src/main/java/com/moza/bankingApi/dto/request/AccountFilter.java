@@ -0,0 +1,16 @@
+package com.moza.bankingApi.dto.request;
+
+/**
+ * {@code AccountFilter} narrows the admin account listing down; every criterion is optional.
+ *
+ * @param accountNumber prefix of the account number
+ * @param userName      prefix of the account holder name
+ * @param nuit          exact tax number
+ */
+public record AccountFilter(String accountNumber, String userName, String nuit) {
+
+    /**
+     * A filter letting every account through.
+     */
+    public static final AccountFilter NONE = new AccountFilter(null, null, null);
+}
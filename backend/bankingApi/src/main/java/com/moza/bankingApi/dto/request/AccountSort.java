@@ -0,0 +1,54 @@
+package com.moza.bankingApi.dto.request;
+
+import com.moza.bankingApi.dto.response.AccountSummaryResponse;
+import com.moza.bankingApi.exception.BadRequestException;
+
+/**
+ * {@code AccountSort} lists the orders of the admin account listing. Each is backed by an index
+ * ending with the account id, which breaks ties and makes every order a keyset.
+ */
+public enum AccountSort {
+
+    ID("id"),
+    ACCOUNT_NUMBER("accountNumber"),
+    USER_NAME("userName");
+
+    private final String field;
+
+    AccountSort(String field) {
+        this.field = field;
+    }
+
+    /**
+     * Returns the {@code Account} attribute sorted on.
+     */
+    public String field() {
+        return field;
+    }
+
+    /**
+     * Returns the sort key of a row, {@code null} when sorting by id or when the row has none.
+     */
+    public String keyOf(AccountSummaryResponse row) {
+        return switch (this) {
+            case ID -> null;
+            case ACCOUNT_NUMBER -> row.getAccountNumber();
+            case USER_NAME -> row.getUserName();
+        };
+    }
+
+    /**
+     * Parses the value of the {@code sort} query parameter.
+     *
+     * @param value {@code id}, {@code accountNumber} or {@code userName}
+     * @throws BadRequestException if the value is not one of them
+     */
+    public static AccountSort parse(String value) {
+        for (AccountSort sort : values()) {
+            if (sort.field.equals(value)) {
+                return sort;
+            }
+        }
+        throw new BadRequestException("Ordenação não suportada: " + value);
+    }
+}
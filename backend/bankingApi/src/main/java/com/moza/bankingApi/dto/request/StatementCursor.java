@@ -0,0 +1,43 @@
+package com.moza.bankingApi.dto.request;
+
+import com.moza.bankingApi.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * {@code StatementCursor} is the keyset position of a statement page: the {@code (timestamp, id)}
+ * of the last transaction already returned. It travels as {@code ?after=<timestamp>,<id>}, e.g.
+ * {@code ?after=2025-06-13T10:15:30.123,4812}.
+ *
+ * @param timestamp the timestamp of the last transaction returned
+ * @param id        the id of the last transaction returned, to break timestamp ties
+ */
+public record StatementCursor(LocalDateTime timestamp, Long id) {
+
+    /**
+     * Parses the value of the {@code after} query parameter.
+     *
+     * @param value the cursor, or {@code null} for the first page
+     * @return the cursor, or {@code null} if {@code value} is {@code null} or blank
+     * @throws BadRequestException if the value is malformed
+     */
+    public static StatementCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int comma = value.lastIndexOf(',');
+        try {
+            return new StatementCursor(
+                    LocalDateTime.parse(value.substring(0, comma)),
+                    Long.parseLong(value.substring(comma + 1)));
+        } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Cursor inválido: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + "," + id;
+    }
+}
@@ -0,0 +1,21 @@
+package com.moza.bankingApi.dto.request;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * {@code StatementFilter} narrows a statement down; every criterion is optional.
+ *
+ * @param from      first day included
+ * @param to        last day included
+ * @param type      {@code ENVIADA} or {@code RECEBIDA}; both when {@code null}
+ * @param minAmount smallest amount included
+ * @param maxAmount largest amount included
+ */
+public record StatementFilter(LocalDate from, LocalDate to, String type, BigDecimal minAmount, BigDecimal maxAmount) {
+
+    /**
+     * A filter letting every transaction through.
+     */
+    public static final StatementFilter NONE = new StatementFilter(null, null, null, null, null);
+}
@@ -0,0 +1,16 @@
+package com.moza.bankingApi.dto.response;
+
+import com.moza.bankingApi.dto.request.AccountRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO pairing the details of an account with their entity tag, so that an unchanged account can
+ * be answered with {@code 304 Not Modified} without serializing it.
+ */
+@AllArgsConstructor
+@Data
+public class AccountDetailsResponse {
+    private AccountRequest account;
+    private String etag;
+}
@@ -0,0 +1,22 @@
+package com.moza.bankingApi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representing one row of the admin account listing.
+ * {@code balance} is the effective balance, hot slots and unfolded postings included;
+ * {@code ownerUsername} is the login of the owner.
+ */
+@AllArgsConstructor
+@Data
+public class AccountSummaryResponse {
+    private Long id;
+    private String userName;
+    private String nuit;
+    private String accountNumber;
+    private BigDecimal balance;
+    private String ownerUsername;
+}
@@ -0,0 +1,19 @@
+package com.moza.bankingApi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing the balance of an account at a past instant.
+ * {@code balance} includes every transfer made strictly before {@code asOf}.
+ */
+@AllArgsConstructor
+@Data
+public class BalanceResponse {
+    private String accountNumber;
+    private LocalDateTime asOf;
+    private BigDecimal balance;
+}
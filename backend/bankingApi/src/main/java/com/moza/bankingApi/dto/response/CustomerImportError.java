@@ -0,0 +1,16 @@
+package com.moza.bankingApi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO representing a CSV row rejected by the bulk customer import.
+ * {@code line} is the line the row starts on, the header being line 1.
+ */
+@AllArgsConstructor
+@Data
+public class CustomerImportError {
+    private int line;
+    private String username;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.moza.bankingApi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO representing the outcome of a bulk customer import.
+ * {@code rows} counts the data rows read, {@code created} the customers inserted; every other
+ * row has an entry in {@code errors}.
+ */
+@AllArgsConstructor
+@Data
+public class CustomerImportResponse {
+    private int rows;
+    private int created;
+    private List<CustomerImportError> errors;
+}
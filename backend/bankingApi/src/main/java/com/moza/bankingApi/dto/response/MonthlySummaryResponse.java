@@ -0,0 +1,23 @@
+package com.moza.bankingApi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * DTO representing the totals of one account for one month.
+ * {@code closingBalance} is the balance at the end of the month, or the current balance for the
+ * current month.
+ */
+@AllArgsConstructor
+@Data
+public class MonthlySummaryResponse {
+    private YearMonth month;
+    private BigDecimal totalSent;
+    private BigDecimal totalReceived;
+    private long transactionCount;
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+}
@@ -18,4 +18,5 @@ public class TransactionResponse {
     private LocalDateTime dateTime;
     private String type;         // ENVIADA ou RECEBIDA
     private String otherAccount;
+    private Long id;              // chave do cursor de paginação, junto com dateTime
 }
@@ -0,0 +1,21 @@
+package com.moza.bankingApi.dto.response;
+
+import com.moza.bankingApi.model.enums.TransferStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing the state of a transfer submitted asynchronously.
+ * {@code message} holds the reason of a {@code FAILED} transfer.
+ */
+@AllArgsConstructor
+@Data
+public class TransferStatusResponse {
+    private String id;
+    private TransferStatus status;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+}
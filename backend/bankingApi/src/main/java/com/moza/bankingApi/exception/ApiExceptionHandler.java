@@ -0,0 +1,53 @@
+package com.moza.bankingApi.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * {@code ApiExceptionHandler} maps the application exceptions to HTTP statuses, with an
+ * RFC 9457 problem body carrying the exception message:
+ * <ul>
+ *   <li>{@link BadRequestException}, {@link BalanceNotEnoughException}: {@code 400 Bad Request};</li>
+ *   <li>{@link EntityNotFountException}: {@code 404 Not Found};</li>
+ *   <li>{@link IdempotencyKeyReusedException}: {@code 422 Unprocessable Entity};</li>
+ *   <li>{@link ConflictException}: {@code 409 Conflict}, with {@code Retry-After};</li>
+ *   <li>{@link ServiceUnavailableException}: {@code 503 Service Unavailable}, with {@code Retry-After}.</li>
+ * </ul>
+ * The most specific handler wins, so subclasses of {@link BadRequestException} keep their own status.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(BadRequestException.class)
+    public ProblemDetail handleBadRequest(BadRequestException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(EntityNotFountException.class)
+    public ProblemDetail handleNotFound(EntityNotFountException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ProblemDetail handleKeyReused(IdempotencyKeyReusedException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ProblemDetail> handleConflict(ConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage()));
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ProblemDetail> handleServiceUnavailable(ServiceUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+    }
+}
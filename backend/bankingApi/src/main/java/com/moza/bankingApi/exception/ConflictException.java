@@ -0,0 +1,21 @@
+package com.moza.bankingApi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ConflictException extends RuntimeException{
+
+    /**
+     * Seconds the client should wait before retrying, sent as {@code Retry-After}.
+     */
+    private final long retryAfterSeconds;
+
+    public ConflictException(String message){
+        this(message, 1);
+    }
+
+    public ConflictException(String message, long retryAfterSeconds){
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,21 @@
+package com.moza.bankingApi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceUnavailableException extends RuntimeException{
+
+    /**
+     * Seconds the client should wait before retrying, sent as {@code Retry-After}.
+     */
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message){
+        this(message, 1);
+    }
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds){
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -43,13 +44,17 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_account_user_name", columnList = "user_name, id"))
 public class Account {
 
     /**
      * The unique identifier for the account entity.
      * Auto-generated to ensure database-level uniqueness and referential integrity.
+     * Allocated in blocks of 50 from the entity's own {@code account_seq}.
      */
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -70,6 +75,21 @@ public class Account {
      */
     private BigDecimal balance;
 
+    /**
+     * Optimistic concurrency version, incremented on every balance change.
+     * Lets lock-free transfers detect that the account was modified concurrently.
+     */
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    /**
+     * Number of {@link AccountBalanceSlot}s credits are spread across; {@code 0} for a regular account.
+     * Only accounts with a very high credit rate should be switched to hot mode.
+     */
+    @ColumnDefault("0")
+    private int hotSlots;
+
     @JsonManagedReference
     @OneToOne
     @JoinColumn(name = "user_id")
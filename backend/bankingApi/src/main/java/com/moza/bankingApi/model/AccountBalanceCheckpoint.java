@@ -0,0 +1,63 @@
+package com.moza.bankingApi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The {@code AccountBalanceCheckpoint} class records the closing balance of one {@link Account} at
+ * the end of one day, so that a historical balance only requires the {@link Transaction}s between
+ * the nearest checkpoint and the requested instant.
+ *
+ * <p>Checkpoints are written by the nightly {@code BalanceCheckpointer}, and only for the days the
+ * account sent or received a transfer: the checkpoint of its last active day stays valid until the
+ * next one.</p>
+ *
+ * @since 2025-06-13
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_balance_checkpoint_day", columnList = "closing_day"))
+@IdClass(AccountBalanceCheckpoint.Key.class)
+public class AccountBalanceCheckpoint {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    /**
+     * The day closed by this checkpoint.
+     */
+    @Id
+    @Column(name = "closing_day")
+    private LocalDate day;
+
+    /**
+     * The balance including every transfer before the start of the next day.
+     */
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    /**
+     * Primary key of {@link AccountBalanceCheckpoint}.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,53 @@
+package com.moza.bankingApi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * The {@code AccountBalanceSlot} class holds one shard of the balance of a "hot" {@link Account}.
+ *
+ * <p>Accounts receiving a very high rate of credits (utility companies, payroll sources) can be
+ * switched to hot mode with {@link Account#getHotSlots()} slots. Credits are then spread across the
+ * slots instead of serialising on the single {@code Account.balance} row, and the effective balance
+ * of the account is {@code Account.balance + sum(slot balances)}. Slots are folded back into the
+ * account balance by the background rebalancer and whenever a debit needs them.</p>
+ *
+ * @since 2025-06-13
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "slot"}))
+public class AccountBalanceSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_balance_slot_seq")
+    @SequenceGenerator(name = "account_balance_slot_seq", sequenceName = "account_balance_slot_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The hot account this slot belongs to.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    /**
+     * Slot index, from {@code 0} to {@code account.hotSlots - 1}.
+     */
+    @Column(nullable = false)
+    private int slot;
+
+    /**
+     * Credits accumulated in this slot since it was last folded into the account balance.
+     */
+    @Column(nullable = false)
+    private BigDecimal balance;
+}
@@ -0,0 +1,73 @@
+package com.moza.bankingApi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The {@code AccountMonthlySummary} class holds the running totals of one {@link Account} for one
+ * calendar month, maintained by every transfer in the same database transaction, so that monthly
+ * totals never require scanning {@link Transaction}.
+ *
+ * <p>The totals of an account-month may be split across several shards. Shard {@code 0} is only
+ * written by transactions holding the account row lock; credits to an account whose row is not
+ * locked (hot accounts, the double-entry engine) go to a random credit shard instead, so they do
+ * not serialise on a single summary row. Readers add the shards up.</p>
+ *
+ * @since 2025-06-13
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(AccountMonthlySummary.Key.class)
+public class AccountMonthlySummary {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    /**
+     * First day of the month summarised.
+     */
+    @Id
+    @Column(name = "month_start")
+    private LocalDate month;
+
+    @Id
+    private int shard;
+
+    @Column(nullable = false)
+    private BigDecimal totalSent;
+
+    @Column(nullable = false)
+    private BigDecimal totalReceived;
+
+    /**
+     * Number of transfers sent or received.
+     */
+    @Column(nullable = false)
+    private long transactionCount;
+
+    /**
+     * Primary key of {@link AccountMonthlySummary}.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate month;
+        private int shard;
+    }
+}
@@ -0,0 +1,32 @@
+package com.moza.bankingApi.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The {@code AccountNumberRange} class is one stripe of the account number space, from which
+ * the allocator reserves blocks of numbers.
+ *
+ * <p>The space is split into a fixed number of stripes so that nodes reserving blocks at the same
+ * time usually lock different rows. Value {@code v} of stripe {@code s} is the number body
+ * {@code first + v * stripes + s}, which keeps the stripes disjoint.</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class AccountNumberRange {
+
+    @Id
+    private Integer stripe;
+
+    /**
+     * First value of this stripe not reserved yet.
+     */
+    private long nextValue;
+}
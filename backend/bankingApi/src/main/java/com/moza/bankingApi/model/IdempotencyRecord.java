@@ -0,0 +1,68 @@
+package com.moza.bankingApi.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * The {@code IdempotencyRecord} class stores the outcome of a request sent with an
+ * {@code Idempotency-Key} header, so that a retry of the same request returns the stored
+ * response instead of executing the operation again.
+ *
+ * <p>The row is inserted before the operation runs ({@code completed = false}); its primary key
+ * makes sure only one attempt per key executes, even across application nodes. It is completed in
+ * the transaction of the operation itself, so a row left uncompleted means the operation did not
+ * commit. Once its lease has run out, such a row is claimed again by a retry; the claim bumps the
+ * version, so the stale attempt, should it still be running, fails to complete and rolls back.</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_created_at", columnList = "createdAt"))
+public class IdempotencyRecord {
+
+    /**
+     * The client key, scoped by the authenticated user.
+     */
+    @Id
+    @Column(length = 160)
+    private String id;
+
+    /**
+     * SHA-256 of the request body, to reject a key reused for a different request.
+     */
+    @Column(length = 64, nullable = false)
+    private String requestHash;
+
+    private boolean completed;
+
+    /**
+     * The response body returned by the first attempt.
+     */
+    private String response;
+
+    /**
+     * Time of the claim, renewed when a retry takes over an expired one.
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Bumped by every claim, so only the attempt holding the current claim can complete the row.
+     */
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+}
@@ -0,0 +1,37 @@
+package com.moza.bankingApi.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The {@code LedgerCheckpoint} class records how far the in-memory ledger engine's journal has
+ * been flushed to the relational tables.
+ *
+ * <p>The row is updated in the same database transaction as the {@link Transaction} rows and
+ * {@link Account} balances of each flush, so after a restart the engine replays exactly the
+ * journal records whose sequence is greater than {@link #lastSequence}.</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class LedgerCheckpoint {
+
+    /**
+     * Identifier of the single checkpoint row.
+     */
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    /**
+     * Sequence of the last journal record reflected in the database.
+     */
+    private long lastSequence;
+}
@@ -0,0 +1,52 @@
+package com.moza.bankingApi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * The {@code Posting} class is one entry of the append-only double-entry ledger: every
+ * {@link Transaction} written by the double-entry engine has exactly two postings, a debit
+ * (negative amount) on the source account and a credit (positive amount) on the destination.
+ *
+ * <p>Postings are insert-only. The only column ever updated is {@link #snapshotted}, set by the
+ * snapshotter when the posting's amount is folded into {@link Account#getBalance()}, which then acts
+ * as the account's balance snapshot. The balance of an account is therefore
+ * {@code Account.balance + sum(postings not yet snapshotted)}.</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_posting_pending", columnList = "snapshotted, account_id"))
+public class Posting {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posting_seq")
+    @SequenceGenerator(name = "posting_seq", sequenceName = "posting_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "account_id")
+    private Account account;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "transaction_id")
+    private Transaction transaction;
+
+    /**
+     * Signed amount: negative for a debit, positive for a credit.
+     */
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    /**
+     * Whether the amount is already included in the account's balance snapshot.
+     */
+    private boolean snapshotted;
+}
@@ -0,0 +1,41 @@
+package com.moza.bankingApi.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * The {@code RevokedToken} class records a JWT revoked before its expiration, e.g. on logout.
+ *
+ * <p>Every node keeps the ids of the revoked tokens in memory and reloads them periodically. A row
+ * is only needed until the token expires, after which it is deleted.</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_revoked_token_expires_at", columnList = "expiresAt"))
+public class RevokedToken {
+
+    /**
+     * The {@code jti} claim of the token.
+     */
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    /**
+     * Expiration of the token, after which it is rejected anyway.
+     */
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -30,6 +30,10 @@ import java.time.LocalDateTime;
  *   <li>Supports extensibility for integration with fraud detection engines, transaction processors, and notification services.</li>
  * </ul>
  *
+ * <p>Statements are read per side of the transfer, so each account column is indexed together with
+ * the timestamp: a page of an account's sent or received transfers is one index range scan. The
+ * archiver walks the table oldest first through the {@code (timestamp, id)} index.</p>
+ *
  * <p><b>Usage Considerations:</b></p>
  * <ul>
  *   <li>Each instance is expected to be immutable post-creation, aligning with event-sourcing principles.</li>
@@ -47,14 +51,22 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_source_timestamp", columnList = "source_id, timestamp"),
+        @Index(name = "idx_transaction_destination_timestamp", columnList = "destination_id, timestamp"),
+        @Index(name = "idx_transaction_timestamp", columnList = "timestamp, id")
+})
 public class Transaction {
 
     /**
      * A unique identifier for the transaction.
      * Automatically generated and used as a primary key in the relational database.
+     * Ids are allocated in blocks of 50 from the entity's own {@code transaction_seq},
+     * so bulk inserts hit the generator once per block and can be batched.
      */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -0,0 +1,8 @@
+package com.moza.bankingApi.model.enums;
+
+public enum TransferStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
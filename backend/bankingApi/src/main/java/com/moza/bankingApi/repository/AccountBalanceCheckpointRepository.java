@@ -0,0 +1,32 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.model.AccountBalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * {@code AccountBalanceCheckpointRepository} reads the daily closing balances of accounts. They are
+ * written by {@code BalanceCheckpointer}.
+ */
+@Repository
+public interface AccountBalanceCheckpointRepository extends JpaRepository<AccountBalanceCheckpoint, AccountBalanceCheckpoint.Key> {
+
+    /**
+     * Returns the newest checkpoint of an account closing a day before the given one, a single
+     * primary key range read.
+     *
+     * @param accountId the account
+     * @param day       only checkpoints of earlier days are considered
+     */
+    Optional<AccountBalanceCheckpoint> findFirstByAccountIdAndDayLessThanOrderByDayDesc(Long accountId, LocalDate day);
+
+    /**
+     * Returns the newest day checkpointed for any account, or {@code null} if there is none.
+     */
+    @Query("SELECT MAX(c.day) FROM AccountBalanceCheckpoint c")
+    LocalDate findLastDay();
+}
@@ -0,0 +1,52 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.model.AccountBalanceSlot;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@code AccountBalanceSlotRepository} gives access to the balance shards of hot accounts.
+ *
+ * <p>Slots are always locked after the account rows of the same transaction, in
+ * {@code (account id, slot)} order, which keeps the global lock order of the transfer engine.</p>
+ */
+@Repository
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, Long> {
+
+    /**
+     * Locks a single slot of a hot account, used to apply a credit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("select s from AccountBalanceSlot s where s.account.id = :accountId and s.slot = :slot")
+    Optional<AccountBalanceSlot> findForUpdate(@Param("accountId") Long accountId, @Param("slot") int slot);
+
+    /**
+     * Locks every slot of a hot account in slot order, used to fold them into the account balance.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("select s from AccountBalanceSlot s where s.account.id = :accountId order by s.slot")
+    List<AccountBalanceSlot> findAllForUpdate(@Param("accountId") Long accountId);
+
+    /**
+     * Sums the slot balances of an account without locking them.
+     */
+    @Query("select coalesce(sum(s.balance), 0) from AccountBalanceSlot s where s.account.id = :accountId")
+    BigDecimal sumBalance(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("delete from AccountBalanceSlot s where s.account.id = :accountId")
+    void deleteByAccountId(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,28 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.dto.request.AccountCursor;
+import com.moza.bankingApi.dto.request.AccountFilter;
+import com.moza.bankingApi.dto.request.AccountSort;
+import com.moza.bankingApi.dto.response.AccountSummaryResponse;
+
+import java.util.List;
+
+/**
+ * {@code AccountListingRepository} is the custom fragment of {@link AccountRepository} serving the
+ * admin account listing, whose query depends on the requested order and filters.
+ */
+public interface AccountListingRepository {
+
+    /**
+     * Returns one page of accounts as flat projections, in a single query.
+     *
+     * @param filter     the criteria, all optional
+     * @param sort       the order
+     * @param descending whether the order is reversed
+     * @param after      the position of the last account of the previous page, or {@code null}
+     * @param limit      the page size
+     * @return the page of accounts
+     */
+    List<AccountSummaryResponse> findAccountPage(AccountFilter filter, AccountSort sort, boolean descending,
+                                                 AccountCursor after, int limit);
+}
@@ -0,0 +1,123 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.dto.request.AccountCursor;
+import com.moza.bankingApi.dto.request.AccountFilter;
+import com.moza.bankingApi.dto.request.AccountSort;
+import com.moza.bankingApi.dto.response.AccountSummaryResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JPQL implementation of {@link AccountListingRepository}.
+ *
+ * <p>The query selects the columns of the listing only, with the owner's username from a join on
+ * its primary key and the effective balance from two correlated sums, which the
+ * {@code (account_id, slot)} and {@code (snapshotted, account_id)} indexes resolve per row. No
+ * entity is loaded, so neither the owner nor the transfer collections are ever touched. Pages
+ * are positioned with a keyset on {@code (sort key, id)}, never with an offset.</p>
+ *
+ * <p>Accounts without the sort key come last, in id order, whatever the direction. They are read
+ * by a second query, on {@code key is null}, once the first one runs short, so that both stay
+ * ranges of the {@code (key, id)} index; a cursor without key points into that block.</p>
+ */
+class AccountListingRepositoryImpl implements AccountListingRepository {
+
+    private static final String SELECT = "select new com.moza.bankingApi.dto.response.AccountSummaryResponse(" +
+            "a.id, a.userName, a.nuit, a.accountNumber, " +
+            "a.balance" +
+            " + coalesce((select sum(s.balance) from AccountBalanceSlot s where s.account = a), 0)" +
+            " + coalesce((select sum(p.amount) from Posting p where p.account = a and p.snapshotted = false), 0), " +
+            "u.username) " +
+            "from Account a left join a.user u where 1 = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AccountSummaryResponse> findAccountPage(AccountFilter filter, AccountSort sort, boolean descending,
+                                                        AccountCursor after, int limit) {
+        if (sort == AccountSort.ID) {
+            return find(filter, "", null, descending, after, limit);
+        }
+
+        // Only the sort attribute's name, taken from the enum, is ever concatenated into the query
+        String key = "a." + sort.field();
+        List<AccountSummaryResponse> page = new ArrayList<>(limit);
+        boolean inNullBlock = after != null && after.key() == null;
+        if (!inNullBlock) {
+            page.addAll(find(filter, " and " + key + " is not null", key, descending, after, limit));
+        }
+        if (page.size() < limit) {
+            page.addAll(find(filter, " and " + key + " is null", null, descending,
+                    inNullBlock ? after : null, limit - page.size()));
+        }
+        return page;
+    }
+
+    /**
+     * Runs one keyset query over the accounts matching {@code condition}.
+     *
+     * @param key   the sorted attribute, or {@code null} to order by id alone
+     * @param after the cursor, whose key is ignored when {@code key} is {@code null}
+     */
+    private List<AccountSummaryResponse> find(AccountFilter filter, String condition, String key, boolean descending,
+                                              AccountCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        if (filter.accountNumber() != null) {
+            jpql.append(" and a.accountNumber like :accountNumber escape '!'");
+        }
+        if (filter.userName() != null) {
+            jpql.append(" and a.userName like :userName escape '!'");
+        }
+        if (filter.nuit() != null) {
+            jpql.append(" and a.nuit = :nuit");
+        }
+        jpql.append(condition);
+
+        String direction = descending ? " desc" : " asc";
+        String comparison = descending ? " < " : " > ";
+        if (after != null) {
+            if (key == null) {
+                jpql.append(" and a.id").append(comparison).append(":afterId");
+            } else {
+                jpql.append(" and (").append(key).append(comparison).append(":afterKey")
+                        .append(" or (").append(key).append(" = :afterKey and a.id").append(comparison).append(":afterId))");
+            }
+        }
+        if (key != null) {
+            jpql.append(" order by ").append(key).append(direction).append(", a.id").append(direction);
+        } else {
+            jpql.append(" order by a.id").append(direction);
+        }
+
+        TypedQuery<AccountSummaryResponse> query = entityManager.createQuery(jpql.toString(), AccountSummaryResponse.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit);
+        if (filter.accountNumber() != null) {
+            query.setParameter("accountNumber", likePrefix(filter.accountNumber()));
+        }
+        if (filter.userName() != null) {
+            query.setParameter("userName", likePrefix(filter.userName()));
+        }
+        if (filter.nuit() != null) {
+            query.setParameter("nuit", filter.nuit());
+        }
+        if (after != null) {
+            query.setParameter("afterId", after.id());
+            if (key != null) {
+                query.setParameter("afterKey", after.key());
+            }
+        }
+        return query.getResultList();
+    }
+
+    private static String likePrefix(String value) {
+        // '!' rather than a backslash, which MySQL would also read as a string literal escape
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
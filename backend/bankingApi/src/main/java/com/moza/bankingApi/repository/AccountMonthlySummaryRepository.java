@@ -0,0 +1,32 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.model.AccountMonthlySummary;
+import com.moza.bankingApi.repository.projection.MonthlyTotals;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * {@code AccountMonthlySummaryRepository} reads the monthly totals of accounts. They are written
+ * by {@code MonthlySummaryRecorder}.
+ */
+@Repository
+public interface AccountMonthlySummaryRepository extends JpaRepository<AccountMonthlySummary, AccountMonthlySummary.Key> {
+
+    /**
+     * Returns the monthly totals of an account, newest month first.
+     *
+     * @param accountId the account
+     * @param limit     the number of months
+     */
+    @Query("select new com.moza.bankingApi.repository.projection.MonthlyTotals(" +
+            "s.month, sum(s.totalSent), sum(s.totalReceived), sum(s.transactionCount)) " +
+            "from AccountMonthlySummary s where s.accountId = :accountId " +
+            "group by s.month order by s.month desc")
+    List<MonthlyTotals> findMonthlyTotals(@Param("accountId") Long accountId, Limit limit);
+}
@@ -0,0 +1,25 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.model.AccountNumberRange;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AccountNumberRangeRepository extends JpaRepository<AccountNumberRange, Integer> {
+
+    /**
+     * Locks a stripe to reserve a block of numbers from it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("select r from AccountNumberRange r where r.stripe = :stripe")
+    Optional<AccountNumberRange> findForUpdate(@Param("stripe") int stripe);
+}
@@ -2,9 +2,21 @@ package com.moza.bankingApi.repository;
 
 import com.moza.bankingApi.model.Account;
 import com.moza.bankingApi.model.User;
+import com.moza.bankingApi.repository.projection.AccountKey;
+import com.moza.bankingApi.repository.projection.AccountView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,7 +28,17 @@ import java.util.Optional;
  */
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountListingRepository {
+
+    /**
+     * Selects an {@link AccountView}, with the effective balance: the account row plus its slots and
+     * its postings not yet snapshotted, each from a correlated sum resolved by its index.
+     */
+    String ACCOUNT_VIEW = "select new com.moza.bankingApi.repository.projection.AccountView(a.id, a.userName, a.nuit, " +
+            "a.accountNumber, a.balance" +
+            " + coalesce((select sum(s.balance) from AccountBalanceSlot s where s.account = a), 0)" +
+            " + coalesce((select sum(p.amount) from Posting p where p.account = a and p.snapshotted = false), 0), " +
+            "a.version) from Account a ";
 
     /**
      * Finds an {@link Account} by its unique account number.
@@ -35,4 +57,106 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByUser(User user);
 
     boolean existsByAccountNumber(String accountNumber);
+
+    /**
+     * Returns which of the given account numbers are already taken, in a single {@code IN (...)} query.
+     *
+     * @param accountNumbers the account numbers to check
+     * @return the account numbers found
+     */
+    @Query("select a.accountNumber from Account a where a.accountNumber in :accountNumbers")
+    List<String> findExistingAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    /**
+     * Resolves the account of a user to its primary key without loading any entity.
+     *
+     * @param username the username of the account owner
+     * @return an {@link Optional} containing the account id, if found
+     */
+    @Query("select a.id from Account a where a.user.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    /**
+     * Reads the details of a user's account with a single query joining user and account. The
+     * effective balance comes from the same correlated sums as the admin listing.
+     *
+     * @param username the username of the account owner
+     * @return an {@link Optional} containing the account view, if found
+     */
+    @Query(ACCOUNT_VIEW + "where a.user.username = :username")
+    Optional<AccountView> findViewByUsername(@Param("username") String username);
+
+    /**
+     * Reads the details of an account without loading the entity or its owner.
+     *
+     * @param id the account primary key
+     * @return an {@link Optional} containing the account view, if found
+     */
+    @Query(ACCOUNT_VIEW + "where a.id = :id")
+    Optional<AccountView> findViewById(@Param("id") Long id);
+
+    /**
+     * Resolves an account number to its primary key and hot-slot count without loading
+     * the entity and without taking any lock.
+     *
+     * @param accountNumber the account number to resolve
+     * @return an {@link Optional} containing the account key, if found
+     */
+    @Query("select new com.moza.bankingApi.repository.projection.AccountKey(a.id, a.accountNumber, a.hotSlots) " +
+            "from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountKey> findKeyByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Resolves many account numbers in a single {@code IN (...)} query, without taking any lock.
+     *
+     * @param accountNumbers the account numbers to resolve
+     * @return the keys of the accounts found; unknown numbers are simply absent
+     */
+    @Query("select new com.moza.bankingApi.repository.projection.AccountKey(a.id, a.accountNumber, a.hotSlots) " +
+            "from Account a where a.accountNumber in :accountNumbers")
+    List<AccountKey> findKeysByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    /**
+     * Lists the ids of all accounts in hot mode.
+     */
+    @Query("select a.id from Account a where a.hotSlots > 0")
+    List<Long> findHotAccountIds();
+
+    /**
+     * Loads an {@link Account} by id holding a pessimistic write lock ({@code SELECT ... FOR UPDATE})
+     * until the surrounding transaction ends.
+     *
+     * <p>Callers locking more than one account must always call this method in ascending id order
+     * so that two concurrent transfers can never wait on each other in a cycle.</p>
+     *
+     * @param id the account id
+     * @return an {@link Optional} containing the locked account, if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Loads and locks several accounts in one query, in ascending id order.
+     *
+     * @param ids the account ids
+     * @return the locked accounts, sorted by id
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Adds a (possibly negative) amount to an account balance with a relative update, so that it
+     * never overwrites changes made by other writers. Also bumps the optimistic version.
+     *
+     * @param id    the account id
+     * @param delta the amount to add
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :delta, a.version = a.version + 1 where a.id = :id")
+    int addToBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
 }
@@ -0,0 +1,9 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.model.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, Long> {
+}
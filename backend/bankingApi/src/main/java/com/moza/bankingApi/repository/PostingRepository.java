@@ -0,0 +1,47 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.model.Posting;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostingRepository extends JpaRepository<Posting, Long> {
+
+    /**
+     * Sums the postings of an account that are not yet part of its balance snapshot.
+     */
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Posting p WHERE p.snapshotted = false AND p.account.id = :accountId")
+    BigDecimal sumPending(Long accountId);
+
+    /**
+     * Returns the accounts having postings not yet part of their balance snapshot.
+     */
+    @Query("SELECT DISTINCT p.account.id FROM Posting p WHERE p.snapshotted = false")
+    List<Long> findAccountIdsWithPending(Limit limit);
+
+    List<Posting> findByAccountIdAndSnapshottedFalse(Long accountId, Limit limit);
+
+    boolean existsBySnapshottedFalse();
+
+    /**
+     * Returns, among the given transactions, those having postings not yet part of a balance snapshot.
+     */
+    @Query("SELECT DISTINCT p.transaction.id FROM Posting p WHERE p.snapshotted = false AND p.transaction.id IN :transactionIds")
+    List<Long> findTransactionIdsWithPending(Collection<Long> transactionIds);
+
+    /**
+     * Deletes the postings of the given transactions, in one statement.
+     *
+     * @return the number of deleted postings
+     */
+    @Modifying
+    @Query("DELETE FROM Posting p WHERE p.transaction.id IN :transactionIds")
+    int deleteByTransactionIds(Collection<Long> transactionIds);
+}
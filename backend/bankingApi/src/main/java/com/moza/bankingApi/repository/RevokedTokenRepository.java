@@ -0,0 +1,29 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Lists the revoked tokens that have not expired yet.
+     */
+    @Query("SELECT r FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<RevokedToken> findUnexpired(LocalDateTime now);
+
+    /**
+     * Deletes the revoked tokens expired before the given instant, in one statement.
+     *
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+}
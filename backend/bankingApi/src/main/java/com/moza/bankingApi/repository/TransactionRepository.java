@@ -1,11 +1,199 @@
 package com.moza.bankingApi.repository;
 
+import com.moza.bankingApi.dto.response.TransactionResponse;
 import com.moza.bankingApi.model.Transaction;
+import com.moza.bankingApi.repository.projection.AccountFlow;
+import com.moza.bankingApi.repository.projection.ArchivableTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    /**
+     * Projection of a transaction as seen from one account: sent or received, and the counterparty.
+     */
+    String STATEMENT_SELECT = "select new com.moza.bankingApi.dto.response.TransactionResponse(" +
+            "t.amount, t.timestamp, " +
+            "case when s.id = :accountId then 'ENVIADA' else 'RECEBIDA' end, " +
+            "case when s.id = :accountId then d.accountNumber else s.accountNumber end, " +
+            "t.id) " +
+            "from Transaction t join t.source s join t.destination d " +
+            "where (s.id = :accountId or d.id = :accountId) ";
+
+    /**
+     * Statement criteria and keyset position, newest first. The timestamp bounds are always bound,
+     * so that they stay a range of the {@code (account, timestamp)} index; a {@code null} amount
+     * disables its criterion.
+     */
+    String STATEMENT_FILTERS = "and t.timestamp >= :from and t.timestamp <= :before " +
+            "and (t.timestamp < :before or t.id < :beforeId) " +
+            "and (:minAmount is null or t.amount >= :minAmount) " +
+            "and (:maxAmount is null or t.amount <= :maxAmount) " +
+            "order by t.timestamp desc, t.id desc";
+
+    /**
+     * Returns one page of the transfers sent by an account, newest first, in a single query
+     * served by the {@code (source_id, timestamp)} index.
+     *
+     * @param accountId the account whose statement is requested
+     * @param from      lower timestamp bound, inclusive
+     * @param before    upper timestamp bound: the end of the period, or the timestamp of the last
+     *                  transaction of the previous page
+     * @param beforeId  transactions at {@code before} are included only below this id
+     * @param minAmount smallest amount, or {@code null}
+     * @param maxAmount largest amount, or {@code null}
+     * @param limit     the page size
+     * @return the page of sent transfers
+     */
+    @Query("select new com.moza.bankingApi.dto.response.TransactionResponse(" +
+            "t.amount, t.timestamp, 'ENVIADA', d.accountNumber, t.id) " +
+            "from Transaction t join t.destination d " +
+            "where t.source.id = :accountId " + STATEMENT_FILTERS)
+    List<TransactionResponse> findSentStatement(@Param("accountId") Long accountId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("before") LocalDateTime before,
+                                                @Param("beforeId") Long beforeId,
+                                                @Param("minAmount") BigDecimal minAmount,
+                                                @Param("maxAmount") BigDecimal maxAmount,
+                                                Limit limit);
+
+    /**
+     * Returns one page of the transfers received by an account, newest first, in a single query
+     * served by the {@code (destination_id, timestamp)} index.
+     *
+     * @see #findSentStatement
+     */
+    @Query("select new com.moza.bankingApi.dto.response.TransactionResponse(" +
+            "t.amount, t.timestamp, 'RECEBIDA', s.accountNumber, t.id) " +
+            "from Transaction t join t.source s " +
+            "where t.destination.id = :accountId " + STATEMENT_FILTERS)
+    List<TransactionResponse> findReceivedStatement(@Param("accountId") Long accountId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("before") LocalDateTime before,
+                                                    @Param("beforeId") Long beforeId,
+                                                    @Param("minAmount") BigDecimal minAmount,
+                                                    @Param("maxAmount") BigDecimal maxAmount,
+                                                    Limit limit);
+
+    /**
+     * Streams the whole history of an account, oldest first, without materialising it. Rows are
+     * fetched from the driver {@code 1000} at a time; on MySQL this requires
+     * {@code useCursorFetch=true} in the JDBC URL, otherwise the driver buffers the full result.
+     * Must be consumed, and closed, inside a transaction.
+     *
+     * @param accountId the account whose statement is exported
+     * @return the statement rows, as unmanaged projections
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(STATEMENT_SELECT + "order by t.timestamp asc, t.id asc")
+    Stream<TransactionResponse> streamStatement(@Param("accountId") Long accountId);
+
+    /**
+     * Returns the oldest transactions created before a cutoff, oldest first, with the account
+     * numbers of both sides. Served by the {@code (timestamp, id)} index, so every batch starts
+     * where the previous one, already deleted, ended.
+     *
+     * @param cutoff only transactions strictly older are returned
+     * @param limit  the batch size
+     * @return the transactions to archive
+     */
+    @Query("select new com.moza.bankingApi.repository.projection.ArchivableTransaction(" +
+            "t.id, t.timestamp, t.amount, t.description, s.id, s.accountNumber, d.id, d.accountNumber) " +
+            "from Transaction t join t.source s join t.destination d " +
+            "where t.timestamp < :cutoff order by t.timestamp asc, t.id asc")
+    List<ArchivableTransaction> findArchivable(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Deletes transactions in one statement, bypassing the persistence context.
+     *
+     * @param ids the transactions to delete
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("delete from Transaction t where t.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Period of a balance computation: {@code [from, to)}, where transactions at {@code from} are
+     * included only above {@code fromId}.
+     */
+    String FLOW_PERIOD = "and t.timestamp >= :from and t.timestamp < :to and (t.timestamp > :from or t.id > :fromId)";
+
+    /**
+     * Sums the transfers sent by an account over a period, a range scan of the
+     * {@code (source_id, timestamp)} index.
+     *
+     * @param accountId the account
+     * @param from      start of the period, inclusive
+     * @param fromId    transactions at {@code from} are included only above this id; {@code 0} includes them all
+     * @param to        end of the period, exclusive
+     * @return the total amount, zero if there is none
+     */
+    @Query("select coalesce(sum(t.amount), 0) from Transaction t where t.source.id = :accountId " + FLOW_PERIOD)
+    BigDecimal sumSent(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                       @Param("fromId") long fromId, @Param("to") LocalDateTime to);
+
+    /**
+     * Sums the transfers received by an account over a period, a range scan of the
+     * {@code (destination_id, timestamp)} index.
+     *
+     * @see #sumSent
+     */
+    @Query("select coalesce(sum(t.amount), 0) from Transaction t where t.destination.id = :accountId " + FLOW_PERIOD)
+    BigDecimal sumReceived(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                           @Param("fromId") long fromId, @Param("to") LocalDateTime to);
+
+    /**
+     * Returns the accounts that sent a transfer over a period.
+     *
+     * @param from start of the period, inclusive
+     * @param to   end of the period, exclusive
+     */
+    @Query("select distinct t.source.id from Transaction t where t.timestamp >= :from and t.timestamp < :to")
+    List<Long> findSourceIdsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Returns the accounts that received a transfer over a period.
+     *
+     * @see #findSourceIdsBetween
+     */
+    @Query("select distinct t.destination.id from Transaction t where t.timestamp >= :from and t.timestamp < :to")
+    List<Long> findDestinationIdsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Sums, per account, the transfers sent since an instant.
+     *
+     * @param accountIds the accounts
+     * @param since      start of the period, inclusive
+     * @return one total per account that sent anything
+     */
+    @Query("select new com.moza.bankingApi.repository.projection.AccountFlow(t.source.id, sum(t.amount)) " +
+            "from Transaction t where t.source.id in :accountIds and t.timestamp >= :since group by t.source.id")
+    List<AccountFlow> sumSentSince(@Param("accountIds") Collection<Long> accountIds, @Param("since") LocalDateTime since);
 
+    /**
+     * Sums, per account, the transfers received since an instant.
+     *
+     * @see #sumSentSince
+     */
+    @Query("select new com.moza.bankingApi.repository.projection.AccountFlow(t.destination.id, sum(t.amount)) " +
+            "from Transaction t where t.destination.id in :accountIds and t.timestamp >= :since group by t.destination.id")
+    List<AccountFlow> sumReceivedSince(@Param("accountIds") Collection<Long> accountIds, @Param("since") LocalDateTime since);
 }
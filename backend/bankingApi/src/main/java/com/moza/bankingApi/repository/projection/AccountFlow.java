@@ -0,0 +1,12 @@
+package com.moza.bankingApi.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Amount sent or received by one account over a period.
+ *
+ * @param accountId the account
+ * @param amount    the total amount
+ */
+public record AccountFlow(Long accountId, BigDecimal amount) {
+}
@@ -0,0 +1,15 @@
+package com.moza.bankingApi.repository.projection;
+
+/**
+ * Minimal, lock-free view of an {@code Account} used to plan a transfer before any row is locked.
+ *
+ * @param id            the account primary key
+ * @param accountNumber the public account number
+ * @param hotSlots      number of balance slots; {@code 0} for a regular account
+ */
+public record AccountKey(Long id, String accountNumber, int hotSlots) {
+
+    public boolean isHot() {
+        return hotSlots > 0;
+    }
+}
@@ -0,0 +1,18 @@
+package com.moza.bankingApi.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat view of an {@code Account} with what {@code /accounts/me} shows, read without loading the
+ * entity or its owner.
+ *
+ * @param id            the account primary key
+ * @param userName      the account holder's name
+ * @param nuit          the account holder's tax number
+ * @param accountNumber the public account number
+ * @param balance       the effective balance: the account row plus its slots and pending postings
+ * @param version       the optimistic concurrency version of the account row
+ */
+public record AccountView(Long id, String userName, String nuit, String accountNumber, BigDecimal balance,
+                          Long version) {
+}
@@ -0,0 +1,21 @@
+package com.moza.bankingApi.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat view of a {@code Transaction} with both account numbers, as written to the archive.
+ *
+ * @param id                       the transaction primary key
+ * @param timestamp                when the transfer happened
+ * @param amount                   the amount transferred
+ * @param description              the free-text description, possibly {@code null}
+ * @param sourceId                 the debited account
+ * @param sourceAccountNumber      its public account number
+ * @param destinationId            the credited account
+ * @param destinationAccountNumber its public account number
+ */
+public record ArchivableTransaction(Long id, LocalDateTime timestamp, BigDecimal amount, String description,
+                                    Long sourceId, String sourceAccountNumber,
+                                    Long destinationId, String destinationAccountNumber) {
+}
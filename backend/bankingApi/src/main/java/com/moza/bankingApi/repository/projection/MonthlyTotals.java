@@ -0,0 +1,15 @@
+package com.moza.bankingApi.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of one account for one month, all shards added up.
+ *
+ * @param month            first day of the month
+ * @param totalSent        amount sent during the month
+ * @param totalReceived    amount received during the month
+ * @param transactionCount number of transfers sent or received
+ */
+public record MonthlyTotals(LocalDate month, BigDecimal totalSent, BigDecimal totalReceived, long transactionCount) {
+}
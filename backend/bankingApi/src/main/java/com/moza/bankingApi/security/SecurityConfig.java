@@ -1,6 +1,7 @@
 package com.moza.bankingApi.security;
 
 import com.moza.bankingApi.security.jwt.JwtFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,9 +42,15 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  *   <li><code>/api/v1/auth/**</code>: Public endpoints for login and authentication, accessible without authentication.</li>
  *   <li><code>admin/**</code>: Secured for users with <code>ROLE_ADMIN</code>.</li>
  *   <li><code>client/**</code>: Secured for users with <code>ROLE_CLIENTE</code>.</li>
- *   <li><code>/api/v1/transactions/**</code>: Accessible only to clients.</li>
- *   <li><code>/api/v1/accounts</code>: Accessible only to admins.</li>
+ *   <li><code>/api/v1/transactions/summary/{accountNumber}</code>: Accessible only to admins.</li>
+ *   <li><code>/api/v1/transactions/**</code>: Otherwise accessible only to clients.</li>
+ *   <li><code>/api/v1/accounts</code> and <code>/api/v1/accounts/</code>: Accessible only to admins.</li>
+ *   <li><code>/api/v1/accounts/create</code>: Accessible only to admins.</li>
+ *   <li><code>/api/v1/accounts/{accountNumber}/hot-slots</code>: Accessible only to admins.</li>
+ *   <li><code>/api/v1/accounts/{accountNumber}/balance</code>: Accessible only to admins; the
+ *       user's own <code>/api/v1/accounts/me/balance</code> stays open to any authenticated user.</li>
  *   <li><code>/api/v1/accounts/transactions/**</code>: Accessible to both admins and clients.</li>
+ *   <li><code>/api/v1/users/import</code>: Accessible only to admins.</li>
  * </ul>
  *
  * <p><b>Custom Components:</b></p>
@@ -88,12 +95,21 @@ public class SecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches resume a request already authorized on its first dispatch (e.g. streamed exports)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("admin/**").hasRole("ADMIN")
                         .requestMatchers("client/**").hasRole("CLIENTE")
+                        .requestMatchers("/api/v1/transactions/summary/*").hasRole("ADMIN")
                         .requestMatchers("/api/v1/transactions/**").hasRole("CLIENTE")
-                        .requestMatchers("/api/v1/accounts").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/accounts", "/api/v1/accounts/").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/accounts/create").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/accounts/*/hot-slots").hasRole("ADMIN")
+                        // The user's own balance, before the rule it would otherwise match as an account number
+                        .requestMatchers("/api/v1/accounts/me/balance").authenticated()
+                        .requestMatchers("/api/v1/accounts/*/balance").hasRole("ADMIN")
                         .requestMatchers("/api/v1/accounts/transactions/**").hasAnyRole("ADMIN", "CLIENTE")
+                        .requestMatchers("/api/v1/users/import").hasRole("ADMIN")
 
                         .anyRequest().authenticated()
                 )
@@ -1,12 +1,16 @@
 package com.moza.bankingApi.security.jwt;
 
+import com.moza.bankingApi.config.AuthProperties;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,6 +18,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 
 /**
@@ -25,7 +30,10 @@ import java.io.IOException;
  * <ul>
  *   <li>Extract the JWT from the "Authorization" header.</li>
  *   <li>Validate the token and extract the associated username.</li>
- *   <li>Load the {@link UserDetails} and set an authenticated {@link UsernamePasswordAuthenticationToken} in the security context.</li>
+ *   <li>Reject tokens revoked through the {@link TokenDenylist}.</li>
+ *   <li>Load the {@link UserDetails}, or build them from the token's claims when
+ *       {@code app.security.stateless=true}, and set an authenticated
+ *       {@link UsernamePasswordAuthenticationToken} in the security context.</li>
  *   <li>Ensure that authenticated requests can be processed securely.</li>
  * </ul>
  *
@@ -57,6 +65,16 @@ public class JwtFilter extends OncePerRequestFilter {
      */
     private final UserDetailsService userDetailsService;
 
+    /**
+     * Ids of the tokens revoked before their expiration.
+     */
+    private final TokenDenylist tokenDenylist;
+
+    /**
+     * Selects whether users are loaded from the database or trusted from the token's claims.
+     */
+    private final AuthProperties authProperties;
+
     /**
      * Filters every HTTP request to check for a valid JWT token in the Authorization header.
      * If the token is valid and no authentication is present in the context, the user is authenticated.
@@ -78,14 +96,16 @@ public class JwtFilter extends OncePerRequestFilter {
         // Check if the header contains a Bearer token
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
+            // Signature and expiration are verified here, once per request
+            Claims claims = jwtUtil.parseToken(token);
+            String username = claims == null || tokenDenylist.isRevoked(claims.getId()) ? null : claims.getSubject();
 
             // Proceed only if the token has a username and no existing authentication is set
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = userDetails(claims);
 
-                // Validate token against user details
-                if (jwtUtil.validateToken(token, userDetails)) {
+                // Match the token's subject against the user details
+                if (username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -98,4 +118,15 @@ public class JwtFilter extends OncePerRequestFilter {
         // Continue the filter chain
         chain.doFilter(request, response);
     }
+
+    /**
+     * Builds the user from the verified claims in stateless mode, without any database query.
+     * Tokens issued before token ids were added cannot be revoked and keep going to the database.
+     */
+    private UserDetails userDetails(Claims claims) {
+        if (authProperties.isStateless() && claims.getId() != null && claims.get("role") instanceof String role) {
+            return new User(claims.getSubject(), "", List.of(new SimpleGrantedAuthority(role)));
+        }
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
 }
@@ -2,13 +2,18 @@ package com.moza.bankingApi.security.jwt;
 
 import com.moza.bankingApi.config.KeyProvider;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 
 /**
@@ -22,11 +27,15 @@ import java.util.Date;
  * <ul>
  *   <li>HS256 signature algorithm.</li>
  *   <li>Base64-decoded symmetric secret key.</li>
- *   <li>Includes claims: subject (username), role, issuedAt, and expiration.</li>
+ *   <li>Includes claims: id ({@code jti}), subject (username), role, issuedAt, and expiration.</li>
  * </ul>
  *
  * <p><b>Security Note:</b> The secret key should be stored securely and rotated periodically in production environments.</p>
  *
+ * <p>The signing key and the parser are built once, at startup; the parser is immutable and
+ * shared by all request threads. A request parses and verifies its token once with
+ * {@link #parseToken(String)}, which also checks the expiration.</p>
+ *
  * @author
  * @see io.jsonwebtoken.Jwts
  * @see org.springframework.security.core.userdetails.UserDetails
@@ -35,14 +44,26 @@ import java.util.Date;
 @Component
 public class JwtUtil {
 
-    @Autowired
-    private KeyProvider keyProvider;
-
     /**
      * Token expiration time in milliseconds. Default is 1 day (86400000 ms).
      */
     private final long EXPIRATION = 86400000; // 1 dia
 
+    /**
+     * HMAC key derived from the configured secret.
+     */
+    private final SecretKey key;
+
+    /**
+     * Verifying parser, thread-safe once built.
+     */
+    private final JwtParser parser;
+
+    public JwtUtil(KeyProvider keyProvider) {
+        this.key = Keys.hmacShaKeyFor(keyProvider.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    }
+
     /**
      * Generates a JWT token containing the username and role of the authenticated user.
      *
@@ -51,22 +72,39 @@ public class JwtUtil {
      */
     public String generateToken(UserDetails userDetails) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .claim("role", userDetails.getAuthorities().iterator().next().getAuthority())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
-                .signWith(Keys.hmacShaKeyFor(keyProvider.getSecret().getBytes()), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Parses the token, verifies its signature and checks that it has not expired, in a single pass.
+     *
+     * @param token the JWT token
+     * @return all the claims embedded in the token, or {@code null} if it is malformed, wrongly
+     *         signed or expired
+     */
+    public Claims parseToken(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Extracts the username (subject) from the given JWT token.
      *
      * @param token the JWT token
-     * @return the username contained in the token
+     * @return the username contained in the token, or {@code null} if the token is not valid
      */
     public String extractUsername(String token) {
-        return getClaims(token).getSubject();
+        Claims claims = parseToken(token);
+        return claims == null ? null : claims.getSubject();
     }
 
     /**
@@ -78,32 +116,6 @@ public class JwtUtil {
      */
     public boolean validateToken(String token, UserDetails userDetails) {
         String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    /**
-     * Retrieves all claims from the token after verifying its signature.
-     *
-     * @param token the JWT token
-     * @return the claims embedded in the token
-     */
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(keyProvider.getSecret().getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-
-    /**
-     * Checks if the JWT token has expired by comparing the expiration date to the current time.
-     *
-     * @param token the JWT token
-     * @return {@code true} if the token has expired, {@code false} otherwise
-     */
-
-    private boolean isTokenExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date());
+        return username != null && username.equals(userDetails.getUsername());
     }
 }
@@ -0,0 +1,76 @@
+package com.moza.bankingApi.security.jwt;
+
+import com.moza.bankingApi.model.RevokedToken;
+import com.moza.bankingApi.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code TokenDenylist} holds, in memory, the ids of the tokens revoked before their expiration,
+ * so that {@link JwtFilter} rejects them without a database query.
+ *
+ * <p>A revocation is stored in the database and applied locally at once; other nodes pick it up
+ * on their next refresh ({@code app.security.revocation.refresh-ms}). Entries are dropped, here
+ * and in the database, once the token has expired, so the list only holds the few tokens revoked
+ * within the last token lifetime.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenDenylist {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Revoked token ids and their expiration, in epoch milliseconds.
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * Tells whether a token has been revoked.
+     *
+     * @param tokenId the {@code jti} claim of the token, possibly {@code null}
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Revokes a token until its expiration.
+     *
+     * @param tokenId   the {@code jti} claim of the token
+     * @param expiresAt the expiration of the token
+     */
+    public void revoke(String tokenId, Date expiresAt) {
+        LocalDateTime expiration = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        transactionTemplate.executeWithoutResult(status ->
+                revokedTokenRepository.save(new RevokedToken(tokenId, expiration)));
+        revoked.put(tokenId, expiresAt.getTime());
+    }
+
+    /**
+     * Loads the revocations made on every node and forgets the expired ones. Entries are only
+     * added or expired, never replaced, so a revocation made during a refresh is not lost.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-ms:30000}",
+            initialDelayString = "${app.security.revocation.refresh-ms:30000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        for (RevokedToken token : revokedTokenRepository.findUnexpired(now)) {
+            revoked.put(token.getId(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        long nowMillis = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+        transactionTemplate.executeWithoutResult(status -> revokedTokenRepository.deleteExpired(now));
+    }
+}
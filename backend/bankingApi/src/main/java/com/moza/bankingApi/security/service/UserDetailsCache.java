@@ -0,0 +1,108 @@
+package com.moza.bankingApi.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moza.bankingApi.config.AuthProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * {@code UserDetailsCache} keeps the users loaded by {@link UserDetailsServiceImpl}, so that
+ * authenticating a request does not query the database every time.
+ *
+ * <p>Entries are bounded in number and time ({@link AuthProperties}). Concurrent misses for the
+ * same username wait for a single load. Unknown users are not cached. The
+ * {@link UserDetailsCacheListener} evicts a user when it is created, changed or removed, once
+ * when the change is flushed and again once it commits, so a load racing with the transaction
+ * cannot keep the old password or role.</p>
+ *
+ * <p>Callers get their own copy of the cached user: Spring Security erases the credentials of
+ * the principal it authenticates, which must not reach the cached instance.</p>
+ *
+ * <p>Hit, miss, load and eviction statistics are published through Micrometer as the standard
+ * {@code cache.*} meters tagged {@code cache=user.details}; explicit evictions are counted by
+ * {@code bank.user.details.invalidations}. With {@code app.security.user-cache.enabled=false}
+ * every lookup queries the database.</p>
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, UserDetails> users;
+    private final Counter invalidations;
+
+    public UserDetailsCache(AuthProperties properties, MeterRegistry registry) {
+        if (properties.isUserCacheEnabled()) {
+            this.users = Caffeine.newBuilder()
+                    .maximumSize(properties.getUserCacheMaxSize())
+                    .expireAfterWrite(Duration.ofMillis(properties.getUserCacheTtlMs()))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(registry, users, "user.details");
+        } else {
+            this.users = null;
+        }
+        this.invalidations = registry.counter("bank.user.details.invalidations");
+    }
+
+    /**
+     * Returns a user, loading it on a miss.
+     *
+     * @param username the username
+     * @param loader   reads the user when it is not cached; its exceptions are propagated
+     * @return a copy of the cached user
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        if (users == null) {
+            return loader.apply(username);
+        }
+        return User.withUserDetails(users.get(username, loader)).build();
+    }
+
+    /**
+     * Evicts a user.
+     *
+     * @param username the username
+     */
+    public void invalidate(String username) {
+        if (users != null && username != null) {
+            users.invalidate(username);
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Evicts every user.
+     */
+    public void invalidateAll() {
+        if (users != null) {
+            users.invalidateAll();
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Evicts a user, or every user when {@code username} is {@code null}, now and again once the
+     * current transaction commits, or only now outside a transaction.
+     */
+    void invalidateAfterCommit(String username) {
+        Runnable eviction = username == null ? this::invalidateAll : () -> invalidate(username);
+        eviction.run();
+        if (users != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.moza.bankingApi.security.service;
+
+import com.moza.bankingApi.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * JPA entity listener of {@link User} keeping the {@link UserDetailsCache} in step with the users
+ * table. Registered in {@code META-INF/orm.xml}, so that the model does not depend on the security
+ * services. Instantiated by Hibernate through Spring, which injects the cache lazily.
+ *
+ * <p>An update may rename the user, and the listener only sees the new name, so it evicts every
+ * user; updates of users are rare.</p>
+ */
+public class UserDetailsCacheListener {
+
+    private final UserDetailsCache userDetailsCache;
+
+    public UserDetailsCacheListener(@Lazy UserDetailsCache userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    @PostPersist
+    @PostRemove
+    void evict(User user) {
+        userDetailsCache.invalidateAfterCommit(user.getUsername());
+    }
+
+    @PostUpdate
+    void evictAll(User user) {
+        userDetailsCache.invalidateAfterCommit(null);
+    }
+}
@@ -20,6 +20,8 @@ import java.util.List;
  *
  * <p>It transforms the application's {@link User} entity into a Spring Security-compatible
  * {@link org.springframework.security.core.userdetails.User} object.</p>
+ *
+ * <p>Loaded users are kept in the {@link UserDetailsCache} until they change or expire.</p>
  */
 
 @Service
@@ -31,6 +33,11 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     private final UserRepository userRepo;
 
+    /**
+     * Bounded cache of the loaded users, evicted when a user changes.
+     */
+    private final UserDetailsCache userDetailsCache;
+
     /**
      * Loads a user by their username for authentication and authorization purposes.
      *
@@ -40,6 +47,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) {
+        return userDetailsCache.get(username, this::load);
+    }
+
+    private UserDetails load(String username) {
         User user = userRepo.findByUsername(username).orElseThrow(() -> new EntityNotFountException("Usuário ex " + username + " não encontrado!"));
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
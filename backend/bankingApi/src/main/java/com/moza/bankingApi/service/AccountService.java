@@ -1,12 +1,15 @@
 package com.moza.bankingApi.service;
 
+import com.moza.bankingApi.dto.request.AccountFilter;
 import com.moza.bankingApi.dto.request.AccountRequest;
-import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.dto.response.AccountDetailsResponse;
+import com.moza.bankingApi.dto.response.AccountSummaryResponse;
 
 import java.util.List;
 
 public interface AccountService {
     String createAccount(AccountRequest request);
-    List<Account> getAllAccounts();
-    AccountRequest getAccountByUsername(String username);
+    List<AccountSummaryResponse> getAccounts(AccountFilter filter, String sort, String direction, String after, int limit);
+    AccountDetailsResponse getAccountByUsername(String username);
+    String configureHotSlots(String accountNumber, int slots);
 }
@@ -0,0 +1,9 @@
+package com.moza.bankingApi.service;
+
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.dto.response.TransferStatusResponse;
+
+public interface AsyncTransferService {
+    String submit(TransferRequest request);
+    TransferStatusResponse getStatus(String id);
+}
@@ -0,0 +1,10 @@
+package com.moza.bankingApi.service;
+
+import com.moza.bankingApi.dto.response.BalanceResponse;
+
+import java.time.LocalDateTime;
+
+public interface BalanceHistoryService {
+    BalanceResponse getBalanceAsOf(LocalDateTime asOf);
+    BalanceResponse getBalanceAsOf(String accountNumber, LocalDateTime asOf);
+}
@@ -0,0 +1,10 @@
+package com.moza.bankingApi.service;
+
+import com.moza.bankingApi.dto.response.CustomerImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface CustomerImportService {
+    CustomerImportResponse importCustomers(InputStream csv) throws IOException;
+}
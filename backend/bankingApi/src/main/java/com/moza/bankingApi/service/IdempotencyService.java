@@ -0,0 +1,9 @@
+package com.moza.bankingApi.service;
+
+import com.moza.bankingApi.dto.request.TransferRequest;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+    String execute(String idempotencyKey, TransferRequest request, Supplier<String> operation);
+}
@@ -0,0 +1,10 @@
+package com.moza.bankingApi.service;
+
+import com.moza.bankingApi.dto.response.MonthlySummaryResponse;
+
+import java.util.List;
+
+public interface MonthlySummaryService {
+    List<MonthlySummaryResponse> getMonthlySummaries(int months);
+    List<MonthlySummaryResponse> getMonthlySummaries(String accountNumber, int months);
+}
@@ -0,0 +1,7 @@
+package com.moza.bankingApi.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface StatementExportService {
+    StreamingResponseBody exportStatement(String format);
+}
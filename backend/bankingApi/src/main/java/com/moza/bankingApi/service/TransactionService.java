@@ -1,5 +1,7 @@
 package com.moza.bankingApi.service;
 
+import com.moza.bankingApi.dto.request.StatementCursor;
+import com.moza.bankingApi.dto.request.StatementFilter;
 import com.moza.bankingApi.dto.request.TransferRequest;
 import com.moza.bankingApi.dto.response.TransactionResponse;
 
@@ -8,5 +10,6 @@ import java.util.List;
 public interface TransactionService {
 
     void transfer(TransferRequest request);
-    List<TransactionResponse> getBankStatement();
+    void transferBatch(List<TransferRequest> legs);
+    List<TransactionResponse> getBankStatement(StatementFilter filter, StatementCursor after, int limit);
 }
@@ -0,0 +1,237 @@
+package com.moza.bankingApi.service.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Archive of one account: a data file of deflate-compressed blocks of {@link ArchiveRow}s, and an
+ * index file with one fixed-size entry per block.
+ *
+ * <p>Block layout before compression, per row: {@code long id | long epochSecond | int nano |
+ * boolean sent | long otherAccountId | UTF otherAccount | UTF amount | boolean hasDescription
+ * [| UTF description]}, rows in ascending {@code (timestamp, id)} order. Index entry:
+ * {@code long offset | int compressedLength | int rawLength | int rows | long minEpochSecond |
+ * long maxEpochSecond | int maxNano | long maxId | int crc32}.</p>
+ *
+ * <p>Blocks are forced to disk before their index entries are written, and an entry is only read
+ * back if its checksum matches, so readers never see a partially written block and need no lock.
+ * Data past the last indexed block, left by a crash, is cut off by the next {@link #append}.</p>
+ */
+final class ArchiveFile {
+
+    static final int ENTRY_SIZE = 52;
+
+    private final Path data;
+    private final Path index;
+
+    /**
+     * Location and key range of one compressed block.
+     */
+    record Block(long offset, int compressedLength, int rawLength, int rows,
+                 long minEpochSecond, long maxEpochSecond, int maxNano, long maxId) {
+    }
+
+    ArchiveFile(Path data, Path index) {
+        this.data = data;
+        this.index = index;
+    }
+
+    /**
+     * Path of the index file.
+     */
+    Path index() {
+        return index;
+    }
+
+    /**
+     * Reads the index, oldest block first.
+     *
+     * @return the blocks, empty if the account has no archive
+     */
+    List<Block> blocks() throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(index);
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        List<Block> blocks = new ArrayList<>(bytes.length / ENTRY_SIZE);
+        while (in.remaining() >= ENTRY_SIZE) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes, in.position(), ENTRY_SIZE - Integer.BYTES);
+            Block block = new Block(in.getLong(), in.getInt(), in.getInt(), in.getInt(),
+                    in.getLong(), in.getLong(), in.getInt(), in.getLong());
+            if ((int) crc.getValue() != in.getInt()) {
+                break;
+            }
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    /**
+     * Appends rows, sorted by {@code (timestamp, id)}, as blocks of at most {@code blockRows} rows.
+     * Rows not after the newest archived one are skipped: they were archived by a run whose
+     * database deletion did not commit. Called by the archiver thread only.
+     */
+    void append(List<ArchiveRow> rows, int blockRows) throws IOException {
+        List<Block> blocks = blocks();
+        Block last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        List<ArchiveRow> fresh = last == null ? rows : rows.stream()
+                .filter(row -> row.isAfter(last.maxEpochSecond(), last.maxNano(), last.maxId()))
+                .toList();
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        Files.createDirectories(data.getParent());
+        try (FileChannel dataChannel = FileChannel.open(data, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileChannel indexChannel = FileChannel.open(index, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long end = last == null ? 0 : last.offset() + last.compressedLength();
+            long indexed = (long) blocks.size() * ENTRY_SIZE;
+            dataChannel.truncate(end);
+            indexChannel.truncate(indexed);
+
+            int count = (fresh.size() + blockRows - 1) / blockRows;
+            ByteBuffer entries = ByteBuffer.allocate(count * ENTRY_SIZE);
+            for (int from = 0; from < fresh.size(); from += blockRows) {
+                List<ArchiveRow> chunk = fresh.subList(from, Math.min(fresh.size(), from + blockRows));
+                byte[] raw = encode(chunk);
+                byte[] compressed = deflate(raw);
+                writeFully(dataChannel, ByteBuffer.wrap(compressed), end);
+
+                ArchiveRow first = chunk.get(0);
+                ArchiveRow newest = chunk.get(chunk.size() - 1);
+                int start = entries.position();
+                entries.putLong(end);
+                entries.putInt(compressed.length);
+                entries.putInt(raw.length);
+                entries.putInt(chunk.size());
+                entries.putLong(first.epochSecond());
+                entries.putLong(newest.epochSecond());
+                entries.putInt(newest.timestamp().getNano());
+                entries.putLong(newest.id());
+                CRC32 crc = new CRC32();
+                crc.update(entries.array(), start, ENTRY_SIZE - Integer.BYTES);
+                entries.putInt((int) crc.getValue());
+                end += compressed.length;
+            }
+            dataChannel.force(false);
+            entries.flip();
+            writeFully(indexChannel, entries, indexed);
+            indexChannel.force(false);
+        }
+    }
+
+    /**
+     * Opens the data file for {@link #read}. Fails if the account has no archive.
+     */
+    FileChannel openData() throws IOException {
+        return FileChannel.open(data, StandardOpenOption.READ);
+    }
+
+    /**
+     * Maps one block and decompresses its rows, oldest first.
+     */
+    static List<ArchiveRow> read(FileChannel channel, Block block) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, block.offset(), block.compressedLength());
+        byte[] raw = new byte[block.rawLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(mapped);
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, length, raw.length - length);
+                if (read == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != raw.length) {
+                throw new IOException("Truncated archive block at offset " + block.offset());
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive block at offset " + block.offset(), e);
+        } finally {
+            inflater.end();
+        }
+        return decode(raw, block.rows());
+    }
+
+    private static byte[] encode(List<ArchiveRow> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (ArchiveRow row : rows) {
+            out.writeLong(row.id());
+            out.writeLong(row.epochSecond());
+            out.writeInt(row.timestamp().getNano());
+            out.writeBoolean(row.sent());
+            out.writeLong(row.otherAccountId());
+            out.writeUTF(row.otherAccount() == null ? "" : row.otherAccount());
+            out.writeUTF(row.amount().toPlainString());
+            out.writeBoolean(row.description() != null);
+            if (row.description() != null) {
+                out.writeUTF(row.description());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<ArchiveRow> decode(byte[] raw, int count) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        List<ArchiveRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = in.readLong();
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            boolean sent = in.readBoolean();
+            long otherAccountId = in.readLong();
+            String otherAccount = in.readUTF();
+            BigDecimal amount = new BigDecimal(in.readUTF());
+            String description = in.readBoolean() ? in.readUTF() : null;
+            rows.add(new ArchiveRow(id, timestamp, sent, otherAccountId, otherAccount, amount, description));
+        }
+        return rows;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.moza.bankingApi.service.archive;
+
+import com.moza.bankingApi.dto.response.TransactionResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One archived transaction as seen from one of its accounts. A transfer is archived twice, once
+ * in the archive of each side.
+ *
+ * @param id             the transaction primary key
+ * @param timestamp      when the transfer happened
+ * @param sent           {@code true} in the source account's archive, {@code false} in the destination's
+ * @param otherAccountId the counterparty account
+ * @param otherAccount   its public account number
+ * @param amount         the amount transferred
+ * @param description    the free-text description, possibly {@code null}
+ */
+record ArchiveRow(long id, LocalDateTime timestamp, boolean sent, long otherAccountId, String otherAccount,
+                  BigDecimal amount, String description) {
+
+    long epochSecond() {
+        return timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Whether this row comes after the given {@code (timestamp, id)} key.
+     */
+    boolean isAfter(long epochSecond, int nano, long otherId) {
+        long second = epochSecond();
+        if (second != epochSecond) {
+            return second > epochSecond;
+        }
+        if (timestamp.getNano() != nano) {
+            return timestamp.getNano() > nano;
+        }
+        return id > otherId;
+    }
+
+    TransactionResponse toResponse() {
+        return new TransactionResponse(amount, timestamp, sent ? "ENVIADA" : "RECEBIDA", otherAccount, id);
+    }
+}
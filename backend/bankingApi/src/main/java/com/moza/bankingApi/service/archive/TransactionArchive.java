@@ -0,0 +1,297 @@
+package com.moza.bankingApi.service.archive;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moza.bankingApi.config.ArchiveProperties;
+import com.moza.bankingApi.dto.request.StatementCursor;
+import com.moza.bankingApi.dto.response.TransactionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * {@code TransactionArchive} is the cold storage of the transactions moved out of the database by
+ * the {@link TransactionArchiver}. Each account has its own pair of files, spread over 256
+ * sub-directories by account id: {@code <dir>/<id % 256>/account-<id>.blk} holds the compressed
+ * blocks and {@code account-<id>.idx} their key ranges (see {@link ArchiveFile}).
+ *
+ * <p>The archiver moves transactions strictly oldest first, so every archived row of an account is
+ * older than its rows still in the database, and its blocks are in key order. Statements therefore
+ * read the database first and only open the archive for the rows the database page could not fill;
+ * blocks outside the requested period are skipped on their index entry, without being mapped.
+ * Parsed indexes are cached, keyed by the modification time and size of the index file, so that
+ * paging through an archived history does not read the index again for every page.</p>
+ *
+ * <p>The files are local: with several application instances the directory must be shared, and
+ * only one instance may run the archiver.</p>
+ */
+@Component
+public class TransactionArchive {
+
+    private static final Comparator<ArchiveRow> ORDER = Comparator.comparing(ArchiveRow::timestamp)
+            .thenComparingLong(ArchiveRow::id);
+
+    /**
+     * Blocks of an index file as parsed when the file had this modification time and size.
+     */
+    private record CachedIndex(FileTime modified, long size, List<ArchiveFile.Block> blocks) {
+
+        boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && modified.equals(attributes.lastModifiedTime());
+        }
+    }
+
+    private final Path directory;
+    private final int blockRows;
+    private final Cache<Path, CachedIndex> indexes;
+
+    public TransactionArchive(ArchiveProperties properties, MeterRegistry registry) {
+        this.directory = Path.of(properties.getDir());
+        this.blockRows = properties.getBlockRows();
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(properties.getIndexCacheSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, indexes, "archive.index");
+    }
+
+    /**
+     * Adds rows to the archive of an account. Rows already archived are skipped, so a batch whose
+     * deletion failed can be archived again.
+     *
+     * @param accountId the account the rows are seen from
+     * @param rows      rows newer than everything already archived for this account, in any order
+     */
+    void append(Long accountId, List<ArchiveRow> rows) throws IOException {
+        List<ArchiveRow> sorted = new ArrayList<>(rows);
+        sorted.sort(ORDER);
+        fileOf(accountId).append(sorted, blockRows);
+    }
+
+    /**
+     * Completes a statement page read from the database with archived rows, newest first. The
+     * bounds are those of {@code TransactionRepository.findSentStatement}; rows found in both
+     * places, archived by a run whose deletion had not committed yet, are returned once.
+     *
+     * @param accountId the account whose statement is requested
+     * @param live      the page read from the database, newest first
+     * @param from      lower timestamp bound, inclusive
+     * @param before    upper timestamp bound
+     * @param beforeId  rows at {@code before} are included only below this id
+     * @param filter    the type and amount criteria of the statement
+     * @param limit     the page size
+     * @return the completed page, {@code live} itself when it is full or the account has no archive
+     * @throws UncheckedIOException if the archive cannot be read
+     */
+    public List<TransactionResponse> completeStatement(Long accountId, List<TransactionResponse> live,
+                                                       LocalDateTime from, LocalDateTime before, long beforeId,
+                                                       Predicate<TransactionResponse> filter, int limit) {
+        // Archived rows are older than every row left in the database: a full page needs none of them
+        if (live.size() >= limit) {
+            return live;
+        }
+        ArchiveFile file = fileOf(accountId);
+        List<ArchiveFile.Block> blocks = blocks(file);
+        if (blocks.isEmpty()) {
+            return live;
+        }
+        ArchiveFile.Block newest = blocks.get(blocks.size() - 1);
+        LocalDateTime newestTimestamp = newestTimestamp(newest);
+        List<TransactionResponse> page = new ArrayList<>(limit);
+        for (TransactionResponse row : live) {
+            if (isAfter(row, newestTimestamp, newest.maxId())) {
+                page.add(row);
+            }
+        }
+        if (page.size() >= limit) {
+            return page;
+        }
+
+        long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+        long beforeSecond = before.toEpochSecond(ZoneOffset.UTC);
+        try (FileChannel channel = file.openData()) {
+            for (int i = blocks.size() - 1; i >= 0 && page.size() < limit; i--) {
+                ArchiveFile.Block block = blocks.get(i);
+                if (block.maxEpochSecond() < fromSecond) {
+                    break;
+                }
+                if (block.minEpochSecond() > beforeSecond) {
+                    continue;
+                }
+                List<ArchiveRow> rows = ArchiveFile.read(channel, block);
+                for (int j = rows.size() - 1; j >= 0 && page.size() < limit; j--) {
+                    ArchiveRow row = rows.get(j);
+                    LocalDateTime timestamp = row.timestamp();
+                    if (timestamp.isBefore(from)) {
+                        break;
+                    }
+                    if (timestamp.isBefore(before) || (timestamp.isEqual(before) && row.id() < beforeId)) {
+                        TransactionResponse response = row.toResponse();
+                        if (filter.test(response)) {
+                            page.add(response);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return page;
+    }
+
+    /**
+     * Streams the whole history of an account, oldest first: its archive, decompressed one block at
+     * a time, then the rows still in the database. Closing the returned stream closes {@code live}.
+     * {@code live} must be opened first: a row deleted by the archiver after it was opened is then
+     * in the archive index read here, and returned once.
+     *
+     * @param accountId the account whose statement is exported
+     * @param live      the database rows of the account, oldest first
+     * @return the complete history
+     * @throws UncheckedIOException if the archive cannot be read
+     */
+    public Stream<TransactionResponse> streamStatement(Long accountId, Stream<TransactionResponse> live) {
+        ArchiveFile file = fileOf(accountId);
+        List<ArchiveFile.Block> blocks = blocks(file);
+        if (blocks.isEmpty()) {
+            return live;
+        }
+        ArchiveFile.Block newest = blocks.get(blocks.size() - 1);
+        LocalDateTime newestTimestamp = newestTimestamp(newest);
+        FileChannel channel;
+        try {
+            channel = file.openData();
+        } catch (IOException e) {
+            live.close();
+            throw new UncheckedIOException(e);
+        }
+        Stream<TransactionResponse> archived = blocks.stream()
+                .flatMap(block -> {
+                    try {
+                        return ArchiveFile.read(channel, block).stream();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .map(ArchiveRow::toResponse)
+                .onClose(() -> {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return Stream.concat(archived, live.filter(row -> isAfter(row, newestTimestamp, newest.maxId())));
+    }
+
+    /**
+     * Returns the key of the newest archived transaction of an account. Database rows up to it are
+     * also in the archive, until the archiver's deletion commits.
+     *
+     * @param accountId the account
+     * @return the key, or {@code null} if the account has no archive
+     * @throws UncheckedIOException if the archive index cannot be read
+     */
+    public StatementCursor newestArchived(Long accountId) {
+        List<ArchiveFile.Block> blocks = blocks(fileOf(accountId));
+        if (blocks.isEmpty()) {
+            return null;
+        }
+        ArchiveFile.Block newest = blocks.get(blocks.size() - 1);
+        return new StatementCursor(newestTimestamp(newest), newest.maxId());
+    }
+
+    /**
+     * Sums the archived transfers of an account over {@code [from, to)}, reading only the blocks
+     * overlapping the period.
+     *
+     * @param accountId the account
+     * @param from      start of the period, inclusive
+     * @param to        end of the period, exclusive
+     * @return the amount received minus the amount sent
+     * @throws UncheckedIOException if the archive cannot be read
+     */
+    public BigDecimal netFlow(Long accountId, LocalDateTime from, LocalDateTime to) {
+        ArchiveFile file = fileOf(accountId);
+        List<ArchiveFile.Block> blocks = blocks(file);
+        BigDecimal net = BigDecimal.ZERO;
+        if (blocks.isEmpty()) {
+            return net;
+        }
+        long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+        try (FileChannel channel = file.openData()) {
+            for (ArchiveFile.Block block : blocks) {
+                if (block.maxEpochSecond() < fromSecond || block.minEpochSecond() > toSecond) {
+                    continue;
+                }
+                for (ArchiveRow row : ArchiveFile.read(channel, block)) {
+                    if (!row.timestamp().isBefore(from) && row.timestamp().isBefore(to)) {
+                        net = row.sent() ? net.subtract(row.amount()) : net.add(row.amount());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return net;
+    }
+
+    private static LocalDateTime newestTimestamp(ArchiveFile.Block newest) {
+        return LocalDateTime.ofEpochSecond(newest.maxEpochSecond(), newest.maxNano(), ZoneOffset.UTC);
+    }
+
+    private static boolean isAfter(TransactionResponse row, LocalDateTime timestamp, long id) {
+        int order = row.getDateTime().compareTo(timestamp);
+        return order > 0 || (order == 0 && row.getId() > id);
+    }
+
+    /**
+     * Returns the blocks of an archive, parsing its index only when the file changed since it was
+     * last parsed. The attributes are read first, so a concurrent append is seen on the next call.
+     */
+    private List<ArchiveFile.Block> blocks(ArchiveFile file) {
+        Path index = file.index();
+        try {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(index, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                indexes.invalidate(index);
+                return List.of();
+            }
+            CachedIndex cached = indexes.getIfPresent(index);
+            if (cached != null && cached.matches(attributes)) {
+                return cached.blocks();
+            }
+            List<ArchiveFile.Block> blocks = List.copyOf(file.blocks());
+            indexes.put(index, new CachedIndex(attributes.lastModifiedTime(), attributes.size(), blocks));
+            return blocks;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ArchiveFile fileOf(Long accountId) {
+        Path partition = directory.resolve(String.format("%02x", accountId & 0xff));
+        return new ArchiveFile(partition.resolve("account-" + accountId + ".blk"),
+                partition.resolve("account-" + accountId + ".idx"));
+    }
+}
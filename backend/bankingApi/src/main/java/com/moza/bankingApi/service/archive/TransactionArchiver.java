@@ -0,0 +1,111 @@
+package com.moza.bankingApi.service.archive;
+
+import com.moza.bankingApi.config.ArchiveProperties;
+import com.moza.bankingApi.model.Transaction;
+import com.moza.bankingApi.repository.PostingRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.repository.projection.ArchivableTransaction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * {@code TransactionArchiver} periodically moves the {@link Transaction}s older than
+ * {@code app.archive.retention-days} out of the database into the {@link TransactionArchive}, so
+ * that the transaction table and its indexes only hold recent history.
+ *
+ * <p>Transactions are moved in batches, strictly in {@code (timestamp, id)} order. Each batch is
+ * first written to the archive files and forced to disk, then deleted, together with its postings,
+ * in one database transaction; a crash in between leaves the rows in both places, which readers
+ * tolerate and the next run resolves. A transaction whose postings are not yet folded into a
+ * balance snapshot stops the run, since deleting them would lose their amount; the
+ * {@code LedgerSnapshotter} catches up long before the retention period ends.</p>
+ *
+ * <p>Balances and monthly summaries are stored on their own and are unaffected by the deletion.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionArchiver {
+
+    private final TransactionRepository transactionRepository;
+    private final PostingRepository postingRepository;
+    private final TransactionArchive transactionArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDate.now().minusDays(properties.getRetentionDays()).atStartOfDay();
+        try {
+            for (int i = 0; i < properties.getMaxBatches(); i++) {
+                if (!archiveBatch(cutoff)) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Nothing of the failed batch was deleted: it is archived again on the next run
+            log.error("Could not write the transaction archive", e);
+        }
+    }
+
+    /**
+     * Archives and deletes the oldest transactions created before {@code cutoff}.
+     *
+     * @return whether older transactions may remain
+     */
+    private boolean archiveBatch(LocalDateTime cutoff) throws IOException {
+        List<ArchivableTransaction> batch = transactionRepository.findArchivable(cutoff, Limit.of(properties.getBatchSize()));
+        if (batch.isEmpty()) {
+            return false;
+        }
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (ArchivableTransaction transaction : batch) {
+            ids.add(transaction.id());
+        }
+        Set<Long> pending = new HashSet<>(postingRepository.findTransactionIdsWithPending(ids));
+        boolean complete = pending.isEmpty() && batch.size() == properties.getBatchSize();
+
+        Map<Long, List<ArchiveRow>> rows = new TreeMap<>();
+        ids.clear();
+        for (ArchivableTransaction t : batch) {
+            if (pending.contains(t.id())) {
+                break;
+            }
+            ids.add(t.id());
+            rows.computeIfAbsent(t.sourceId(), id -> new ArrayList<>()).add(new ArchiveRow(t.id(), t.timestamp(),
+                    true, t.destinationId(), t.destinationAccountNumber(), t.amount(), t.description()));
+            rows.computeIfAbsent(t.destinationId(), id -> new ArrayList<>()).add(new ArchiveRow(t.id(), t.timestamp(),
+                    false, t.sourceId(), t.sourceAccountNumber(), t.amount(), t.description()));
+        }
+        if (ids.isEmpty()) {
+            return false;
+        }
+
+        for (Map.Entry<Long, List<ArchiveRow>> account : rows.entrySet()) {
+            transactionArchive.append(account.getKey(), account.getValue());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            postingRepository.deleteByTransactionIds(ids);
+            transactionRepository.deleteAllByIdIn(ids);
+        });
+        log.info("Archived {} transactions older than {}", ids.size(), cutoff);
+        return complete;
+    }
+}
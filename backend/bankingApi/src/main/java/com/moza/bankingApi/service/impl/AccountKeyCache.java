@@ -0,0 +1,149 @@
+package com.moza.bankingApi.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moza.bankingApi.config.AccountCacheProperties;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.projection.AccountKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * {@code AccountKeyCache} resolves account numbers to {@link AccountKey}s for the transfer
+ * engines, so that a transfer reaches the database only to lock its accounts by primary key.
+ *
+ * <p>An account's number and id never change, so entries are only bounded in number and, for the
+ * hot-slot count, in time ({@link AccountCacheProperties}). Unknown numbers are not cached. The
+ * {@link AccountKeyCacheListener} evicts an account when it is created, removed or switched in or
+ * out of hot mode, once when the change is flushed and again once it commits, so that a lookup
+ * racing with the transaction cannot keep the old key. The engines tolerate a stale hot-slot
+ * count: sources are folded according to their locked row, and a credit slot that no longer
+ * exists evicts the key and retries the transfer.</p>
+ *
+ * <p>Hit, miss, load and eviction statistics are published through Micrometer as the standard
+ * {@code cache.*} meters tagged {@code cache=account.keys}; explicit evictions are counted by
+ * {@code bank.account.keys.invalidations}. With {@code app.cache.account-keys.enabled=false}
+ * every lookup queries the database.</p>
+ */
+@Component
+public class AccountKeyCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, AccountKey> keys;
+    private final Counter invalidations;
+
+    public AccountKeyCache(AccountCacheProperties properties, AccountRepository accountRepository,
+                           MeterRegistry registry) {
+        this.accountRepository = accountRepository;
+        if (properties.isKeysEnabled()) {
+            this.keys = Caffeine.newBuilder()
+                    .maximumSize(properties.getKeysMaxSize())
+                    .expireAfterWrite(Duration.ofMillis(properties.getKeysTtlMs()))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(registry, keys, "account.keys");
+        } else {
+            this.keys = null;
+        }
+        this.invalidations = registry.counter("bank.account.keys.invalidations");
+    }
+
+    /**
+     * Resolves one account number.
+     *
+     * @param accountNumber the account number
+     * @return the account key, empty if no account has this number
+     */
+    public Optional<AccountKey> find(String accountNumber) {
+        if (keys == null || accountNumber == null) {
+            return accountRepository.findKeyByAccountNumber(accountNumber);
+        }
+        return Optional.ofNullable(keys.get(accountNumber,
+                number -> accountRepository.findKeyByAccountNumber(number).orElse(null)));
+    }
+
+    /**
+     * Resolves several account numbers, loading all the missing ones with a single
+     * {@code IN (...)} query.
+     *
+     * @param accountNumbers the account numbers
+     * @return the keys by account number; unknown numbers are simply absent
+     */
+    public Map<String, AccountKey> findAll(Collection<String> accountNumbers) {
+        List<String> numbers = accountNumbers.stream().filter(Objects::nonNull).toList();
+        if (keys == null) {
+            return load(numbers);
+        }
+        return keys.getAll(numbers, this::load);
+    }
+
+    /**
+     * Evicts an account number right away, e.g. after finding that its cached key is stale.
+     *
+     * @param accountNumber the account number
+     */
+    public void invalidate(String accountNumber) {
+        if (keys != null && accountNumber != null) {
+            keys.invalidate(accountNumber);
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Evicts an account number now and again once the current transaction commits, or only now
+     * outside a transaction.
+     *
+     * @param accountNumber the account number
+     */
+    void invalidateAfterCommit(String accountNumber) {
+        invalidate(accountNumber);
+        if (keys != null && accountNumber != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(accountNumber);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts an updated account if its cached key no longer matches it. Balance updates, by far
+     * the most frequent, leave the key untouched.
+     *
+     * @param account the account just updated
+     */
+    void invalidateIfChanged(Account account) {
+        if (keys == null || account.getAccountNumber() == null) {
+            return;
+        }
+        AccountKey cached = keys.getIfPresent(account.getAccountNumber());
+        if (cached != null && (!cached.id().equals(account.getId()) || cached.hotSlots() != account.getHotSlots())) {
+            invalidateAfterCommit(account.getAccountNumber());
+        }
+    }
+
+    private Map<String, AccountKey> load(Collection<? extends String> accountNumbers) {
+        Map<String, AccountKey> loaded = new HashMap<>();
+        if (accountNumbers.isEmpty()) {
+            return loaded;
+        }
+        for (AccountKey key : accountRepository.findKeysByAccountNumberIn(List.copyOf(accountNumbers))) {
+            loaded.put(key.accountNumber(), key);
+        }
+        return loaded;
+    }
+}
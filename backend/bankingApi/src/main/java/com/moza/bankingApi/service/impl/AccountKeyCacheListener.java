@@ -0,0 +1,36 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.model.Account;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * JPA entity listener of {@link Account} keeping the {@link AccountKeyCache} in step with the
+ * accounts table. Registered in {@code META-INF/orm.xml}, so that the model does not depend on the
+ * services. Instantiated by Hibernate through Spring, which injects the cache lazily: the cache
+ * depends on the repositories, which are only available once the entity manager is built.
+ *
+ * <p>Bulk JPQL updates such as {@code AccountRepository.addToBalance} bypass the listener; they
+ * never change a key.</p>
+ */
+public class AccountKeyCacheListener {
+
+    private final AccountKeyCache accountKeyCache;
+
+    public AccountKeyCacheListener(@Lazy AccountKeyCache accountKeyCache) {
+        this.accountKeyCache = accountKeyCache;
+    }
+
+    @PostPersist
+    @PostRemove
+    void evict(Account account) {
+        accountKeyCache.invalidateAfterCommit(account.getAccountNumber());
+    }
+
+    @PostUpdate
+    void evictIfChanged(Account account) {
+        accountKeyCache.invalidateIfChanged(account);
+    }
+}
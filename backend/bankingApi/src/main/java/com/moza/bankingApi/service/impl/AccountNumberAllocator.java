@@ -0,0 +1,119 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.config.AccountNumberProperties;
+import com.moza.bankingApi.model.AccountNumberRange;
+import com.moza.bankingApi.repository.AccountNumberRangeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@code AccountNumberAllocator} hands out new account numbers, in the format of
+ * {@link AccountNumbers}, that never collide across nodes.
+ *
+ * <p>Numbers are reserved in blocks of {@link AccountNumberProperties#getBlockSize()} from an
+ * {@link AccountNumberRange} stripe picked at random, in a short transaction of its own, and then
+ * handed out from memory. Concurrent reservations therefore rarely wait on the same row, and a
+ * block reserved by a node is never handed out by another one.</p>
+ */
+@Slf4j
+@Component
+public class AccountNumberAllocator {
+
+    /**
+     * Number of {@link AccountNumberRange} rows the number space is split into. Changing it would
+     * make stripes overlap.
+     */
+    static final int STRIPES = 16;
+
+    private final AccountNumberRangeRepository rangeRepository;
+    private final AccountNumberProperties properties;
+    private final TransactionTemplate reservation;
+
+    private int stripe;
+    private long next;
+    private long end;
+
+    public AccountNumberAllocator(AccountNumberRangeRepository rangeRepository,
+                                  AccountNumberProperties properties,
+                                  PlatformTransactionManager transactionManager) {
+        this.rangeRepository = rangeRepository;
+        this.properties = properties;
+        this.reservation = new TransactionTemplate(transactionManager);
+        this.reservation.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Creates the stripes missing from the range table. Another node creating them at the same
+     * time is harmless.
+     */
+    @PostConstruct
+    void createStripes() {
+        try {
+            reservation.executeWithoutResult(status -> {
+                List<AccountNumberRange> missing = new ArrayList<>();
+                for (int s = 0; s < STRIPES; s++) {
+                    if (!rangeRepository.existsById(s)) {
+                        missing.add(new AccountNumberRange(s, 0));
+                    }
+                }
+                rangeRepository.saveAll(missing);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Account number stripes created concurrently", e);
+        }
+    }
+
+    /**
+     * Returns a new account number.
+     */
+    public String allocate() {
+        return allocate(1).get(0);
+    }
+
+    /**
+     * Returns {@code count} new account numbers, reserving a larger block when needed.
+     *
+     * @param count the number of account numbers, at least {@code 1}
+     * @throws IllegalStateException if the number space is exhausted
+     */
+    public synchronized List<String> allocate(int count) {
+        List<String> numbers = new ArrayList<>(count);
+        while (numbers.size() < count) {
+            if (next == end) {
+                reserve(Math.max(properties.getBlockSize(), count - numbers.size()));
+            }
+            numbers.add(AccountNumbers.format(AccountNumbers.FIRST_BODY + next++ * STRIPES + stripe));
+        }
+        return numbers;
+    }
+
+    /**
+     * Reserves the next {@code size} values of a random stripe, committed before any of them is
+     * handed out.
+     */
+    private void reserve(int size) {
+        int candidate = ThreadLocalRandom.current().nextInt(STRIPES);
+        long first = reservation.execute(status -> {
+            AccountNumberRange range = rangeRepository.findForUpdate(candidate)
+                    .orElseThrow(() -> new IllegalStateException("Faixa de números de conta em falta: " + candidate));
+            long value = range.getNextValue();
+            if (AccountNumbers.FIRST_BODY + (value + size) * STRIPES > AccountNumbers.BODY_LIMIT) {
+                throw new IllegalStateException("Números de conta esgotados na faixa " + candidate);
+            }
+            range.setNextValue(value + size);
+            return value;
+        });
+        stripe = candidate;
+        next = first;
+        end = first + size;
+    }
+}
@@ -0,0 +1,42 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.config.AccountNumberProperties;
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code AccountNumberValidator} rejects malformed account numbers of a transfer before any
+ * lookup, following {@link AccountNumberProperties#isRequireCheckDigit()}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountNumberValidator {
+
+    private final AccountNumberProperties properties;
+
+    /**
+     * Checks both account numbers of a transfer.
+     *
+     * @throws BadRequestException if either of them is malformed
+     */
+    public void validate(TransferRequest request) {
+        validate(request.getFromAccountNumber());
+        validate(request.getToAccountNumber());
+    }
+
+    /**
+     * Checks a single account number.
+     *
+     * @throws BadRequestException if it is missing, or has the allocated format (or it is
+     *                             required) without valid check digits
+     */
+    public void validate(String accountNumber) {
+        if (accountNumber == null
+                || (properties.isRequireCheckDigit() || AccountNumbers.hasAllocatedFormat(accountNumber))
+                && !AccountNumbers.isValid(accountNumber)) {
+            throw new BadRequestException("Número de conta inválido: " + accountNumber);
+        }
+    }
+}
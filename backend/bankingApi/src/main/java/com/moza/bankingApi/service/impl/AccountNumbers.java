@@ -0,0 +1,63 @@
+package com.moza.bankingApi.service.impl;
+
+/**
+ * {@code AccountNumbers} defines the format of the account numbers handed out by
+ * {@link AccountNumberAllocator}: an 11-digit body followed by two ISO 7064 MOD 97-10 check
+ * digits, 13 digits in all. A number is valid when, read as an integer, it leaves a remainder of
+ * {@code 1} modulo 97, which catches every single mistyped digit and almost every swap of two
+ * adjacent digits.
+ */
+public final class AccountNumbers {
+
+    /**
+     * Length of an allocated account number.
+     */
+    public static final int LENGTH = 13;
+
+    /**
+     * Smallest body, so that every allocated number has 13 significant digits.
+     */
+    static final long FIRST_BODY = 10_000_000_000L;
+
+    /**
+     * First body beyond the 11 digits available.
+     */
+    static final long BODY_LIMIT = 100_000_000_000L;
+
+    private AccountNumbers() {
+    }
+
+    /**
+     * Appends the check digits to a body.
+     *
+     * @param body between {@link #FIRST_BODY} inclusive and {@link #BODY_LIMIT} exclusive
+     * @return the 13-digit account number
+     */
+    static String format(long body) {
+        return Long.toString(body * 100 + 98 - body * 100 % 97);
+    }
+
+    /**
+     * Tells whether a number has the shape of an allocated one, 13 digits, regardless of its
+     * check digits.
+     */
+    public static boolean hasAllocatedFormat(String number) {
+        if (number == null || number.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = number.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether a number has the allocated format and valid check digits.
+     */
+    public static boolean isValid(String number) {
+        return hasAllocatedFormat(number) && Long.parseLong(number) % 97 == 1;
+    }
+}
@@ -0,0 +1,184 @@
+package com.moza.bankingApi.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moza.bankingApi.config.AccountCacheProperties;
+import com.moza.bankingApi.dto.response.AccountDetailsResponse;
+import com.moza.bankingApi.dto.response.TransactionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * {@code AccountReadCache} keeps, per account, what the dashboard reads on every page load: the
+ * account details and the first page of the unfiltered statement. Entries are bounded in number
+ * and time ({@link AccountCacheProperties}), and a transfer evicts the accounts it touched once
+ * its transaction has committed.
+ *
+ * <p>Values are loaded inside the cache's own per-key computation. An eviction issued while a
+ * load is running waits for it and then removes its result, so a load that read the database
+ * just before a commit cannot outlive that commit's eviction.</p>
+ *
+ * <p>Hit, miss, load and eviction statistics are published through Micrometer as the standard
+ * {@code cache.*} meters, tagged {@code cache=account.owners|account.details|account.statements};
+ * explicit evictions after transfers are counted by {@code bank.account.cache.invalidations}.</p>
+ */
+@Component
+public class AccountReadCache {
+
+    /**
+     * First page of an account's statement, loaded with {@code limit}. Compared by identity, so a
+     * conditional replace only matches the very entry that was read.
+     */
+    private static final class StatementPage {
+        final int limit;
+        final List<TransactionResponse> rows;
+
+        StatementPage(int limit, List<TransactionResponse> rows) {
+            this.limit = limit;
+            this.rows = rows;
+        }
+
+        boolean covers(int requested) {
+            return requested <= limit || rows.size() < limit;
+        }
+
+        List<TransactionResponse> head(int requested) {
+            return rows.size() <= requested ? rows : rows.subList(0, requested);
+        }
+    }
+
+    private final Cache<String, Long> owners;
+    private final Cache<Long, AccountDetailsResponse> accounts;
+    private final Cache<Long, StatementPage> statements;
+    private final Counter invalidations;
+
+    public AccountReadCache(AccountCacheProperties properties, MeterRegistry registry) {
+        Duration ttl = Duration.ofMillis(properties.getTtlMs());
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(properties.getOwnersMaxSize())
+                .recordStats()
+                .build();
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(properties.getAccountsMaxSize())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.statements = Caffeine.newBuilder()
+                .maximumSize(properties.getStatementsMaxSize())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, owners, "account.owners");
+        CaffeineCacheMetrics.monitor(registry, accounts, "account.details");
+        CaffeineCacheMetrics.monitor(registry, statements, "account.statements");
+        this.invalidations = registry.counter("bank.account.cache.invalidations");
+    }
+
+    /**
+     * Returns the id of the account owned by a user. The owner of an account never changes, so
+     * these entries are only bounded in number.
+     *
+     * @param username the owner's username
+     * @param loader   reads the id when it is not cached; its exceptions are propagated
+     */
+    public Long accountId(String username, Supplier<Long> loader) {
+        return owners.get(username, key -> loader.get());
+    }
+
+    /**
+     * Returns the id of the account owned by a user if it is cached, {@code null} otherwise.
+     *
+     * @param username the owner's username
+     */
+    public Long cachedAccountId(String username) {
+        return owners.getIfPresent(username);
+    }
+
+    /**
+     * Returns the details of an account, as shown by {@code /accounts/me}, with their entity tag.
+     *
+     * @param accountId the account
+     * @param loader    reads the details when they are not cached; its exceptions are propagated
+     */
+    public AccountDetailsResponse account(Long accountId, Supplier<AccountDetailsResponse> loader) {
+        return accounts.get(accountId, key -> loader.get());
+    }
+
+    /**
+     * Returns the first page of an account's unfiltered statement. A cached page also answers
+     * smaller limits, and larger ones when it already holds the whole history; otherwise the
+     * larger page is read from the database and replaces it.
+     *
+     * @param accountId the account
+     * @param limit     the page size
+     * @param loader    reads a page of the given size; its exceptions are propagated
+     */
+    public List<TransactionResponse> firstStatementPage(Long accountId, int limit,
+                                                        Supplier<List<TransactionResponse>> loader) {
+        StatementPage cached = statements.get(accountId, key -> new StatementPage(limit, List.copyOf(loader.get())));
+        if (cached.covers(limit)) {
+            return cached.head(limit);
+        }
+        StatementPage larger = new StatementPage(limit, List.copyOf(loader.get()));
+        // Only replaces the entry read above: if it was evicted meanwhile, the new page may predate that eviction
+        statements.asMap().replace(accountId, cached, larger);
+        return larger.rows;
+    }
+
+    /**
+     * Evicts accounts once the current transaction commits, or right away outside a transaction.
+     * A rolled back transaction evicts nothing. Accounts are collected per transaction, so a
+     * batch touching an account many times evicts it once.
+     *
+     * @param accountIds the accounts whose balance or statement the transaction changes
+     */
+    public void evictAfterCommit(Long... accountIds) {
+        evictAfterCommit(List.of(accountIds));
+    }
+
+    /**
+     * @see #evictAfterCommit(Long...)
+     */
+    public void evictAfterCommit(Collection<Long> accountIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(accountIds);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> touched = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, touched);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(touched);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AccountReadCache.this);
+                }
+            });
+            pending = touched;
+        }
+        pending.addAll(accountIds);
+    }
+
+    private void evict(Collection<Long> accountIds) {
+        accounts.invalidateAll(accountIds);
+        statements.invalidateAll(accountIds);
+        invalidations.increment(accountIds.size());
+    }
+}
@@ -1,6 +1,12 @@
 package com.moza.bankingApi.service.impl;
 
+import com.moza.bankingApi.dto.request.AccountCursor;
+import com.moza.bankingApi.dto.request.AccountFilter;
 import com.moza.bankingApi.dto.request.AccountRequest;
+import com.moza.bankingApi.dto.request.AccountSort;
+import com.moza.bankingApi.dto.response.AccountDetailsResponse;
+import com.moza.bankingApi.dto.response.AccountSummaryResponse;
+import com.moza.bankingApi.exception.BadRequestException;
 import com.moza.bankingApi.exception.EntityNotFountException;
 import com.moza.bankingApi.model.Account;
 import com.moza.bankingApi.model.Transaction;
@@ -8,7 +14,9 @@ import com.moza.bankingApi.model.User;
 import com.moza.bankingApi.repository.AccountRepository;
 import com.moza.bankingApi.repository.TransactionRepository;
 import com.moza.bankingApi.repository.UserRepository;
+import com.moza.bankingApi.repository.projection.AccountView;
 import com.moza.bankingApi.service.AccountService;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -18,7 +26,7 @@ import java.util.List;
 /**
  * The {@code AccountServiceImpl} class is a Spring service component responsible for
  * managing account-related business logic, including account creation,
- * retrieval of all accounts, and fetching account details by username.
+ * paginated listing of the accounts, and fetching account details by username.
  * <p>
  * It interacts with repositories to persist and query {@link Account} and {@link User} entities.
  * </p>
@@ -27,6 +35,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
+    /**
+     * Largest account listing page a client may request.
+     */
+    public static final int MAX_ACCOUNT_PAGE = 500;
+
     /**
      * Repository interface for CRUD operations on {@link Account} entities.
      */
@@ -42,19 +55,42 @@ public class AccountServiceImpl implements AccountService {
      */
     private final TransactionRepository transactionRepo;
 
+    /**
+     * Sharded balances of hot accounts, aggregated into the reported balance.
+     */
+    private final HotAccountBalances hotAccountBalances;
+
+    /**
+     * Per-account cache of the details below, evicted after each committed transfer.
+     */
+    private final AccountReadCache accountReadCache;
+
+    /**
+     * Hands out the numbers of new accounts.
+     */
+    private final AccountNumberAllocator accountNumberAllocator;
+
     /**
      * Creates a new account based on the given {@link AccountRequest}, associating it with
      * the user identified by username in the request. Throws exception if user is not found.
+     * <p>
+     * The account number is allocated by the {@link AccountNumberAllocator}; the request must not
+     * carry one.
+     * </p>
      *
      * @param request the {@link AccountRequest} containing data for the new account
-     * @return a string with a message about the status of account creation
+     * @return a string with a message about the status of account creation, with the account number
      * @throws EntityNotFountException if the user specified in the request does not exist
+     * @throws BadRequestException if the request carries an account number
      */
 
     @Override
     public String createAccount(AccountRequest request) {
 
 
+        if(request.getAccountNumber() != null && !request.getAccountNumber().isBlank())
+            throw new BadRequestException("O número de conta é atribuído pelo sistema");
+
         if(!userRepo.existsByUsername(request.getUsername()))
             return "User does not exist";
 
@@ -64,48 +100,112 @@ public class AccountServiceImpl implements AccountService {
         account.setUser(user);
         account.setUserName(request.getUserName());
         account.setNuit(request.getNuit());
-        account.setAccountNumber(request.getAccountNumber());
+        account.setAccountNumber(accountNumberAllocator.allocate());
         account.setBalance(request.getBalance());
         accountRepo.save(account);
 
-        return "Account created successful";
+        return "Account created successful: " + account.getAccountNumber();
     }
 
     /**
-     * Retrieves a list of all accounts present in the database.
+     * Retrieves one page of the accounts, as flat projections read by a single query.
      *
-     * @return a {@link List} of all {@link Account} entities
+     * @param filter    the criteria, all optional
+     * @param sort      {@code id}, {@code accountNumber} or {@code userName}; accounts without the
+     *                  sorted attribute are listed last, by id
+     * @param direction {@code asc} or {@code desc}
+     * @param after     the cursor of the last account of the previous page, or {@code null}
+     * @param limit     the page size, between 1 and {@value #MAX_ACCOUNT_PAGE}
+     * @return a {@link List} of {@link AccountSummaryResponse}
+     * @throws BadRequestException if the order, the cursor or the page size is invalid
      */
     @Override
-    public List<Account> getAllAccounts() {
-        return accountRepo.findAll();
+    public List<AccountSummaryResponse> getAccounts(AccountFilter filter, String sort, String direction,
+                                                    String after, int limit) {
+        if (limit < 1 || limit > MAX_ACCOUNT_PAGE)
+            throw new BadRequestException("O limite deve estar entre 1 e " + MAX_ACCOUNT_PAGE);
+        if (!"asc".equals(direction) && !"desc".equals(direction))
+            throw new BadRequestException("Direção inválida: " + direction);
+
+        AccountSort order = AccountSort.parse(sort);
+        return accountRepo.findAccountPage(filter == null ? AccountFilter.NONE : filter, order,
+                "desc".equals(direction), AccountCursor.parse(after, order), limit);
     }
 
     /**
      * Retrieves account details associated with the user identified by the given username.
-     * Returns the details as an {@link AccountRequest} DTO.
+     * Returns the details as an {@link AccountRequest} DTO, with an entity tag that changes
+     * whenever they do.
+     * <p>
+     * The details, effective balance included, are read with a single query joining user and
+     * account, and then served from the
+     * {@link AccountReadCache} until a transfer touching the account commits, or the entry expires.
+     * The first read of a user is not cached: only its account id is, since a transfer committing
+     * meanwhile would not evict details it does not know about yet.
+     * </p>
      *
      * @param username the username of the user whose account details are requested
-     * @return an {@link AccountRequest} containing the account information
+     * @return an {@link AccountDetailsResponse} containing the account information and its tag
      * @throws EntityNotFountException if the user or the account is not found
      */
     @Override
-    public AccountRequest getAccountByUsername(String username) {
-        User user = userRepo.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFountException("Usuário não encontrado: " + username));
-
-        Account account = accountRepo.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("Conta não encontrada para o usuário"));
+    public AccountDetailsResponse getAccountByUsername(String username) {
+        Long accountId = accountReadCache.cachedAccountId(username);
+        if (accountId == null) {
+            AccountView view = accountRepo.findViewByUsername(username)
+                    .orElseThrow(() -> userRepo.existsByUsername(username)
+                            ? new EntityNotFountException("Conta não encontrada para o usuário")
+                            : new EntityNotFountException("Usuário não encontrado: " + username));
+            accountReadCache.accountId(username, view::id);
+            return details(view, username);
+        }
+
+        return accountReadCache.account(accountId, () -> details(accountRepo.findViewById(accountId)
+                .orElseThrow(() -> new EntityNotFountException("Conta não encontrada para o usuário")), username));
+    }
 
-        // Preenche AccountRequest usando setters (Lombok já gera para você)
+    /**
+     * Builds the details of an account and their tag. The row version alone does not cover
+     * credits to hot slots nor pending postings, so the tag also hashes the effective balance.
+     */
+    private AccountDetailsResponse details(AccountView view, String username) {
         AccountRequest accountRequest = new AccountRequest();
-        accountRequest.setUserName(account.getUserName());
-        accountRequest.setNuit(account.getNuit());
-        accountRequest.setAccountNumber(account.getAccountNumber());
-        accountRequest.setBalance(account.getBalance());
-        accountRequest.setUsername(user.getUsername());
+        accountRequest.setUserName(view.userName());
+        accountRequest.setNuit(view.nuit());
+        accountRequest.setAccountNumber(view.accountNumber());
+        accountRequest.setBalance(view.balance());
+        accountRequest.setUsername(username);
+
+        String etag = "\"" + view.id() + "-" + view.version() + "-"
+                + Integer.toHexString(accountRequest.hashCode()) + "\"";
+        return new AccountDetailsResponse(accountRequest, etag);
+    }
 
-        return accountRequest;
+    /**
+     * Switches an account in or out of hot mode. In hot mode, credits are spread across
+     * {@code slots} sub-balances instead of serialising on the account row; {@code 0} turns
+     * hot mode off. Existing slot balances are folded into the account balance first.
+     *
+     * @param accountNumber the account to configure
+     * @param slots         the number of balance slots, between 0 and 256
+     * @return a string with a message about the status of the operation
+     * @throws EntityNotFountException if the account does not exist
+     * @throws BadRequestException if the number of slots is out of range
+     */
+    @Override
+    @Transactional
+    public String configureHotSlots(String accountNumber, int slots) {
+        if (slots < 0 || slots > 256)
+            throw new BadRequestException("Número de slots inválido: " + slots);
+
+        Long id = accountRepo.findKeyByAccountNumber(accountNumber)
+                .orElseThrow(() -> new EntityNotFountException("Conta não encontrada: " + accountNumber))
+                .id();
+        Account account = accountRepo.findByIdForUpdate(id)
+                .orElseThrow(() -> new EntityNotFountException("Conta não encontrada: " + accountNumber));
+
+        hotAccountBalances.reconfigure(account, slots);
+        return slots == 0 ? "Hot mode disabled" : "Hot mode enabled with " + slots + " slots";
     }
 
 }
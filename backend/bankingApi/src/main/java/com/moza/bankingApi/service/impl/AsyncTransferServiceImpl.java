@@ -0,0 +1,169 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.config.TransferProperties;
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.dto.response.TransferStatusResponse;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.exception.EntityNotFountException;
+import com.moza.bankingApi.exception.ServiceUnavailableException;
+import com.moza.bankingApi.model.enums.TransferStatus;
+import com.moza.bankingApi.service.AsyncTransferService;
+import com.moza.bankingApi.service.TransactionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code AsyncTransferServiceImpl} executes transfers in the background so that the request
+ * thread is released as soon as the transfer is validated and queued.
+ *
+ * <p>Transfers run on virtual threads, at most {@link TransferProperties#getAsyncConcurrency()} at
+ * a time so the database connection pool is not overrun, behind a bounded queue that rejects new
+ * submissions with {@code 503} and {@code Retry-After} when full. Each transfer goes through the
+ * configured {@link TransactionService}, with its usual locking and retries.</p>
+ *
+ * <p>Statuses live in a bounded in-memory table, so they are local to the node that accepted the
+ * transfer and lost on restart. Clients that must survive that should also send an
+ * {@code Idempotency-Key}, which makes resubmitting safe.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncTransferServiceImpl implements AsyncTransferService {
+
+    private final TransactionService transactionService;
+    private final AccountKeyCache accountKeyCache;
+    private final AccountNumberValidator accountNumberValidator;
+    private final TransferProperties transferProperties;
+
+    private ThreadPoolExecutor executor;
+    private Map<String, Submission> submissions;
+
+    /**
+     * A submitted transfer and its current state.
+     */
+    private static final class Submission {
+        final String owner;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        volatile TransferStatus status = TransferStatus.PENDING;
+        volatile String message;
+        volatile LocalDateTime completedAt;
+
+        Submission(String owner) {
+            this.owner = owner;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        int concurrency = transferProperties.getAsyncConcurrency();
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(transferProperties.getAsyncQueueCapacity()),
+                Thread.ofVirtual().name("transfer-", 0).factory());
+
+        int capacity = transferProperties.getAsyncStatusCapacity();
+        submissions = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Submission> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Validates a transfer and queues it for execution.
+     *
+     * @param request the transfer to execute
+     * @return the id to poll the transfer status with
+     * @throws BadRequestException if the amount is not positive or an account number is malformed
+     * @throws EntityNotFountException if the source or destination accounts are not found
+     * @throws ServiceUnavailableException if the queue is full; the client should retry later
+     */
+    @Override
+    public String submit(TransferRequest request) {
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new BadRequestException("Valor inválido: " + request.getAmount());
+        }
+        accountNumberValidator.validate(request);
+        if (accountKeyCache.find(request.getFromAccountNumber()).isEmpty()) {
+            throw new EntityNotFountException("Conta de origem não encontrada");
+        }
+        if (accountKeyCache.find(request.getToAccountNumber()).isEmpty()) {
+            throw new EntityNotFountException("Conta de destino não encontrada");
+        }
+
+        String id = UUID.randomUUID().toString();
+        Submission submission = new Submission(currentUsername());
+        synchronized (submissions) {
+            submissions.put(id, submission);
+        }
+        try {
+            executor.execute(() -> execute(id, submission, request));
+        } catch (RejectedExecutionException e) {
+            synchronized (submissions) {
+                submissions.remove(id);
+            }
+            throw new ServiceUnavailableException("Fila de transferências cheia");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the state of a transfer submitted by the authenticated user.
+     *
+     * @param id the id returned on submission
+     * @return the transfer status
+     * @throws EntityNotFountException if the id is unknown or belongs to another user
+     */
+    @Override
+    public TransferStatusResponse getStatus(String id) {
+        Submission submission;
+        synchronized (submissions) {
+            submission = submissions.get(id);
+        }
+        if (submission == null || !Objects.equals(submission.owner, currentUsername())) {
+            throw new EntityNotFountException("Transferência não encontrada: " + id);
+        }
+        return new TransferStatusResponse(id, submission.status, submission.message,
+                submission.submittedAt, submission.completedAt);
+    }
+
+    private void execute(String id, Submission submission, TransferRequest request) {
+        submission.status = TransferStatus.PROCESSING;
+        try {
+            transactionService.transfer(request);
+            submission.completedAt = LocalDateTime.now();
+            submission.status = TransferStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            log.warn("Async transfer {} failed: {}", id, e.getMessage());
+            submission.message = e.getMessage();
+            submission.completedAt = LocalDateTime.now();
+            submission.status = TransferStatus.FAILED;
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? null : auth.getName();
+    }
+}
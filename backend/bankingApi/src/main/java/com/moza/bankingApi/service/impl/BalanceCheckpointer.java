@@ -0,0 +1,105 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.config.ArchiveProperties;
+import com.moza.bankingApi.config.BalanceCheckpointProperties;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.AccountBalanceCheckpoint;
+import com.moza.bankingApi.repository.AccountBalanceCheckpointRepository;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.repository.projection.AccountFlow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * {@code BalanceCheckpointer} writes, every night, the closing balance of each account that sent
+ * or received a transfer the day before ({@link AccountBalanceCheckpoint}).
+ *
+ * <p>A closing balance is derived backwards from the current effective balance, minus what the
+ * account received plus what it sent since the end of the day, all read in one
+ * {@code REPEATABLE READ} transaction per chunk of accounts. It therefore does not depend on
+ * earlier checkpoints, and a day that is missed, or checkpointed twice, only changes how far a
+ * historical balance query has to read.</p>
+ *
+ * <p>Days the archiver may already have emptied are never checkpointed, since their transfers are
+ * no longer in the database.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceCheckpointer {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountBalanceCheckpointRepository checkpointRepository;
+    private final HotAccountBalances hotAccountBalances;
+    private final PlatformTransactionManager transactionManager;
+    private final BalanceCheckpointProperties properties;
+    private final ArchiveProperties archiveProperties;
+
+    @Scheduled(cron = "${app.balance.checkpoint.cron:0 10 0 * * *}")
+    public void checkpoint() {
+        LocalDate today = LocalDate.now();
+        LocalDate last = checkpointRepository.findLastDay();
+        LocalDate day = last == null ? today.minusDays(1) : last.plusDays(1);
+        LocalDate earliest = today.minusDays(properties.getCatchUpDays());
+        if (archiveProperties.isEnabled() && earliest.isBefore(today.minusDays(archiveProperties.getRetentionDays()))) {
+            earliest = today.minusDays(archiveProperties.getRetentionDays());
+        }
+        if (day.isBefore(earliest)) {
+            day = earliest;
+        }
+        for (; day.isBefore(today); day = day.plusDays(1)) {
+            checkpointDay(day);
+        }
+    }
+
+    private void checkpointDay(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+        TreeSet<Long> active = new TreeSet<>(transactionRepository.findSourceIdsBetween(start, end));
+        active.addAll(transactionRepository.findDestinationIdsBetween(start, end));
+        List<Long> ids = new ArrayList<>(active);
+
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        for (int from = 0; from < ids.size(); from += properties.getChunkSize()) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + properties.getChunkSize()));
+            snapshot.executeWithoutResult(status -> {
+                Map<Long, BigDecimal> sent = byAccount(transactionRepository.sumSentSince(chunk, end));
+                Map<Long, BigDecimal> received = byAccount(transactionRepository.sumReceivedSince(chunk, end));
+                List<AccountBalanceCheckpoint> checkpoints = new ArrayList<>(chunk.size());
+                for (Account account : accountRepository.findAllById(chunk)) {
+                    BigDecimal balance = hotAccountBalances.effectiveBalance(account)
+                            .subtract(received.getOrDefault(account.getId(), BigDecimal.ZERO))
+                            .add(sent.getOrDefault(account.getId(), BigDecimal.ZERO));
+                    checkpoints.add(new AccountBalanceCheckpoint(account.getId(), day, balance));
+                }
+                checkpointRepository.saveAll(checkpoints);
+            });
+        }
+        log.info("Checkpointed the closing balance of {} accounts for {}", ids.size(), day);
+    }
+
+    private static Map<Long, BigDecimal> byAccount(List<AccountFlow> flows) {
+        Map<Long, BigDecimal> totals = new HashMap<>(flows.size() * 2);
+        for (AccountFlow flow : flows) {
+            totals.put(flow.accountId(), flow.amount());
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,128 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.dto.request.StatementCursor;
+import com.moza.bankingApi.dto.response.BalanceResponse;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.exception.EntityNotFountException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.AccountBalanceCheckpoint;
+import com.moza.bankingApi.repository.AccountBalanceCheckpointRepository;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.repository.projection.AccountKey;
+import com.moza.bankingApi.service.BalanceHistoryService;
+import com.moza.bankingApi.service.archive.TransactionArchive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * {@code BalanceHistoryServiceImpl} computes the balance of an account at a past instant from the
+ * nearest {@link AccountBalanceCheckpoint} before it, plus the transfers between the end of that
+ * checkpoint's day and the instant. Checkpoints are written for every day the account was active,
+ * so that span normally holds only the transfers of the requested day.
+ *
+ * <p>An account without a checkpoint that early is served backwards instead: its current effective
+ * balance minus the transfers made since the instant. Either way the reads run in one
+ * {@code REPEATABLE READ} transaction, and transfers already moved to the
+ * {@link TransactionArchive} are read from there.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceHistoryServiceImpl implements BalanceHistoryService {
+
+    private static final LocalDateTime END_OF_TIME = LocalDate.of(9999, 12, 31).atStartOfDay();
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountBalanceCheckpointRepository checkpointRepository;
+    private final HotAccountBalances hotAccountBalances;
+    private final AccountReadCache accountReadCache;
+    private final TransactionArchive transactionArchive;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Retrieves the balance of the authenticated user's account at a past instant.
+     *
+     * @param asOf the instant; transfers made at or after it are not included
+     * @throws EntityNotFountException if the user's account is not found
+     * @throws BadRequestException if the instant is in the future
+     */
+    @Override
+    public BalanceResponse getBalanceAsOf(LocalDateTime asOf) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long accountId = accountReadCache.accountId(username, () -> accountRepository.findIdByUsername(username)
+                .orElseThrow(() -> new EntityNotFountException("Conta nao encontrada")));
+        return balanceAsOf(accountId, asOf);
+    }
+
+    /**
+     * Retrieves the balance of any account at a past instant.
+     *
+     * @param accountNumber the account
+     * @param asOf          the instant; transfers made at or after it are not included
+     * @throws EntityNotFountException if the account is not found
+     * @throws BadRequestException if the instant is in the future
+     */
+    @Override
+    public BalanceResponse getBalanceAsOf(String accountNumber, LocalDateTime asOf) {
+        Long accountId = accountRepository.findKeyByAccountNumber(accountNumber)
+                .map(AccountKey::id)
+                .orElseThrow(() -> new EntityNotFountException("Conta não encontrada: " + accountNumber));
+        return balanceAsOf(accountId, asOf);
+    }
+
+    private BalanceResponse balanceAsOf(Long accountId, LocalDateTime asOf) {
+        if (asOf.isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("A data não pode ser posterior à data atual");
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        return readOnly.execute(status -> {
+            Account account = accountRepository.findById(accountId)
+                    .orElseThrow(() -> new EntityNotFountException("Conta nao encontrada"));
+            Optional<AccountBalanceCheckpoint> checkpoint =
+                    checkpointRepository.findFirstByAccountIdAndDayLessThanOrderByDayDesc(accountId, asOf.toLocalDate());
+
+            BigDecimal balance;
+            if (checkpoint.isPresent()) {
+                LocalDateTime closed = checkpoint.get().getDay().plusDays(1).atStartOfDay();
+                balance = checkpoint.get().getBalance().add(netFlow(accountId, closed, asOf));
+            } else {
+                balance = hotAccountBalances.effectiveBalance(account).subtract(netFlow(accountId, asOf, END_OF_TIME));
+            }
+            return new BalanceResponse(account.getAccountNumber(), asOf, balance);
+        });
+    }
+
+    /**
+     * Amount received minus amount sent by an account over {@code [from, to)}. Database rows also
+     * found in the archive, during an archiver run, are counted once.
+     */
+    private BigDecimal netFlow(Long accountId, LocalDateTime from, LocalDateTime to) {
+        BigDecimal net = BigDecimal.ZERO;
+        long fromId = 0;
+        StatementCursor archived = transactionArchive.newestArchived(accountId);
+        if (archived != null) {
+            net = transactionArchive.netFlow(accountId, from, to);
+            if (!archived.timestamp().isBefore(from)) {
+                from = archived.timestamp();
+                fromId = archived.id();
+            }
+        }
+        if (!from.isBefore(to)) {
+            return net;
+        }
+        return net.add(transactionRepository.sumReceived(accountId, from, fromId, to))
+                .subtract(transactionRepository.sumSent(accountId, from, fromId, to));
+    }
+}
@@ -0,0 +1,110 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forward-only reader of RFC 4180 CSV records: comma separated, fields optionally enclosed in
+ * double quotes, {@code ""} standing for a quote inside them, and {@code \n} or {@code \r\n} line
+ * endings. A quoted field may span several lines. Only the current record is held in memory.
+ */
+final class CsvRecordReader {
+
+    private final Reader in;
+    private int line = 1;
+    private int recordLine;
+    private int peeked = -2;
+
+    /**
+     * @param in the CSV text; buffered by the caller
+     */
+    CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next record. Blank lines are skipped.
+     *
+     * @return the fields of the record, or {@code null} at the end of the input
+     * @throws IOException         if the input cannot be read
+     * @throws BadRequestException if a quoted field is not closed
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            skipLineEnd(c);
+            c = read();
+        }
+        if (c < 0) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new BadRequestException("Campo entre aspas não terminado na linha " + recordLine);
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c < 0 || c == '\r' || c == '\n') {
+                fields.add(field.toString());
+                if (c >= 0) {
+                    skipLineEnd(c);
+                }
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Returns the line the last record returned by {@link #next()} starts on, from {@code 1}.
+     */
+    int line() {
+        return recordLine;
+    }
+
+    /**
+     * Consumes the rest of a line ending whose first character, already read, is {@code c}.
+     */
+    private void skipLineEnd(int c) throws IOException {
+        if (c == '\r') {
+            int following = read();
+            if (following != '\n') {
+                peeked = following;
+            }
+        }
+        line++;
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return in.read();
+    }
+}
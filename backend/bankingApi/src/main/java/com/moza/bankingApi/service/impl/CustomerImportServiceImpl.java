@@ -0,0 +1,395 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.config.OnboardingProperties;
+import com.moza.bankingApi.dto.response.CustomerImportError;
+import com.moza.bankingApi.dto.response.CustomerImportResponse;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.User;
+import com.moza.bankingApi.model.enums.Role;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.UserRepository;
+import com.moza.bankingApi.service.CustomerImportService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code CustomerImportServiceImpl} onboards customers in bulk from a CSV upload: one user and
+ * its account per row, as {@code POST /api/v1/users} followed by {@code POST /api/v1/accounts/create}
+ * would, in a fraction of the time.
+ *
+ * <p>The upload is read as a stream and processed in batches of {@code app.onboarding.batch-size}
+ * rows, so memory does not grow with the file. For each batch:</p>
+ * <ul>
+ *   <li>usernames and account numbers already taken are found with one {@code IN (...)} query
+ *       each, and repeats within the file with in-memory sets;</li>
+ *   <li>rows without an account number get one from the {@link AccountNumberAllocator}, all in
+ *       one reservation;</li>
+ *   <li>passwords are hashed in parallel on a pool shared by all imports
+ *       ({@code app.onboarding.hash-threads}), while the previous batch is being inserted;</li>
+ *   <li>users and accounts are inserted in one transaction, through JDBC batching and the
+ *       pooled-lo sequences, and then detached so the persistence context stays small.</li>
+ * </ul>
+ *
+ * <p>Rejected rows are reported with their line and reason and do not stop the import. If a batch
+ * collides with a customer created concurrently, it is retried row by row so that only the
+ * colliding rows are rejected.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerImportServiceImpl implements CustomerImportService {
+
+    private static final List<String> COLUMNS = List.of("username", "password", "role", "userName", "nuit", "balance");
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final OnboardingProperties properties;
+    private final AccountNumberAllocator accountNumberAllocator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private ExecutorService hashers;
+
+    /**
+     * A validated row, waiting for its password hash.
+     */
+    private static final class Customer {
+        final int line;
+        final String username;
+        final String password;
+        final Role role;
+        final String userName;
+        final String nuit;
+        String accountNumber;
+        final BigDecimal balance;
+        Future<String> hash;
+
+        Customer(int line, String username, String password, Role role, String userName, String nuit,
+                 String accountNumber, BigDecimal balance) {
+            this.line = line;
+            this.username = username;
+            this.password = password;
+            this.role = role;
+            this.userName = userName;
+            this.nuit = nuit;
+            this.accountNumber = accountNumber;
+            this.balance = balance;
+        }
+    }
+
+    /**
+     * Counters and errors of one import.
+     */
+    private static final class Progress {
+        int rows;
+        int created;
+        final List<CustomerImportError> errors = new ArrayList<>();
+        final Set<String> usernames = new HashSet<>();
+        final Set<String> accountNumbers = new HashSet<>();
+
+        void reject(int line, String username, String message) {
+            errors.add(new CustomerImportError(line, username, message));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        int threads = properties.getHashThreads() > 0
+                ? properties.getHashThreads()
+                : Runtime.getRuntime().availableProcessors();
+        hashers = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("onboarding-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        hashers.shutdownNow();
+        hashers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Imports the customers of a CSV file. The first line is a header naming the columns
+     * {@code username, password, role, userName, nuit, balance} and optionally {@code accountNumber},
+     * in any order; {@code role} defaults to {@code CLIENTE} and {@code balance} to {@code 0}.
+     * Accounts without a number get an allocated one; explicit numbers, kept for migrations, must
+     * not have the 13-digit allocated format.
+     *
+     * @param csv the UTF-8 encoded CSV
+     * @return the number of rows read and customers created, and the rejected rows
+     * @throws BadRequestException if the header is missing a column or the CSV is malformed
+     * @throws IOException         if the upload cannot be read
+     */
+    @Override
+    public CustomerImportResponse importCustomers(InputStream csv) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8), 64 * 1024));
+        Map<String, Integer> columns = header(reader);
+        int batchSize = Math.max(1, properties.getBatchSize());
+
+        Progress progress = new Progress();
+        List<Customer> hashing = List.of();
+        List<Customer> batch = new ArrayList<>(batchSize);
+        List<String> record;
+        try {
+            while ((record = reader.next()) != null) {
+                progress.rows++;
+                Customer customer = parse(record, reader.line(), columns, progress);
+                if (customer != null) {
+                    batch.add(customer);
+                }
+                if (batch.size() == batchSize) {
+                    List<Customer> ready = hashing;
+                    hashing = submit(batch, progress);
+                    insert(ready, progress);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            List<Customer> ready = hashing;
+            hashing = submit(batch, progress);
+            insert(ready, progress);
+            insert(hashing, progress);
+        } finally {
+            // Hashes of an aborted import are not needed anymore
+            for (Customer customer : hashing) {
+                customer.hash.cancel(false);
+            }
+        }
+        // Rows rejected against the database are only found once their batch is checked
+        progress.errors.sort(Comparator.comparingInt(CustomerImportError::getLine));
+        log.info("Imported {} of {} customers", progress.created, progress.rows);
+        return new CustomerImportResponse(progress.rows, progress.created, progress.errors);
+    }
+
+    private static Map<String, Integer> header(CsvRecordReader reader) throws IOException {
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new BadRequestException("Ficheiro vazio");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Spreadsheet exports may start with a byte order mark
+            String name = (i == 0 ? header.get(i).replace("\uFEFF", "") : header.get(i)).trim();
+            columns.put(name, i);
+        }
+        for (String column : COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new BadRequestException("Coluna em falta no cabeçalho: " + column);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Validates one row and checks it against the rows read before it.
+     *
+     * @return the customer, or {@code null} if the row was rejected
+     */
+    private static Customer parse(List<String> record, int line, Map<String, Integer> columns, Progress progress) {
+        String username = field(record, columns, "username");
+        String password = field(record, columns, "password");
+        String roleName = field(record, columns, "role");
+        String userName = field(record, columns, "userName");
+        String nuit = field(record, columns, "nuit");
+        String accountNumber = field(record, columns, "accountNumber");
+        String balanceText = field(record, columns, "balance");
+
+        if (username == null || password == null) {
+            progress.reject(line, username, "Username e password são obrigatórios");
+            return null;
+        }
+        if (AccountNumbers.hasAllocatedFormat(accountNumber)) {
+            progress.reject(line, username, "Números de conta de 13 dígitos são atribuídos pelo sistema: " + accountNumber);
+            return null;
+        }
+        Role role;
+        try {
+            role = roleName == null ? Role.CLIENTE : Role.valueOf(roleName);
+        } catch (IllegalArgumentException e) {
+            progress.reject(line, username, "Perfil inválido: " + roleName);
+            return null;
+        }
+        BigDecimal balance;
+        try {
+            balance = balanceText == null ? BigDecimal.ZERO : new BigDecimal(balanceText);
+        } catch (NumberFormatException e) {
+            progress.reject(line, username, "Saldo inválido: " + balanceText);
+            return null;
+        }
+        if (balance.signum() < 0) {
+            progress.reject(line, username, "Saldo inválido: " + balanceText);
+            return null;
+        }
+        if (!progress.usernames.add(username)) {
+            progress.reject(line, username, "Username repetido no ficheiro");
+            return null;
+        }
+        if (accountNumber != null && !progress.accountNumbers.add(accountNumber)) {
+            progress.reject(line, username, "Número de conta repetido no ficheiro: " + accountNumber);
+            return null;
+        }
+        return new Customer(line, username, password, role, userName, nuit, accountNumber, balance);
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Drops the customers whose username or account number is already taken, allocates the
+     * missing account numbers and starts hashing the passwords of the others.
+     *
+     * @return the customers left, their hashes under way
+     */
+    private List<Customer> submit(List<Customer> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        List<String> usernames = new ArrayList<>(batch.size());
+        List<String> accountNumbers = new ArrayList<>(batch.size());
+        for (Customer customer : batch) {
+            usernames.add(customer.username);
+            if (customer.accountNumber != null) {
+                accountNumbers.add(customer.accountNumber);
+            }
+        }
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(usernames));
+        Set<String> takenAccountNumbers = accountNumbers.isEmpty()
+                ? Set.of()
+                : new HashSet<>(accountRepository.findExistingAccountNumbers(accountNumbers));
+
+        List<Customer> accepted = new ArrayList<>(batch.size());
+        for (Customer customer : batch) {
+            if (takenUsernames.contains(customer.username)) {
+                progress.reject(customer.line, customer.username, "Username já existe");
+            } else if (customer.accountNumber != null && takenAccountNumbers.contains(customer.accountNumber)) {
+                progress.reject(customer.line, customer.username, "Número de conta já existe: " + customer.accountNumber);
+            } else {
+                String password = customer.password;
+                customer.hash = hashers.submit(() -> passwordEncoder.encode(password));
+                accepted.add(customer);
+            }
+        }
+
+        List<Customer> unnumbered = accepted.stream().filter(customer -> customer.accountNumber == null).toList();
+        if (!unnumbered.isEmpty()) {
+            List<String> allocated = accountNumberAllocator.allocate(unnumbered.size());
+            for (int i = 0; i < unnumbered.size(); i++) {
+                unnumbered.get(i).accountNumber = allocated.get(i);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Waits for the hashes of a batch and inserts it in one transaction, or row by row if it
+     * collides with customers created since it was checked.
+     */
+    private void insert(List<Customer> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> hashes = new ArrayList<>(batch.size());
+        for (Customer customer : batch) {
+            hashes.add(hash(customer));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<User> users = new ArrayList<>(batch.size());
+                List<Account> accounts = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    User user = user(batch.get(i), hashes.get(i));
+                    users.add(user);
+                    accounts.add(account(batch.get(i), user));
+                }
+                userRepository.saveAll(users);
+                accountRepository.saveAll(accounts);
+                // Flushed through the repository, which translates a collision into a DataIntegrityViolationException
+                accountRepository.flush();
+                entityManager.clear();
+            });
+            progress.created += batch.size();
+        } catch (DataIntegrityViolationException e) {
+            entityManager.clear();
+            for (int i = 0; i < batch.size(); i++) {
+                Customer customer = batch.get(i);
+                String hash = hashes.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        User user = userRepository.save(user(customer, hash));
+                        accountRepository.save(account(customer, user));
+                        accountRepository.flush();
+                        entityManager.clear();
+                    });
+                    progress.created++;
+                } catch (DataIntegrityViolationException rowFailure) {
+                    entityManager.clear();
+                    progress.reject(customer.line, customer.username, "Username ou número de conta já existe");
+                }
+            }
+        }
+    }
+
+    private static String hash(Customer customer) {
+        try {
+            return customer.hash.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao codificar a password da linha " + customer.line, e.getCause());
+        }
+    }
+
+    private static User user(Customer customer, String hash) {
+        return User.builder()
+                .username(customer.username)
+                .password(hash)
+                .role(customer.role)
+                .build();
+    }
+
+    private static Account account(Customer customer, User user) {
+        Account account = new Account();
+        account.setUser(user);
+        account.setUserName(customer.userName);
+        account.setNuit(customer.nuit);
+        account.setAccountNumber(customer.accountNumber);
+        account.setBalance(customer.balance);
+        return account;
+    }
+}
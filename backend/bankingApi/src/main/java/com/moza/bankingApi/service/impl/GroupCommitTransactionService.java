@@ -0,0 +1,294 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.config.TransferProperties;
+import com.moza.bankingApi.dto.request.StatementCursor;
+import com.moza.bankingApi.dto.request.StatementFilter;
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.dto.response.TransactionResponse;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.exception.BalanceNotEnoughException;
+import com.moza.bankingApi.exception.EntityNotFountException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.Transaction;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.repository.projection.AccountKey;
+import com.moza.bankingApi.service.TransactionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GroupCommitTransactionService} commits concurrent transfers together, enabled with
+ * {@code app.transfer.group-commit.enabled=true}, so that the cost of a commit (and its fsync) is
+ * paid once per group instead of once per transfer. It stages the default engine only; see
+ * {@link TransferProperties#isGroupCommitEnabled()} for the valid combinations.
+ *
+ * <p>Callers queue their transfer and wait. A single committer thread collects the transfers
+ * arriving within {@link TransferProperties#getGroupCommitWindowMs()} of the first one, up to
+ * {@link TransferProperties#getGroupCommitMaxSize()}, then runs the whole group in one database
+ * transaction:</p>
+ * <ul>
+ *   <li>every account is resolved with one {@code IN (...)} query and locked with a second one,
+ *       in ascending id order, as in {@link TransactionServiceImpl#transferBatch};</li>
+ *   <li>transfers are applied in arrival order, each one checked on its own: a transfer with an
+ *       unknown account or without enough balance is left out and fails alone, without affecting
+ *       the rest of the group;</li>
+ *   <li>after the commit every caller gets its own outcome.</li>
+ * </ul>
+ *
+ * <p>If the group itself cannot be committed after the usual lock retries, each of its transfers
+ * is executed on its own through {@link TransactionServiceImpl}, so a poisoned group degrades to
+ * the regular path instead of failing everyone. A transfer called inside a transaction, e.g. an
+ * idempotent request, must commit with it and also takes the regular path.</p>
+ */
+@Slf4j
+@Service
+@Primary
+@RequiredArgsConstructor
+@ConditionalOnExpression("${app.transfer.group-commit.enabled:false} and '${app.transactions.engine:}'.isEmpty()")
+public class GroupCommitTransactionService implements TransactionService {
+
+    private final TransactionServiceImpl delegate;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final HotAccountBalances hotAccountBalances;
+    private final LockRetry lockRetry;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final AccountReadCache accountReadCache;
+    private final MonthlySummaryRecorder monthlySummaryRecorder;
+    private final AccountKeyCache accountKeyCache;
+    private final AccountNumberValidator accountNumberValidator;
+
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private Thread committer;
+    private volatile boolean running;
+
+    /**
+     * A queued transfer, its outcome within the current group attempt and its caller's future.
+     */
+    private static final class Pending {
+        final TransferRequest request;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        RuntimeException failure;
+
+        Pending(TransferRequest request) {
+            this.request = request;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        committer = Thread.ofPlatform().name("transfer-group-commit").start(this::runCommitter);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        committer.join();
+    }
+
+    /**
+     * Queues a transfer for the next group commit and waits for its outcome.
+     *
+     * @param request the transfer to execute
+     * @throws EntityNotFountException if the source or destination accounts are not found
+     * @throws BalanceNotEnoughException if the source account does not have enough balance
+     * @throws BadRequestException if the amount is not positive or an account number is malformed
+     */
+    @Override
+    public void transfer(TransferRequest request) {
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new BadRequestException("Valor inválido: " + request.getAmount());
+        }
+        accountNumberValidator.validate(request);
+        if (!running || TransactionSynchronizationManager.isActualTransactionActive()) {
+            // A transfer that must commit with its caller's transaction cannot join a group
+            delegate.transfer(request);
+            return;
+        }
+
+        Pending pending = new Pending(request);
+        queue.add(pending);
+        try {
+            pending.done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Transferência interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Batches are already committed as a unit and go straight to {@link TransactionServiceImpl}.
+     */
+    @Override
+    public void transferBatch(List<TransferRequest> legs) {
+        delegate.transferBatch(legs);
+    }
+
+    @Override
+    public List<TransactionResponse> getBankStatement(StatementFilter filter, StatementCursor after, int limit) {
+        return delegate.getBankStatement(filter, after, limit);
+    }
+
+    private void runCommitter() {
+        int maxSize = Math.max(1, transferProperties.getGroupCommitMaxSize());
+        List<Pending> group = new ArrayList<>(maxSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(transferProperties.getGroupCommitWindowMs());
+                while (group.size() < maxSize) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(p -> p.done.completeExceptionally(new IllegalStateException("Transferência interrompida", e)));
+                return;
+            } catch (RuntimeException e) {
+                group.forEach(p -> p.done.completeExceptionally(e));
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Commits a group, retrying on lock failures, and completes every caller's future.
+     */
+    private void commit(List<Pending> group) {
+        try {
+            lockRetry.run(() -> apply(group));
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} transfers failed, executing them one by one", group.size(), e);
+            commitOneByOne(group);
+            return;
+        }
+        transferMetrics.recordGroupCommit(group.size());
+        for (Pending pending : group) {
+            if (pending.failure != null) {
+                pending.done.completeExceptionally(pending.failure);
+            } else {
+                pending.done.complete(null);
+            }
+        }
+    }
+
+    private void commitOneByOne(List<Pending> group) {
+        for (Pending pending : group) {
+            try {
+                delegate.transfer(pending.request);
+                pending.done.complete(null);
+            } catch (RuntimeException e) {
+                pending.done.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Runs a single attempt of a group inside the current transaction. A transfer that cannot be
+     * applied records its failure and leaves every balance untouched.
+     */
+    private void apply(List<Pending> group) {
+        Set<String> numbers = new HashSet<>();
+        for (Pending pending : group) {
+            pending.failure = null;
+            numbers.add(pending.request.getFromAccountNumber());
+            numbers.add(pending.request.getToAccountNumber());
+        }
+
+        Map<String, AccountKey> keys = new HashMap<>(accountKeyCache.findAll(numbers));
+
+        // Phase 1: every account row, lower id first, in one query
+        Map<Long, Account> locked = new HashMap<>();
+        for (Account account : accountRepository.findAllByIdForUpdate(
+                keys.values().stream().map(AccountKey::id).sorted().toList())) {
+            locked.put(account.getId(), account);
+        }
+        // A cached key of an account removed meanwhile: its transfers fail as not found
+        keys.values().removeIf(key -> {
+            if (locked.containsKey(key.id())) {
+                return false;
+            }
+            accountKeyCache.invalidate(key.accountNumber());
+            return true;
+        });
+
+        // Phase 2: fold the slots of hot sources, lower id first, as told by their locked rows rather
+        // than by the possibly cached keys. Hot destinations are credited on their already locked
+        // account row, which is equivalent to crediting a slot.
+        group.stream()
+                .map(pending -> keys.get(pending.request.getFromAccountNumber()))
+                .filter(key -> key != null)
+                .map(AccountKey::id)
+                .distinct()
+                .sorted()
+                .map(locked::get)
+                .filter(account -> account.getHotSlots() > 0)
+                .forEach(hotAccountBalances::fold);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = new ArrayList<>(group.size());
+        for (Pending pending : group) {
+            TransferRequest request = pending.request;
+            AccountKey source = keys.get(request.getFromAccountNumber());
+            AccountKey destination = keys.get(request.getToAccountNumber());
+            if (source == null) {
+                pending.failure = new EntityNotFountException("Conta de origem não encontrada");
+                continue;
+            }
+            if (destination == null) {
+                pending.failure = new EntityNotFountException("Conta de destino não encontrada");
+                continue;
+            }
+
+            Account sourceAccount = locked.get(source.id());
+            Account destinationAccount = locked.get(destination.id());
+            if (sourceAccount.getBalance().compareTo(request.getAmount()) < 0) {
+                pending.failure = new BalanceNotEnoughException("Saldo insuficiente na conta de origem");
+                continue;
+            }
+            sourceAccount.setBalance(sourceAccount.getBalance().subtract(request.getAmount()));
+            destinationAccount.setBalance(destinationAccount.getBalance().add(request.getAmount()));
+            transactions.add(new Transaction(null, sourceAccount, destinationAccount,
+                    request.getAmount(), request.getDescription(), now));
+            accountReadCache.evictAfterCommit(source.id(), destination.id());
+            monthlySummaryRecorder.record(source.id(), destination.id(), request.getAmount(), now, true);
+        }
+        transactionRepository.saveAll(transactions);
+    }
+}
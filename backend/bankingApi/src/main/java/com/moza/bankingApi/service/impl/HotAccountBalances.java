@@ -0,0 +1,104 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.AccountBalanceSlot;
+import com.moza.bankingApi.repository.AccountBalanceSlotRepository;
+import com.moza.bankingApi.repository.projection.AccountKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@code HotAccountBalances} implements the sharded balance of hot accounts.
+ *
+ * <p>A hot account's balance is {@code Account.balance} plus the sum of its {@link AccountBalanceSlot}s.
+ * Credits lock one random slot and never touch the account row, so concurrent credits to the same
+ * account only collide when they pick the same slot. Debits use {@code Account.balance} and fold the
+ * slots into it only when it is not enough. All methods must run inside a transaction.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class HotAccountBalances {
+
+    private final AccountBalanceSlotRepository slotRepository;
+    private final PendingPostings pendingPostings;
+    private final AccountKeyCache accountKeyCache;
+
+    /**
+     * Locks a random slot of a hot account to receive a credit.
+     *
+     * @param account the hot destination account
+     * @return the locked slot
+     * @throws CannotAcquireLockException if the slot vanished because hot mode was reconfigured;
+     *                                    the key is evicted and the transfer engine retries with a
+     *                                    fresh one
+     */
+    public AccountBalanceSlot lockCreditSlot(AccountKey account) {
+        int slot = ThreadLocalRandom.current().nextInt(account.hotSlots());
+        return slotRepository.findForUpdate(account.id(), slot)
+                .orElseThrow(() -> {
+                    accountKeyCache.invalidate(account.accountNumber());
+                    return new CannotAcquireLockException("Hot slot " + slot + " of account " + account.id() + " no longer exists");
+                });
+    }
+
+    /**
+     * Locks every slot of the account, moves their balances into {@code Account.balance} and zeroes them.
+     * The account row must already be locked by the caller.
+     *
+     * @param account the locked hot account
+     * @return the amount moved from the slots
+     */
+    public BigDecimal fold(Account account) {
+        BigDecimal folded = BigDecimal.ZERO;
+        for (AccountBalanceSlot slot : slotRepository.findAllForUpdate(account.getId())) {
+            if (slot.getBalance().signum() != 0) {
+                folded = folded.add(slot.getBalance());
+                slot.setBalance(BigDecimal.ZERO);
+            }
+        }
+        account.setBalance(account.getBalance().add(folded));
+        return folded;
+    }
+
+    /**
+     * Switches an account in or out of hot mode. Existing slots are folded and replaced by
+     * {@code slots} empty ones ({@code 0} turns hot mode off). The account row must already be
+     * locked by the caller.
+     *
+     * @param account the locked account
+     * @param slots   the new number of slots
+     */
+    public void reconfigure(Account account, int slots) {
+        fold(account);
+        slotRepository.deleteByAccountId(account.getId());
+
+        List<AccountBalanceSlot> created = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            created.add(new AccountBalanceSlot(null, account, i, BigDecimal.ZERO));
+        }
+        slotRepository.saveAll(created);
+        account.setHotSlots(slots);
+    }
+
+    /**
+     * Returns the effective balance of an account, including its unfolded slots when hot and the
+     * double-entry postings not yet folded by the snapshotter. Each part is only queried when the
+     * account is hot, respectively when {@link PendingPostings} may exist.
+     *
+     * @param account the account
+     * @return {@code balance + sum(slots) + sum(pending postings)}
+     */
+    public BigDecimal effectiveBalance(Account account) {
+        BigDecimal effective = account.getBalance().add(pendingPostings.sum(account.getId()));
+        if (account.getHotSlots() == 0) {
+            return effective;
+        }
+        return effective.add(slotRepository.sumBalance(account.getId()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@code HotAccountRebalancer} periodically folds the slots of every hot account back into
+ * {@code Account.balance}, so that debits rarely need to lock the slots themselves.
+ *
+ * <p>Each account is folded in its own short transaction, following the engine's lock order
+ * (account row first, then its slots). An account that is busy is simply skipped until the next run.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class HotAccountRebalancer {
+
+    private final AccountRepository accountRepository;
+    private final HotAccountBalances hotAccountBalances;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${app.transfer.hot.rebalance-interval-ms:5000}")
+    public void rebalance() {
+        for (Long id : accountRepository.findHotAccountIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        accountRepository.findByIdForUpdate(id).ifPresent(hotAccountBalances::fold));
+            } catch (PessimisticLockingFailureException e) {
+                // Busy account: try again on the next run
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.config.IdempotencyProperties;
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.exception.ConflictException;
+import com.moza.bankingApi.exception.IdempotencyKeyReusedException;
+import com.moza.bankingApi.model.IdempotencyRecord;
+import com.moza.bankingApi.repository.IdempotencyRecordRepository;
+import com.moza.bankingApi.service.IdempotencyService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * {@code IdempotencyServiceImpl} makes the transfer endpoint safe to retry.
+ *
+ * <p>Keys are looked up in two tiers:</p>
+ * <ul>
+ *   <li>A bounded LRU cache with a TTL answers recent retries without any query. It also holds
+ *       the in-flight attempt of each key, so concurrent duplicates on the same node wait for the
+ *       first attempt and share its outcome instead of racing it.</li>
+ *   <li>The {@link IdempotencyRecord} table answers older retries and retries landing on another
+ *       node. Its primary key lets a single attempt per key execute.</li>
+ * </ul>
+ *
+ * <p>Only successful outcomes are stored, in the transfer's own transaction. A failed transfer is
+ * rolled back and leaves no effect, so its key is released and a retry executes again. A key left
+ * claimed by a crashed node is claimed again by a retry once its lease has run out.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private static final String IN_PROGRESS = "Pedido com esta Idempotency-Key ainda em processamento";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final LockRetry lockRetry;
+
+    private Map<String, Entry> cache;
+
+    /**
+     * A key known to this node: its request hash and the outcome of the first attempt.
+     */
+    private static final class Entry {
+        final String requestHash;
+        final CompletableFuture<String> response = new CompletableFuture<>();
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+
+    @PostConstruct
+    void createCache() {
+        int maxSize = properties.getCacheSize();
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Executes {@code operation} at most once per idempotency key and returns its response;
+     * a retry with the same key and request returns the stored response.
+     *
+     * @param idempotencyKey the value of the {@code Idempotency-Key} header
+     * @param request        the transfer, used to detect a key reused for another request
+     * @param operation      the transfer to execute on the first attempt
+     * @return the response of the first successful attempt
+     * @throws BadRequestException if the key is invalid
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws ConflictException if the first attempt is still running, or crashed less than a lease ago
+     */
+    @Override
+    public String execute(String idempotencyKey, TransferRequest request, Supplier<String> operation) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+        }
+        String id = currentUsername() + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        Entry entry;
+        boolean first;
+        synchronized (cache) {
+            entry = cache.get(id);
+            if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+                cache.remove(id);
+                entry = null;
+            }
+            first = entry == null;
+            if (first) {
+                entry = new Entry(requestHash);
+                cache.put(id, entry);
+            }
+        }
+
+        if (!entry.requestHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key já utilizada para outro pedido");
+        }
+        if (!first) {
+            return awaitFirstAttempt(entry);
+        }
+
+        try {
+            String response = executeOnce(id, requestHash, operation);
+            entry.expiresAt = System.currentTimeMillis() + properties.getCacheTtlMs();
+            entry.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            synchronized (cache) {
+                cache.remove(id, entry);
+            }
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes the database keys older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now().minusHours(properties.getRetentionHours());
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteCreatedBefore(before));
+    }
+
+    private String executeOnce(String id, String requestHash, Supplier<String> operation) {
+        IdempotencyRecord record = claim(id, requestHash);
+        if (record.isCompleted()) {
+            return record.getResponse();
+        }
+
+        try {
+            // The transfer joins this transaction, so the key is completed if and only if it commits
+            return lockRetry.call(() -> {
+                String response = operation.get();
+                record.setCompleted(true);
+                record.setResponse(response);
+                idempotencyRecordRepository.saveAndFlush(record);
+                return response;
+            });
+        } catch (RuntimeException e) {
+            release(record);
+            if (e instanceof OptimisticLockingFailureException) {
+                // The lease ran out and a retry claimed the key meanwhile: this attempt was rolled back
+                throw new ConflictException(IN_PROGRESS);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Claims a key in the database, or returns its completed record.
+     *
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws ConflictException if another attempt holds the claim and its lease has not run out
+     */
+    private IdempotencyRecord claim(String id, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = idempotencyRecordRepository.findById(id).orElse(null);
+        if (record == null) {
+            record = new IdempotencyRecord(id, requestHash, false, null, now, null);
+        } else {
+            if (!record.getRequestHash().equals(requestHash)) {
+                throw new IdempotencyKeyReusedException("Idempotency-Key já utilizada para outro pedido");
+            }
+            if (record.isCompleted()) {
+                return record;
+            }
+            if (record.getCreatedAt().isAfter(now.minus(properties.getLeaseMs(), ChronoUnit.MILLIS))) {
+                throw new ConflictException(IN_PROGRESS);
+            }
+            // The first attempt never completed, so its transfer did not commit: take the key over
+            record.setCreatedAt(now);
+        }
+
+        IdempotencyRecord claimed = record;
+        try {
+            return transactionTemplate.execute(status -> idempotencyRecordRepository.saveAndFlush(claimed));
+        } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+            // Claimed by a concurrent attempt on another node
+            throw new ConflictException(IN_PROGRESS);
+        }
+    }
+
+    /**
+     * Deletes the claim of a failed attempt, so that a retry executes again; a claim taken over
+     * meanwhile belongs to the retry and is left alone.
+     */
+    private void release(IdempotencyRecord record) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.delete(record));
+        } catch (OptimisticLockingFailureException e) {
+            // Claimed by a retry, which now owns the key
+        }
+    }
+
+    private String awaitFirstAttempt(Entry entry) {
+        try {
+            return entry.response.get(properties.getWaitTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException(IN_PROGRESS);
+        } catch (TimeoutException e) {
+            throw new ConflictException(IN_PROGRESS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? "anonymous" : auth.getName();
+    }
+
+    private static String hash(TransferRequest request) {
+        String canonical = String.join("\u0000",
+                String.valueOf(request.getFromAccountNumber()),
+                String.valueOf(request.getToAccountNumber()),
+                request.getAmount() == null ? "null" : request.getAmount().stripTrailingZeros().toPlainString(),
+                String.valueOf(request.getDescription()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
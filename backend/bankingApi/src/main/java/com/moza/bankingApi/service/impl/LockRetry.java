@@ -0,0 +1,90 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.config.TransferProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * {@code LockRetry} runs the locked work of the transfer engines, each attempt in its own
+ * transaction, so that a lock timeout or a deadlock rolls back only that attempt and the next one
+ * starts clean.
+ *
+ * <p>Attempts are bounded by {@link TransferProperties#getLockMaxAttempts()} and spread apart with
+ * a linear, jittered back-off of {@link TransferProperties#getLockBackoffMs()}. Retries also draw
+ * from the shared {@link RetryBudget}, so under sustained contention lock failures are propagated
+ * instead of multiplying the load on the database.</p>
+ *
+ * <p>When the caller already runs a transaction, the work joins it and runs once: a lock failure
+ * dooms the caller's whole transaction, so only the caller can retry it.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class LockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties transferProperties;
+    private final RetryBudget retryBudget;
+    private final TransferMetrics transferMetrics;
+
+    /**
+     * Runs {@code work} in a transaction, retrying the whole transaction on lock failures.
+     *
+     * @param work the work to run inside each attempt's transaction
+     * @throws PessimisticLockingFailureException if the locks could not be acquired after all attempts
+     */
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code work} in a transaction, retrying the whole transaction on lock failures.
+     *
+     * @param work the work to run inside each attempt's transaction
+     * @return the result of the attempt that committed
+     * @throws PessimisticLockingFailureException if the locks could not be acquired after all attempts
+     */
+    public <T> T call(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        int maxAttempts = Math.max(1, transferProperties.getLockMaxAttempts());
+        retryBudget.deposit();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= maxAttempts || !retryBudget.tryWithdraw()) {
+                    transferMetrics.recordLockFailure();
+                    throw e;
+                }
+                transferMetrics.recordLockRetry();
+                long base = transferProperties.getLockBackoffMs() * attempt;
+                sleep(base + ThreadLocalRandom.current().nextLong(base + 1));
+            }
+        }
+    }
+
+    /**
+     * Sleeps before the next attempt, spreading retries of colliding transfers apart.
+     *
+     * @param millis the time to wait
+     */
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Transferência interrompida", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.model.AccountMonthlySummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.sql.Date;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@code MonthlySummaryRecorder} keeps the {@link AccountMonthlySummary} totals up to date from
+ * within the transfer transactions.
+ *
+ * <p>Transfers are accumulated per transaction and written just before it commits, one relative
+ * upsert per summary row sent as a single JDBC batch, in {@code (account, month, shard)} order. A batch touching an account
+ * many times therefore writes its row once, and summary rows are always locked last and in the
+ * same order, after every account and slot lock of the transaction.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class MonthlySummaryRecorder {
+
+    /**
+     * Number of shards receiving credits to accounts whose row is not locked by the transfer.
+     */
+    static final int CREDIT_SHARDS = 16;
+
+    private static final Comparator<AccountMonthlySummary.Key> KEY_ORDER =
+            Comparator.comparing(AccountMonthlySummary.Key::getAccountId)
+                    .thenComparing(AccountMonthlySummary.Key::getMonth)
+                    .thenComparingInt(AccountMonthlySummary.Key::getShard);
+
+    /**
+     * Adds to the totals of one summary row with a relative update, creating the row on the first
+     * transfer of the month. A single statement, so concurrent first transfers cannot collide on the
+     * insert. Uses the MySQL row alias; {@code VALUES(col)} in the update clause is deprecated since
+     * MySQL 8.0.20.
+     */
+    private static final String ADD_TO_TOTALS = "insert into account_monthly_summary " +
+            "(account_id, month_start, shard, total_sent, total_received, transaction_count) " +
+            "values (?, ?, ?, ?, ?, ?) as new " +
+            "on duplicate key update total_sent = total_sent + new.total_sent, " +
+            "total_received = total_received + new.total_received, " +
+            "transaction_count = transaction_count + new.transaction_count";
+
+    /**
+     * The same upsert for H2 in MySQL mode, which accepts {@code VALUES(col)} but not the row alias.
+     */
+    private static final String ADD_TO_TOTALS_H2 = "insert into account_monthly_summary " +
+            "(account_id, month_start, shard, total_sent, total_received, transaction_count) " +
+            "values (?, ?, ?, ?, ?, ?) " +
+            "on duplicate key update total_sent = total_sent + values(total_sent), " +
+            "total_received = total_received + values(total_received), " +
+            "transaction_count = transaction_count + values(transaction_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    /**
+     * The upsert for the connected database, chosen at startup.
+     */
+    private String addToTotals;
+
+    @PostConstruct
+    void selectUpsert() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        addToTotals = "H2".equals(product) ? ADD_TO_TOTALS_H2 : ADD_TO_TOTALS;
+    }
+
+    /**
+     * Adds a transfer to the monthly totals of both accounts. Must be called inside the transfer's
+     * transaction, with the source account row locked.
+     *
+     * @param sourceId          the debited account
+     * @param destinationId     the credited account
+     * @param amount            the amount transferred
+     * @param timestamp         the transfer time, which selects the month
+     * @param destinationLocked whether the transaction holds the destination row lock; if not, the
+     *                          credit goes to a random credit shard
+     */
+    public void record(Long sourceId, Long destinationId, BigDecimal amount, LocalDateTime timestamp,
+                       boolean destinationLocked) {
+        LocalDate month = timestamp.toLocalDate().withDayOfMonth(1);
+        int creditShard = destinationLocked ? 0 : 1 + ThreadLocalRandom.current().nextInt(CREDIT_SHARDS);
+
+        Map<AccountMonthlySummary.Key, AccountMonthlySummary> pending = pending();
+        add(pending, new AccountMonthlySummary.Key(sourceId, month, 0), amount, BigDecimal.ZERO);
+        add(pending, new AccountMonthlySummary.Key(destinationId, month, creditShard), BigDecimal.ZERO, amount);
+    }
+
+    private static void add(Map<AccountMonthlySummary.Key, AccountMonthlySummary> pending,
+                            AccountMonthlySummary.Key key, BigDecimal sent, BigDecimal received) {
+        AccountMonthlySummary totals = pending.computeIfAbsent(key, k -> new AccountMonthlySummary(
+                k.getAccountId(), k.getMonth(), k.getShard(), BigDecimal.ZERO, BigDecimal.ZERO, 0));
+        totals.setTotalSent(totals.getTotalSent().add(sent));
+        totals.setTotalReceived(totals.getTotalReceived().add(received));
+        totals.setTransactionCount(totals.getTransactionCount() + 1);
+    }
+
+    /**
+     * Returns the totals accumulated by the current transaction, registering their write before
+     * commit on first use.
+     */
+    private Map<AccountMonthlySummary.Key, AccountMonthlySummary> pending() {
+        @SuppressWarnings("unchecked")
+        Map<AccountMonthlySummary.Key, AccountMonthlySummary> pending =
+                (Map<AccountMonthlySummary.Key, AccountMonthlySummary>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        Map<AccountMonthlySummary.Key, AccountMonthlySummary> totals = new TreeMap<>(KEY_ORDER);
+        TransactionSynchronizationManager.bindResource(this, totals);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Account rows are written, and locked, before any summary row
+                try {
+                    entityManager.flush();
+                } catch (RuntimeException e) {
+                    // Translated like a repository call, so that the engines retry version and lock conflicts
+                    DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+                    throw translated != null ? translated : e;
+                }
+                jdbcTemplate.batchUpdate(addToTotals, totals.values(), totals.size(), (ps, s) -> {
+                    ps.setLong(1, s.getAccountId());
+                    ps.setDate(2, Date.valueOf(s.getMonth()));
+                    ps.setInt(3, s.getShard());
+                    ps.setBigDecimal(4, s.getTotalSent());
+                    ps.setBigDecimal(5, s.getTotalReceived());
+                    ps.setLong(6, s.getTransactionCount());
+                });
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MonthlySummaryRecorder.this);
+            }
+        });
+        return totals;
+    }
+}
@@ -0,0 +1,106 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.dto.response.MonthlySummaryResponse;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.exception.EntityNotFountException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountMonthlySummaryRepository;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.projection.AccountKey;
+import com.moza.bankingApi.repository.projection.MonthlyTotals;
+import com.moza.bankingApi.service.MonthlySummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code MonthlySummaryServiceImpl} serves the monthly totals of an account from the
+ * {@code AccountMonthlySummary} table maintained by the transfers, whatever the length of its
+ * history.
+ *
+ * <p>Only flows are stored. Balances are derived backwards from the current effective balance,
+ * read in the same read-only transaction: the closing balance of the newest month is the current
+ * balance, and each month opens with its closing balance minus what it received plus what it sent.
+ * Months without transfers are omitted.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class MonthlySummaryServiceImpl implements MonthlySummaryService {
+
+    /**
+     * Largest number of months a client may request.
+     */
+    public static final int MAX_MONTHS = 120;
+
+    private final AccountRepository accountRepository;
+    private final AccountMonthlySummaryRepository summaryRepository;
+    private final HotAccountBalances hotAccountBalances;
+    private final AccountReadCache accountReadCache;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Retrieves the monthly totals of the authenticated user's account, newest month first.
+     *
+     * @param months the number of months with transfers to return, between 1 and {@value #MAX_MONTHS}
+     * @throws EntityNotFountException if the user's account is not found
+     * @throws BadRequestException if the number of months is out of range
+     */
+    @Override
+    public List<MonthlySummaryResponse> getMonthlySummaries(int months) {
+        checkMonths(months);
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long accountId = accountReadCache.accountId(username, () -> accountRepository.findIdByUsername(username)
+                .orElseThrow(() -> new EntityNotFountException("Conta nao encontrada")));
+        return summarise(accountId, months);
+    }
+
+    /**
+     * Retrieves the monthly totals of any account, newest month first.
+     *
+     * @param accountNumber the account
+     * @param months        the number of months with transfers to return, between 1 and {@value #MAX_MONTHS}
+     * @throws EntityNotFountException if the account is not found
+     * @throws BadRequestException if the number of months is out of range
+     */
+    @Override
+    public List<MonthlySummaryResponse> getMonthlySummaries(String accountNumber, int months) {
+        checkMonths(months);
+        Long accountId = accountRepository.findKeyByAccountNumber(accountNumber)
+                .map(AccountKey::id)
+                .orElseThrow(() -> new EntityNotFountException("Conta não encontrada: " + accountNumber));
+        return summarise(accountId, months);
+    }
+
+    private static void checkMonths(int months) {
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new BadRequestException("O número de meses deve estar entre 1 e " + MAX_MONTHS);
+        }
+    }
+
+    private List<MonthlySummaryResponse> summarise(Long accountId, int months) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            Account account = accountRepository.findById(accountId)
+                    .orElseThrow(() -> new EntityNotFountException("Conta nao encontrada"));
+            BigDecimal balance = hotAccountBalances.effectiveBalance(account);
+
+            List<MonthlySummaryResponse> summaries = new ArrayList<>();
+            for (MonthlyTotals totals : summaryRepository.findMonthlyTotals(accountId, Limit.of(months))) {
+                BigDecimal opening = balance.subtract(totals.totalReceived()).add(totals.totalSent());
+                summaries.add(new MonthlySummaryResponse(YearMonth.from(totals.month()), totals.totalSent(),
+                        totals.totalReceived(), totals.transactionCount(), opening, balance));
+                balance = opening;
+            }
+            return summaries;
+        });
+    }
+}
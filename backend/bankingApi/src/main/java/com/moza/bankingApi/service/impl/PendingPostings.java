@@ -0,0 +1,63 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.model.Posting;
+import com.moza.bankingApi.repository.PostingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * {@code PendingPostings} tells whether balances must include the double-entry {@link Posting}s
+ * not yet folded into their account's snapshot.
+ *
+ * <p>Only {@code app.transactions.engine=double-entry} writes postings. Under any other engine
+ * they are tracked only while a tail left by a previous double-entry run is being drained by the
+ * {@code LedgerSnapshotter}; once it is empty, balances and the snapshotter stop querying the
+ * {@code posting} table altogether.</p>
+ */
+@Component
+public class PendingPostings {
+
+    private final PostingRepository postingRepository;
+    private final boolean doubleEntry;
+    private volatile boolean tracking;
+
+    public PendingPostings(PostingRepository postingRepository,
+                           @Value("${app.transactions.engine:}") String engine) {
+        this.postingRepository = postingRepository;
+        this.doubleEntry = "double-entry".equals(engine);
+    }
+
+    @PostConstruct
+    void detectTail() {
+        tracking = doubleEntry || postingRepository.existsBySnapshottedFalse();
+    }
+
+    /**
+     * @return {@code true} if postings may be pending, so balances and the snapshotter must look at them
+     */
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    /**
+     * Sums the pending postings of an account.
+     *
+     * @return the sum, or zero without a query when no posting can be pending
+     */
+    public BigDecimal sum(Long accountId) {
+        return tracking ? postingRepository.sumPending(accountId) : BigDecimal.ZERO;
+    }
+
+    /**
+     * Reports that the snapshotter found no pending posting. Under an engine that writes none,
+     * none can appear anymore, so tracking stops for good.
+     */
+    public void drained() {
+        if (!doubleEntry) {
+            tracking = false;
+        }
+    }
+}
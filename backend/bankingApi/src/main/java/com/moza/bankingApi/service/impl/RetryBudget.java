@@ -0,0 +1,49 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.config.TransferProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code RetryBudget} caps the number of retries, optimistic or after a lock failure, to a fraction
+ * of the incoming transfers.
+ *
+ * <p>Every transfer deposits {@link TransferProperties#getRetryBudgetRatio()} tokens (up to
+ * {@link TransferProperties#getRetryBudgetCap()}) and every retry withdraws one. When contention
+ * spikes the budget drains: conflicting optimistic transfers stop retrying and take row locks
+ * instead, and lock failures are propagated, so retries can never multiply the load on the database.</p>
+ */
+@Component
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long capacity;
+    private long tokens;
+
+    public RetryBudget(TransferProperties properties) {
+        this.depositPerRequest = Math.round(properties.getRetryBudgetRatio() * SCALE);
+        this.capacity = properties.getRetryBudgetCap() * SCALE;
+        this.tokens = capacity;
+    }
+
+    /**
+     * Credits the budget for one incoming transfer.
+     */
+    public synchronized void deposit() {
+        tokens = Math.min(capacity, tokens + depositPerRequest);
+    }
+
+    /**
+     * Takes one retry from the budget.
+     *
+     * @return {@code true} if the retry is allowed
+     */
+    public synchronized boolean tryWithdraw() {
+        if (tokens < SCALE) {
+            return false;
+        }
+        tokens -= SCALE;
+        return true;
+    }
+}
@@ -0,0 +1,126 @@
+package com.moza.bankingApi.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moza.bankingApi.dto.response.TransactionResponse;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.exception.EntityNotFountException;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.service.StatementExportService;
+import com.moza.bankingApi.service.archive.TransactionArchive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * {@code StatementExportServiceImpl} writes the full transaction history of the authenticated user
+ * as CSV or NDJSON, in constant memory.
+ *
+ * <p>Rows are read through a forward-only result set ({@link TransactionRepository#streamStatement})
+ * and written to the response as they arrive; neither the entities nor the list of rows are ever
+ * held in memory. The transaction is opened on the thread that writes the response, since
+ * {@link StreamingResponseBody} runs after the controller method returns.</p>
+ *
+ * <p>Archived transactions are older than every transaction still in the database, so the
+ * account's archive is written first, one decompressed block at a time, followed by the database
+ * rows.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class StatementExportServiceImpl implements StatementExportService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionArchive transactionArchive;
+
+    /**
+     * Prepares the export of the authenticated user's statement, oldest transaction first.
+     *
+     * @param format {@code csv} or {@code ndjson}
+     * @return the body writing the export to the response
+     * @throws BadRequestException if the format is not supported
+     * @throws EntityNotFountException if the user's account is not found
+     */
+    @Override
+    public StreamingResponseBody exportStatement(String format) {
+        if (!"csv".equals(format) && !"ndjson".equals(format)) {
+            throw new BadRequestException("Formato não suportado: " + format);
+        }
+        // The security context is not available on the thread writing the body: resolve the account now
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long accountId = accountRepository.findIdByUsername(username)
+                .orElseThrow(() -> new EntityNotFountException("Conta nao encontrada"));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            try {
+                readOnly.executeWithoutResult(status -> {
+                    try (Stream<TransactionResponse> rows = transactionArchive.streamStatement(accountId,
+                            transactionRepository.streamStatement(accountId))) {
+                        if ("csv".equals(format)) {
+                            writeCsv(rows.iterator(), writer);
+                        } else {
+                            writeNdjson(rows.iterator(), writer);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    private static void writeCsv(Iterator<TransactionResponse> rows, Writer writer) throws IOException {
+        writer.write("id,dateTime,type,otherAccount,amount\n");
+        while (rows.hasNext()) {
+            TransactionResponse row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getDateTime()));
+            writer.write(',');
+            writer.write(row.getType());
+            writer.write(',');
+            writer.write(csvField(row.getOtherAccount()));
+            writer.write(',');
+            writer.write(row.getAmount().toPlainString());
+            writer.write('\n');
+        }
+    }
+
+    private void writeNdjson(Iterator<TransactionResponse> rows, Writer writer) throws IOException {
+        while (rows.hasNext()) {
+            writer.write(objectMapper.writeValueAsString(rows.next()));
+            writer.write('\n');
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
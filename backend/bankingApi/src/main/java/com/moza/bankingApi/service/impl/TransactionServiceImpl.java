@@ -1,25 +1,43 @@
 package com.moza.bankingApi.service.impl;
 
+import com.moza.bankingApi.config.TransferProperties;
+import com.moza.bankingApi.dto.request.StatementCursor;
+import com.moza.bankingApi.dto.request.StatementFilter;
 import com.moza.bankingApi.dto.request.TransferRequest;
 import com.moza.bankingApi.dto.response.TransactionResponse;
+import com.moza.bankingApi.exception.BadRequestException;
 import com.moza.bankingApi.exception.BalanceNotEnoughException;
 import com.moza.bankingApi.exception.EntityNotFountException;
 import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.AccountBalanceSlot;
 import com.moza.bankingApi.model.Transaction;
-import com.moza.bankingApi.model.User;
 import com.moza.bankingApi.repository.AccountRepository;
 import com.moza.bankingApi.repository.TransactionRepository;
-import com.moza.bankingApi.repository.UserRepository;
+import com.moza.bankingApi.repository.projection.AccountKey;
 import com.moza.bankingApi.service.TransactionService;
-import jakarta.transaction.Transactional;
+import com.moza.bankingApi.service.archive.TransactionArchive;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
 
 
 /**
@@ -28,13 +46,21 @@ import java.util.List;
  * between accounts and retrieval of transaction histories (statements).
  * <p>
  * This service ensures atomicity and data consistency via transactional operations and
- * integrates with repositories to fetch and persist entities such as {@link Account}, {@link Transaction}, and {@link User}.
+ * integrates with repositories to fetch and persist entities such as {@link Account} and {@link Transaction}.
  * </p>
  */
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+    /**
+     * Largest statement page a client may request.
+     */
+    public static final int MAX_STATEMENT_PAGE = 500;
+
+    private static final LocalDate STATEMENT_START = LocalDate.of(1000, 1, 1);
+    private static final LocalDate STATEMENT_END = LocalDate.of(9999, 12, 31);
+
     /**
      * Repository interface to perform CRUD operations on {@link Account} entities.
      */
@@ -46,92 +72,426 @@ public class TransactionServiceImpl implements TransactionService {
     private final TransactionRepository transactionRepository;
 
     /**
-     * Repository interface to retrieve {@link User} entities.
+     * Runs each optimistic attempt in its own transaction, so that a version conflict rolls back
+     * only that attempt and the next one starts clean.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Runs the locked attempts, retrying them on lock timeouts and deadlocks.
+     */
+    private final LockRetry lockRetry;
+
+    /**
+     * Concurrency mode and retry tunables.
+     */
+    private final TransferProperties transferProperties;
+
+    /**
+     * Shared budget limiting optimistic retries to a fraction of the incoming transfers.
+     */
+    private final RetryBudget retryBudget;
+
+    /**
+     * Per-account attempt/conflict counters of the optimistic path.
+     */
+    private final TransferMetrics transferMetrics;
+
+    /**
+     * Sharded balances of hot accounts.
+     */
+    private final HotAccountBalances hotAccountBalances;
+
+    /**
+     * Per-account cache of the first statement page, evicted after each committed transfer.
+     */
+    private final AccountReadCache accountReadCache;
+
+    /**
+     * Monthly totals of the accounts, maintained in each transfer's transaction.
+     */
+    private final MonthlySummaryRecorder monthlySummaryRecorder;
+
+    /**
+     * Cold storage of the transactions older than the archive retention period.
      */
-    private final UserRepository userRepo;
+    private final TransactionArchive transactionArchive;
+
+    /**
+     * In-process cache resolving account numbers to ids, so transfers only query to lock rows.
+     */
+    private final AccountKeyCache accountKeyCache;
+
+    /**
+     * Format check of the account numbers, applied before they are looked up.
+     */
+    private final AccountNumberValidator accountNumberValidator;
+
+    /**
+     * Size, amount and account number checks of a batch.
+     */
+    private final TransferBatchValidator transferBatchValidator;
 
     /**
      * Executes a funds transfer from one account to another using the information provided
      * in the {@link TransferRequest}. This method verifies account existence, validates
      * sufficient balance in the source account, updates account balances atomically,
      * creates a transaction record, and persists all changes.
+     * <p>
+     * The concurrency control is selected by {@code app.transfer.concurrency}:
+     * </p>
+     * <ul>
+     *   <li>{@code PESSIMISTIC} (default): both account rows are locked in ascending id order
+     *       for the whole transaction.</li>
+     *   <li>{@code OPTIMISTIC}: accounts are read without locks and the {@code @Version} check at
+     *       commit detects concurrent changes. Conflicting attempts are retried with jittered
+     *       back-off while the global retry budget allows it; once attempts or budget run out,
+     *       the transfer falls back to the pessimistic path so it still makes progress.</li>
+     * </ul>
+     * <p>
+     * Called inside a transaction, the transfer joins it and always takes the pessimistic path, since
+     * a version conflict would only show at the caller's commit; the caller retries lock failures.
+     * </p>
      *
      * @param request the {@link TransferRequest} containing source account number,
      *                destination account number, amount to transfer, and optional description.
+     * @throws BadRequestException if the amount is not positive or an account number is malformed.
      * @throws EntityNotFountException if the source or destination accounts are not found.
      * @throws BalanceNotEnoughException if the source account does not have enough balance.
+     * @throws PessimisticLockingFailureException if the locks could not be acquired after all attempts.
      */
 
     @Override
-    @Transactional
     public void transfer(TransferRequest request) {
-        Account sourceAccount = accountRepository.findByAccountNumber(request.getFromAccountNumber())
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new BadRequestException("Valor inválido: " + request.getAmount());
+        }
+        accountNumberValidator.validate(request);
+        if (transferProperties.getConcurrency() == TransferProperties.Concurrency.OPTIMISTIC
+                && !TransactionSynchronizationManager.isActualTransactionActive()
+                && transferOptimistically(request)) {
+            return;
+        }
+        lockRetry.run(() -> executeLocked(request));
+    }
+
+    /**
+     * Executes several transfer legs all-or-nothing in a single database transaction.
+     * <p>
+     * All involved accounts are resolved with one {@code IN (...)} query and locked with a second
+     * one, in ascending id order, instead of one lookup per leg. Legs are then applied in the order
+     * given, so a leg may spend funds credited by a previous one, and all {@link Transaction} rows
+     * are inserted together through JDBC batching. If any leg fails, nothing is written.
+     * </p>
+     *
+     * @param legs the transfers to execute, at most {@link TransferProperties#getBatchMaxLegs()}
+     * @throws BadRequestException if the batch is empty, too large or has a non-positive amount or a
+     *                             malformed account number.
+     * @throws EntityNotFountException if any account is not found.
+     * @throws BalanceNotEnoughException if any leg finds its source account without enough balance.
+     */
+    @Override
+    public void transferBatch(List<TransferRequest> legs) {
+        transferBatchValidator.validate(legs);
+        lockRetry.run(() -> executeBatch(legs));
+    }
+
+    /**
+     * Runs a single attempt of a batch inside the current transaction.
+     *
+     * @param legs the transfers to execute
+     */
+    private void executeBatch(List<TransferRequest> legs) {
+        Set<String> numbers = new HashSet<>();
+        for (TransferRequest leg : legs) {
+            numbers.add(leg.getFromAccountNumber());
+            numbers.add(leg.getToAccountNumber());
+        }
+
+        Map<String, AccountKey> keys = accountKeyCache.findAll(numbers);
+        for (String number : numbers) {
+            if (!keys.containsKey(number)) {
+                throw new EntityNotFountException("Conta não encontrada: " + number);
+            }
+        }
+
+        // Phase 1: every account row, lower id first, in one query
+        Map<Long, Account> locked = new HashMap<>();
+        for (Account account : accountRepository.findAllByIdForUpdate(
+                keys.values().stream().map(AccountKey::id).sorted().toList())) {
+            locked.put(account.getId(), account);
+        }
+        for (AccountKey key : keys.values()) {
+            if (!locked.containsKey(key.id())) {
+                // A cached key of an account removed meanwhile
+                accountKeyCache.invalidate(key.accountNumber());
+                throw new EntityNotFountException("Conta não encontrada: " + key.accountNumber());
+            }
+        }
+
+        // Phase 2: fold the slots of hot sources, lower id first, as told by their locked rows rather
+        // than by the possibly cached keys. Hot destinations are credited on their already locked
+        // account row, which is equivalent to crediting a slot.
+        legs.stream()
+                .map(leg -> keys.get(leg.getFromAccountNumber()).id())
+                .distinct()
+                .sorted()
+                .map(locked::get)
+                .filter(account -> account.getHotSlots() > 0)
+                .forEach(hotAccountBalances::fold);
+
+        List<Transaction> transactions = new ArrayList<>(legs.size());
+        for (TransferRequest leg : legs) {
+            transactions.add(applyTransfer(
+                    locked.get(keys.get(leg.getFromAccountNumber()).id()),
+                    locked.get(keys.get(leg.getToAccountNumber()).id()),
+                    null,
+                    leg));
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    /**
+     * Runs a single locked transfer attempt inside the current transaction.
+     * <p>
+     * Locks are always taken in the same global order: first account rows in ascending id order,
+     * then hot-account slots in {@code (account id, slot)} order. A hot destination is credited
+     * through one of its slots, so its account row is not locked at all.
+     * </p>
+     *
+     * @param request the transfer to execute
+     */
+    private void executeLocked(TransferRequest request) {
+        AccountKey source = resolve(request.getFromAccountNumber(), "Conta de origem não encontrada");
+        AccountKey destination = resolve(request.getToAccountNumber(), "Conta de destino não encontrada");
+
+        // Phase 1: account rows, lower id first
+        Map<Long, Account> locked = new TreeMap<>();
+        locked.put(source.id(), null);
+        if (!destination.isHot()) {
+            locked.put(destination.id(), null);
+        }
+        locked.replaceAll((id, ignored) -> lockAccount(id));
+
+        Account sourceAccount = locked.get(source.id());
+        Account destinationAccount = destination.isHot()
+                ? accountRepository.getReferenceById(destination.id())
+                : locked.get(destination.id());
+
+        // Phase 2: slots, lower account id first. The locked source row, not its cached key, tells
+        // whether it is hot; a stale destination key fails on its vanished slot and is retried.
+        boolean foldSource = sourceAccount.getHotSlots() > 0 && sourceAccount.getBalance().compareTo(request.getAmount()) < 0;
+        AccountBalanceSlot creditSlot = null;
+        if (foldSource && source.id() < destination.id()) {
+            hotAccountBalances.fold(sourceAccount);
+        }
+        if (destination.isHot()) {
+            creditSlot = hotAccountBalances.lockCreditSlot(destination);
+        }
+        if (foldSource && source.id() >= destination.id()) {
+            hotAccountBalances.fold(sourceAccount);
+        }
+
+        transactionRepository.save(applyTransfer(sourceAccount, destinationAccount, creditSlot, request));
+    }
+
+    private AccountKey resolve(String accountNumber, String notFoundMessage) {
+        return accountKeyCache.find(accountNumber)
+                .orElseThrow(() -> new EntityNotFountException(notFoundMessage));
+    }
+
+    private Account lockAccount(Long id) {
+        return accountRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new EntityNotFountException("Conta não encontrada"));
+    }
+
+    /**
+     * Tries to run the transfer without locks, relying on the {@link Account} version check.
+     * Transfers touching a hot account always take the locked path, which credits through slots.
+     *
+     * @param request the transfer to execute
+     * @return {@code true} if the transfer was committed, {@code false} if the caller should fall
+     *         back to the pessimistic path because attempts or retry budget were exhausted
+     */
+    private boolean transferOptimistically(TransferRequest request) {
+        AccountKey source = resolve(request.getFromAccountNumber(), "Conta de origem não encontrada");
+        AccountKey destination = resolve(request.getToAccountNumber(), "Conta de destino não encontrada");
+        if (source.isHot() || destination.isHot()) {
+            return false;
+        }
+
+        int maxAttempts = Math.max(1, transferProperties.getOptimisticMaxAttempts());
+        retryBudget.deposit();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> executeOptimistic(source, destination, request));
+                return true;
+            } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                // A write-write collision on the row itself counts as a conflict as well
+                transferMetrics.recordConflict(e instanceof ObjectOptimisticLockingFailureException ole
+                        ? ole.getIdentifier() : null);
+                if (attempt >= maxAttempts || !retryBudget.tryWithdraw()) {
+                    return false;
+                }
+                // Exponential back-off with full jitter
+                long cap = Math.min(transferProperties.getOptimisticMaxBackoffMs(),
+                        transferProperties.getOptimisticBackoffMs() << Math.min(attempt - 1, 20));
+                LockRetry.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+            }
+        }
+    }
+
+    /**
+     * Runs a single optimistic transfer attempt inside the current transaction. Accounts are read
+     * without locks; the version check at flush time fails if any of them changed meanwhile.
+     */
+    private void executeOptimistic(AccountKey source, AccountKey destination, TransferRequest request) {
+        Account sourceAccount = accountRepository.findById(source.id())
                 .orElseThrow(() -> new EntityNotFountException("Conta de origem não encontrada"));
 
-        Account destinationAccount = accountRepository.findByAccountNumber(request.getToAccountNumber())
+        Account destinationAccount = accountRepository.findById(destination.id())
                 .orElseThrow(() -> new EntityNotFountException("Conta de destino não encontrada"));
 
+        transferMetrics.recordAttempt(sourceAccount.getId(), destinationAccount.getId());
+        transactionRepository.save(applyTransfer(sourceAccount, destinationAccount, null, request));
+    }
+
+    /**
+     * Validates the balance, moves the funds and builds the {@link Transaction} record. Must run inside
+     * a transaction with both accounts already loaded (locked or versioned).
+     *
+     * @param creditSlot the locked slot receiving the credit when the destination is hot, otherwise {@code null}
+     * @return the transaction record, to be saved by the caller
+     */
+    private Transaction applyTransfer(Account sourceAccount, Account destinationAccount,
+                               AccountBalanceSlot creditSlot, TransferRequest request) {
         if (sourceAccount.getBalance().compareTo(request.getAmount()) < 0) {
             throw new BalanceNotEnoughException("Saldo insuficiente na conta de origem");
         }
 
         // Update balances atomically
         sourceAccount.setBalance(sourceAccount.getBalance().subtract(request.getAmount()));
-        destinationAccount.setBalance(destinationAccount.getBalance().add(request.getAmount()));
+        if (creditSlot != null) {
+            creditSlot.setBalance(creditSlot.getBalance().add(request.getAmount()));
+        } else {
+            destinationAccount.setBalance(destinationAccount.getBalance().add(request.getAmount()));
+        }
+
+        accountReadCache.evictAfterCommit(sourceAccount.getId(), destinationAccount.getId());
 
         // Create transaction record
         Transaction transaction = new Transaction();
         transaction.setSource(sourceAccount);
         transaction.setDestination(destinationAccount);
         transaction.setAmount(request.getAmount());
-        transaction.setAmount(request.getAmount()); // se desejar manter o campo duplicado
         transaction.setDescription(request.getDescription());
         transaction.setTimestamp(LocalDateTime.now());
-        transaction.setTimestamp(LocalDateTime.now());
+        monthlySummaryRecorder.record(sourceAccount.getId(), destinationAccount.getId(), request.getAmount(),
+                transaction.getTimestamp(), creditSlot == null);
 
-        // Persist updates
-        accountRepository.save(sourceAccount);
-        accountRepository.save(destinationAccount);
-        transactionRepository.save(transaction);
+        // Managed accounts and slots are flushed at commit
+        return transaction;
     }
 
     /**
-     * Retrieves the transaction history (statement) for the currently authenticated user.
-     * It collects both sent and received transfers, mapping each transaction to a
-     * {@link TransactionResponse} DTO that includes the amount, timestamp, type of transfer,
-     * and the counterparty's account number.
+     * Retrieves one page of the transaction history (statement) of the currently authenticated user,
+     * newest first. Each transaction is mapped to a {@link TransactionResponse} with the amount,
+     * timestamp, type of transfer and the counterparty's account number.
+     * <p>
+     * The page is read with projection queries, and pages are chained with a keyset cursor
+     * on {@code (timestamp, id)} instead of an offset, so every page costs the same however deep
+     * into a long history it is.
+     * </p>
+     * <p>
+     * The first page of the unfiltered statement, the one the dashboard loads, is served from the
+     * {@link AccountReadCache} until a transfer touching the account commits.
+     * </p>
+     * <p>
+     * Every filter is applied by the database. Sent and received transfers are read with one query
+     * each, so that each side is a range scan of its {@code (account, timestamp)} index; without a
+     * type filter both pages are merged here and cut down to {@code limit}.
+     * </p>
+     * <p>
+     * Transactions moved to the {@link TransactionArchive} are merged in transparently: when the
+     * database page is not full, the rest of it is read from the account's archive, with the same
+     * criteria applied in memory.
+     * </p>
      *
-     * @return a list of {@link TransactionResponse} objects representing the user's transaction history.
-     * @throws EntityNotFountException if the user's account or user entity is not found.
+     * @param filter the statement criteria, all optional
+     * @param after the position of the last transaction of the previous page, or {@code null} for the first page
+     * @param limit the page size, between 1 and {@value #MAX_STATEMENT_PAGE}
+     * @return a list of {@link TransactionResponse} objects representing one page of the user's transaction history.
+     * @throws EntityNotFountException if the user's account is not found.
+     * @throws BadRequestException if the page size or the filter is invalid.
      */
-
     @Override
-    public List<TransactionResponse> getBankStatement() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
+    public List<TransactionResponse> getBankStatement(StatementFilter filter, StatementCursor after, int limit) {
+        if (limit < 1 || limit > MAX_STATEMENT_PAGE) {
+            throw new BadRequestException("O limite deve estar entre 1 e " + MAX_STATEMENT_PAGE);
+        }
+        if (filter == null) {
+            filter = StatementFilter.NONE;
+        }
+        String type = filter.type() == null ? null : filter.type().toUpperCase();
+        if (type != null && !type.equals("ENVIADA") && !type.equals("RECEBIDA")) {
+            throw new BadRequestException("Tipo inválido: " + filter.type());
+        }
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            throw new BadRequestException("A data inicial não pode ser posterior à data final");
+        }
+        if (filter.minAmount() != null && filter.maxAmount() != null
+                && filter.minAmount().compareTo(filter.maxAmount()) > 0) {
+            throw new BadRequestException("O valor mínimo não pode ser superior ao valor máximo");
+        }
 
-        User user = userRepo.findByUsername(username).orElseThrow(() -> new EntityNotFountException("Conta nao encontrada"));
-        Account account = user.getAccount();
-        List<TransactionResponse> extrato = new ArrayList<>();
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long accountId = accountReadCache.accountId(username, () -> accountRepository.findIdByUsername(username)
+                .orElseThrow(() -> new EntityNotFountException("Conta nao encontrada")));
 
-        for (Transaction t : account.getSentTransfers()) {
-            extrato.add(new TransactionResponse(
-                    t.getAmount(),
-                    t.getTimestamp(),
-                    "ENVIADA",
-                    t.getDestination().getAccountNumber()
-            ));
+        if (after == null && filter.equals(StatementFilter.NONE)) {
+            return accountReadCache.firstStatementPage(accountId, limit,
+                    () -> readStatement(accountId, StatementFilter.NONE, null, null, limit));
         }
+        return readStatement(accountId, filter, type, after, limit);
+    }
 
-        for (Transaction t : account.getReceivedTransfers()) {
-            extrato.add(new TransactionResponse(
-                    t.getAmount(),
-                    t.getTimestamp(),
-                    "RECEBIDA",
-                    t.getSource().getAccountNumber()
-            ));
+    /**
+     * Reads a statement page from the database, one query per side of the transfer, and completes
+     * it from the archive.
+     *
+     * @param type {@code ENVIADA}, {@code RECEBIDA} or {@code null} for both
+     */
+    private List<TransactionResponse> readStatement(Long accountId, StatementFilter filter, String type,
+                                                    StatementCursor after, int limit) {
+        // Open bounds become the limits of a MySQL DATETIME, so the period is always an index range
+        LocalDateTime from = (filter.from() == null ? STATEMENT_START : filter.from()).atStartOfDay();
+        LocalDateTime before = (filter.to() == null ? STATEMENT_END : filter.to().plusDays(1)).atStartOfDay();
+        long beforeId = 0;
+        if (after != null && after.timestamp().isBefore(before)) {
+            before = after.timestamp();
+            beforeId = after.id();
+        }
+
+        List<TransactionResponse> page = new ArrayList<>(type == null ? 2 * limit : limit);
+        if (type == null || type.equals("ENVIADA")) {
+            page.addAll(transactionRepository.findSentStatement(accountId, from, before, beforeId,
+                    filter.minAmount(), filter.maxAmount(), Limit.of(limit)));
+        }
+        if (type == null || type.equals("RECEBIDA")) {
+            page.addAll(transactionRepository.findReceivedStatement(accountId, from, before, beforeId,
+                    filter.minAmount(), filter.maxAmount(), Limit.of(limit)));
+        }
+        if (type == null) {
+            page.sort(Comparator.comparing(TransactionResponse::getDateTime)
+                    .thenComparing(TransactionResponse::getId)
+                    .reversed());
+            page = page.size() > limit ? page.subList(0, limit) : page;
         }
 
-        return extrato;
+        Predicate<TransactionResponse> criteria = row -> (type == null || type.equals(row.getType()))
+                && (filter.minAmount() == null || row.getAmount().compareTo(filter.minAmount()) >= 0)
+                && (filter.maxAmount() == null || row.getAmount().compareTo(filter.maxAmount()) <= 0);
+        return transactionArchive.completeStatement(accountId, page, from, before, beforeId, criteria, limit);
     }
 }
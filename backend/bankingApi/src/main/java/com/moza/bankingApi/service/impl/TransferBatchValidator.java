@@ -0,0 +1,39 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.config.TransferProperties;
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code TransferBatchValidator} rejects a malformed batch before any lookup, whatever the engine
+ * executing it.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferBatchValidator {
+
+    private final TransferProperties transferProperties;
+    private final AccountNumberValidator accountNumberValidator;
+
+    /**
+     * Checks the size of the batch, then the amount and account numbers of every leg.
+     *
+     * @throws BadRequestException if the batch is empty or too large, or has a non-positive amount
+     *                             or a malformed account number
+     */
+    public void validate(List<TransferRequest> legs) {
+        if (legs == null || legs.isEmpty() || legs.size() > transferProperties.getBatchMaxLegs()) {
+            throw new BadRequestException("O lote deve conter entre 1 e " + transferProperties.getBatchMaxLegs() + " transferências");
+        }
+        for (TransferRequest leg : legs) {
+            if (leg.getAmount() == null || leg.getAmount().signum() <= 0) {
+                throw new BadRequestException("Valor inválido na transferência para " + leg.getToAccountNumber());
+            }
+            accountNumberValidator.validate(leg);
+        }
+    }
+}
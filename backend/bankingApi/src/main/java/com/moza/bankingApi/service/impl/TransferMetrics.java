@@ -0,0 +1,51 @@
+package com.moza.bankingApi.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code TransferMetrics} publishes the transfer engine counters to Micrometer.
+ *
+ * <ul>
+ *   <li>{@code bank.transfer.optimistic.attempts{account}}: attempts that touched the account.</li>
+ *   <li>{@code bank.transfer.optimistic.conflicts{account}}: attempts rejected by the account's version check.</li>
+ *   <li>{@code bank.transfer.group.commits}: database commits of the group-commit stage.</li>
+ *   <li>{@code bank.transfer.group.size}: transfers per group commit.</li>
+ *   <li>{@code bank.transfer.lock.retries}: attempts retried after a lock timeout or deadlock.</li>
+ *   <li>{@code bank.transfer.lock.failures}: lock failures propagated once attempts or retry budget ran out.</li>
+ * </ul>
+ *
+ * <p>The conflict rate of an account is {@code conflicts / attempts}. Both are tagged by account id,
+ * so they are meant for diagnosing hot accounts rather than for long-term storage.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferMetrics {
+
+    private final MeterRegistry registry;
+
+    public void recordAttempt(Long sourceId, Long destinationId) {
+        registry.counter("bank.transfer.optimistic.attempts", "account", String.valueOf(sourceId)).increment();
+        if (!sourceId.equals(destinationId)) {
+            registry.counter("bank.transfer.optimistic.attempts", "account", String.valueOf(destinationId)).increment();
+        }
+    }
+
+    public void recordConflict(Object accountId) {
+        registry.counter("bank.transfer.optimistic.conflicts", "account", String.valueOf(accountId)).increment();
+    }
+
+    public void recordGroupCommit(int transfers) {
+        registry.counter("bank.transfer.group.commits").increment();
+        registry.summary("bank.transfer.group.size").record(transfers);
+    }
+
+    public void recordLockRetry() {
+        registry.counter("bank.transfer.lock.retries").increment();
+    }
+
+    public void recordLockFailure() {
+        registry.counter("bank.transfer.lock.failures").increment();
+    }
+}
@@ -0,0 +1,156 @@
+package com.moza.bankingApi.service.ledger;
+
+import com.moza.bankingApi.config.TransferProperties;
+import com.moza.bankingApi.dto.request.StatementCursor;
+import com.moza.bankingApi.dto.request.StatementFilter;
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.dto.response.TransactionResponse;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.exception.BalanceNotEnoughException;
+import com.moza.bankingApi.exception.EntityNotFountException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.Posting;
+import com.moza.bankingApi.model.Transaction;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.PostingRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.repository.projection.AccountKey;
+import com.moza.bankingApi.service.TransactionService;
+import com.moza.bankingApi.service.impl.AccountKeyCache;
+import com.moza.bankingApi.service.impl.AccountReadCache;
+import com.moza.bankingApi.service.impl.HotAccountBalances;
+import com.moza.bankingApi.service.impl.LockRetry;
+import com.moza.bankingApi.service.impl.MonthlySummaryRecorder;
+import com.moza.bankingApi.service.impl.TransactionServiceImpl;
+import com.moza.bankingApi.service.impl.TransferBatchValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code DoubleEntryTransactionService} is an alternative transfer engine, enabled with
+ * {@code app.transactions.engine=double-entry}, that never updates an account balance on the
+ * transfer path.
+ *
+ * <p>Every transfer inserts its {@link Transaction} and two {@link Posting}s, a debit on the source
+ * and a credit on the destination. The balance of an account is its snapshot
+ * ({@code Account.balance}) plus its postings not yet snapshotted, kept short by the
+ * {@link LedgerSnapshotter}.</p>
+ *
+ * <p><b>Concurrency:</b> only the source account row is locked, to serialise the balance check of
+ * its debits. Credits are pure inserts, so any number of them can reach the same account at the
+ * same time. A transfer holds a single row lock, so transfers cannot deadlock on each other.</p>
+ */
+@Service
+@Primary
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.transactions.engine", havingValue = "double-entry")
+public class DoubleEntryTransactionService implements TransactionService {
+
+    private final TransactionServiceImpl statementDelegate;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final PostingRepository postingRepository;
+    private final HotAccountBalances hotAccountBalances;
+    private final LockRetry lockRetry;
+    private final AccountReadCache accountReadCache;
+    private final MonthlySummaryRecorder monthlySummaryRecorder;
+    private final AccountKeyCache accountKeyCache;
+    private final TransferBatchValidator transferBatchValidator;
+
+    /**
+     * Executes a transfer by appending its postings.
+     *
+     * @param request the transfer to execute
+     * @throws EntityNotFountException if the source or destination accounts are not found
+     * @throws BalanceNotEnoughException if the source account does not have enough balance
+     * @throws BadRequestException if the amount is not positive or an account number is malformed
+     */
+    @Override
+    public void transfer(TransferRequest request) {
+        transferBatch(List.of(request));
+    }
+
+    /**
+     * Executes several transfer legs all-or-nothing in a single database transaction. The source
+     * accounts are locked in ascending id order; legs are applied in the order given.
+     *
+     * @param legs the transfers to execute, at most {@link TransferProperties#getBatchMaxLegs()}
+     */
+    @Override
+    public void transferBatch(List<TransferRequest> legs) {
+        transferBatchValidator.validate(legs);
+        lockRetry.run(() -> append(legs));
+    }
+
+    /**
+     * Statements are read from the {@link Transaction} table, which this engine keeps writing.
+     */
+    @Override
+    public List<TransactionResponse> getBankStatement(StatementFilter filter, StatementCursor after, int limit) {
+        return statementDelegate.getBankStatement(filter, after, limit);
+    }
+
+    private void append(List<TransferRequest> legs) {
+        Set<String> numbers = new HashSet<>();
+        for (TransferRequest leg : legs) {
+            numbers.add(leg.getFromAccountNumber());
+            numbers.add(leg.getToAccountNumber());
+        }
+        Map<String, Long> ids = new HashMap<>();
+        for (AccountKey key : accountKeyCache.findAll(numbers).values()) {
+            ids.put(key.accountNumber(), key.id());
+        }
+        for (String number : numbers) {
+            if (!ids.containsKey(number)) {
+                throw new EntityNotFountException("Conta não encontrada: " + number);
+            }
+        }
+
+        // Only sources are locked, lower id first; their running balance is tracked across legs
+        List<Long> sourceIds = legs.stream().map(leg -> ids.get(leg.getFromAccountNumber())).distinct().sorted().toList();
+        Map<Long, Account> sources = new HashMap<>();
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (Account account : accountRepository.findAllByIdForUpdate(sourceIds)) {
+            sources.put(account.getId(), account);
+            balances.put(account.getId(), hotAccountBalances.effectiveBalance(account));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = new ArrayList<>(legs.size());
+        List<Posting> postings = new ArrayList<>(legs.size() * 2);
+        for (TransferRequest leg : legs) {
+            Long sourceId = ids.get(leg.getFromAccountNumber());
+            Long destinationId = ids.get(leg.getToAccountNumber());
+            if (balances.get(sourceId).compareTo(leg.getAmount()) < 0) {
+                throw new BalanceNotEnoughException("Saldo insuficiente na conta de origem");
+            }
+            balances.merge(sourceId, leg.getAmount().negate(), BigDecimal::add);
+            balances.computeIfPresent(destinationId, (id, balance) -> balance.add(leg.getAmount()));
+
+            Account source = sources.get(sourceId);
+            Account destination = sources.containsKey(destinationId)
+                    ? sources.get(destinationId)
+                    : accountRepository.getReferenceById(destinationId);
+            Transaction transaction = new Transaction(null, source, destination, leg.getAmount(), leg.getDescription(), now);
+            transactions.add(transaction);
+            postings.add(new Posting(null, source, transaction, leg.getAmount().negate(), false));
+            postings.add(new Posting(null, destination, transaction, leg.getAmount(), false));
+            accountReadCache.evictAfterCommit(sourceId, destinationId);
+            monthlySummaryRecorder.record(sourceId, destinationId, leg.getAmount(), now, sources.containsKey(destinationId));
+        }
+
+        transactionRepository.saveAll(transactions);
+        postingRepository.saveAll(postings);
+    }
+}
@@ -0,0 +1,66 @@
+package com.moza.bankingApi.service.ledger;
+
+import com.moza.bankingApi.config.TransferProperties;
+import com.moza.bankingApi.model.Posting;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.PostingRepository;
+import com.moza.bankingApi.service.impl.PendingPostings;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * {@code LedgerSnapshotter} periodically folds pending {@link Posting}s into the balance snapshot
+ * ({@code Account.balance}) of their account, so that reading a balance only has to sum a short
+ * tail of postings.
+ *
+ * <p>Each account is folded in its own short transaction holding its row lock, which keeps a debit
+ * of that account from checking its balance halfway through. The postings folded are exactly the
+ * ones read, so a posting committed meanwhile is simply left for the next run.</p>
+ *
+ * <p>Under another engine the snapshotter only runs while {@link PendingPostings} tracks a tail
+ * left by a previous {@code double-entry} run; once it is drained, it no longer queries anything.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerSnapshotter {
+
+    private final AccountRepository accountRepository;
+    private final PostingRepository postingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties transferProperties;
+    private final PendingPostings pendingPostings;
+
+    @Scheduled(fixedDelayString = "${app.transfer.ledger.snapshot-interval-ms:1000}")
+    public void snapshot() {
+        if (!pendingPostings.isTracking()) {
+            return;
+        }
+        List<Long> accountIds = postingRepository.findAccountIdsWithPending(Limit.of(transferProperties.getLedgerSnapshotAccounts()));
+        if (accountIds.isEmpty()) {
+            pendingPostings.drained();
+        }
+        for (Long id : accountIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> accountRepository.findByIdForUpdate(id).ifPresent(account -> {
+                    List<Posting> pending = postingRepository.findByAccountIdAndSnapshottedFalse(
+                            id, Limit.of(transferProperties.getLedgerSnapshotBatch()));
+                    BigDecimal balance = account.getBalance();
+                    for (Posting posting : pending) {
+                        balance = balance.add(posting.getAmount());
+                        posting.setSnapshotted(true);
+                    }
+                    account.setBalance(balance);
+                }));
+            } catch (PessimisticLockingFailureException e) {
+                // Busy account: try again on the next run
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.moza.bankingApi.service.memory;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table from account id to balance (in cents), backed by primitive arrays.
+ *
+ * <p>Owned by the writer thread: it is not thread-safe and must never be touched by any other
+ * thread once the engine is running. Account ids are positive, so {@code 0} marks a free slot.</p>
+ */
+final class AccountTable {
+
+    private long[] ids;
+    private long[] balances;
+    private int size;
+    private int mask;
+
+    AccountTable(int expectedAccounts) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedAccounts * 2 - 1)) << 1;
+        ids = new long[capacity];
+        balances = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Returns the slot of an account, or {@code -1} if the account is unknown.
+     */
+    int slotOf(long id) {
+        for (int i = mix(id) & mask; ; i = (i + 1) & mask) {
+            if (ids[i] == id) {
+                return i;
+            }
+            if (ids[i] == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Adds an account if absent.
+     *
+     * @return the slot of the account
+     */
+    int putIfAbsent(long id, long balanceCents) {
+        int slot = slotOf(id);
+        if (slot >= 0) {
+            return slot;
+        }
+        if ((size + 1) * 2 > ids.length) {
+            grow();
+        }
+        int i = mix(id) & mask;
+        while (ids[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        ids[i] = id;
+        balances[i] = balanceCents;
+        size++;
+        return i;
+    }
+
+    long balance(int slot) {
+        return balances[slot];
+    }
+
+    void add(int slot, long deltaCents) {
+        balances[slot] = Math.addExact(balances[slot], deltaCents);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldIds = ids;
+        long[] oldBalances = balances;
+        ids = new long[oldIds.length * 2];
+        balances = new long[oldIds.length * 2];
+        mask = ids.length - 1;
+        size = 0;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != 0) {
+                putIfAbsent(oldIds[i], oldBalances[i]);
+            }
+        }
+        Arrays.fill(oldIds, 0);
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,345 @@
+package com.moza.bankingApi.service.memory;
+
+import com.moza.bankingApi.config.MemoryLedgerProperties;
+import com.moza.bankingApi.dto.request.StatementCursor;
+import com.moza.bankingApi.dto.request.StatementFilter;
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.dto.response.TransactionResponse;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.exception.BalanceNotEnoughException;
+import com.moza.bankingApi.exception.EntityNotFountException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.LedgerCheckpoint;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.LedgerCheckpointRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.service.TransactionService;
+import com.moza.bankingApi.service.impl.AccountNumberValidator;
+import com.moza.bankingApi.service.impl.AccountReadCache;
+import com.moza.bankingApi.service.impl.HotAccountBalances;
+import com.moza.bankingApi.service.impl.MonthlySummaryRecorder;
+import com.moza.bankingApi.service.impl.TransactionServiceImpl;
+import com.moza.bankingApi.service.impl.TransferBatchValidator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code InMemoryTransactionService} is an optional, single-node transfer engine for peak-hour
+ * throughput, enabled with {@code app.transactions.engine=memory}.
+ *
+ * <p><b>How a transfer flows:</b></p>
+ * <ul>
+ *   <li>The request thread resolves account numbers and puts a command in a bounded ring buffer.</li>
+ *   <li>A single writer thread owns every balance, kept in cents in a primitive-keyed
+ *       {@link AccountTable}. It applies a whole batch of commands without any lock and appends the
+ *       accepted ones to the memory-mapped {@link LedgerJournal}.</li>
+ *   <li>One {@code force()} per batch makes them durable, then every caller of the batch is
+ *       acknowledged. Rejected commands (e.g. insufficient balance) are reverted and never journaled.</li>
+ *   <li>The {@link LedgerFlusher} writes {@code Transaction} rows and {@code Account.balance}
+ *       deltas to the database asynchronously, in large batches.</li>
+ * </ul>
+ *
+ * <p><b>Recovery:</b> on startup the journal records after the database {@link LedgerCheckpoint}
+ * are flushed first, so the database is again an exact snapshot; accounts are then loaded lazily
+ * on first use.</p>
+ *
+ * <p><b>Caveats:</b> the engine must be the only writer of balances, so it must run on a single
+ * node. Statements and {@code /accounts/me} read the database and may lag the engine by up to
+ * {@code app.ledger.memory.flush-interval-ms}; their cached entries are evicted when the flush commits. Amounts are limited to two decimal places.</p>
+ */
+@Slf4j
+@Service
+@Primary
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.transactions.engine", havingValue = "memory")
+public class InMemoryTransactionService implements TransactionService {
+
+    private final TransactionServiceImpl statementDelegate;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final HotAccountBalances hotAccountBalances;
+    private final TransactionTemplate transactionTemplate;
+    private final MemoryLedgerProperties properties;
+    private final AccountReadCache accountReadCache;
+    private final MonthlySummaryRecorder monthlySummaryRecorder;
+    private final AccountNumberValidator accountNumberValidator;
+    private final TransferBatchValidator transferBatchValidator;
+
+    /**
+     * Account number to id of every account registered in the table. Written by the writer thread
+     * only, after registration, so an id found here is always present in the table.
+     */
+    private final Map<String, Long> registeredIds = new ConcurrentHashMap<>();
+
+    private BlockingQueue<Command> ringBuffer;
+    private AccountTable table;
+    private LedgerJournal journal;
+    private LedgerFlusher flusher;
+    private Thread writerThread;
+    private Thread flusherThread;
+    private long sequence;
+    private volatile boolean running;
+
+    /**
+     * A transfer, or atomic batch of transfers, waiting for the writer thread.
+     *
+     * @param legs  the legs, with ids and amounts already resolved
+     * @param seeds accounts the caller could not find in the table, by id
+     * @param done  completed once the command is durable, or failed if it was rejected
+     */
+    private record Command(List<JournalRecord.Leg> legs, Map<Long, Seed> seeds, CompletableFuture<Void> done) {
+    }
+
+    /**
+     * Database balance of an account not registered yet; ignored if the writer registered it meanwhile.
+     */
+    private record Seed(String accountNumber, long balanceCents) {
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        table = new AccountTable(1 << 16);
+        ringBuffer = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        journal = new LedgerJournal(Path.of(properties.getJournalDir()), properties.getSegmentSizeMb() << 20);
+        flusher = new LedgerFlusher(properties.getQueueCapacity(), journal, transactionTemplate,
+                transactionRepository, accountRepository, checkpointRepository, accountReadCache, monthlySummaryRecorder,
+                properties.getFlushIntervalMs(), properties.getFlushBatch());
+
+        // Bring the database up to date with the journal tail before accepting transfers
+        long checkpoint = checkpointRepository.findById(LedgerCheckpoint.SINGLETON_ID)
+                .map(LedgerCheckpoint::getLastSequence)
+                .orElse(0L);
+        List<JournalRecord> tail = new ArrayList<>();
+        sequence = journal.replay(checkpoint, tail::add);
+        if (!tail.isEmpty()) {
+            log.info("Replaying {} journal records after checkpoint {}", tail.size(), checkpoint);
+            for (int from = 0; from < tail.size(); from += properties.getFlushBatch()) {
+                flusher.flushNow(tail.subList(from, Math.min(tail.size(), from + properties.getFlushBatch())));
+            }
+            journal.release(sequence);
+        }
+
+        running = true;
+        writerThread = Thread.ofPlatform().name("ledger-writer").start(this::runWriter);
+        flusherThread = Thread.ofPlatform().name("ledger-flusher").start(flusher);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.join();
+        flusher.stop();
+        flusherThread.join();
+        journal.close();
+    }
+
+    /**
+     * Executes a transfer on the writer thread and returns once it is durable in the journal.
+     *
+     * @param request the transfer to execute
+     * @throws EntityNotFountException if an account is not found
+     * @throws BalanceNotEnoughException if the source account does not have enough balance
+     * @throws BadRequestException if the amount is not positive or has more than two decimals, or an
+     *                             account number is malformed
+     */
+    @Override
+    public void transfer(TransferRequest request) {
+        accountNumberValidator.validate(request);
+        submit(List.of(request));
+    }
+
+    /**
+     * Executes several transfer legs all-or-nothing on the writer thread.
+     *
+     * @param legs the transfers to execute, in order
+     * @throws BadRequestException if the batch fails the {@link TransferBatchValidator} or an amount
+     *                             has more than two decimals
+     */
+    @Override
+    public void transferBatch(List<TransferRequest> legs) {
+        transferBatchValidator.validate(legs);
+        submit(legs);
+    }
+
+    /**
+     * Statements are read from the database, which the flusher keeps up to date.
+     */
+    @Override
+    public List<TransactionResponse> getBankStatement(StatementFilter filter, StatementCursor after, int limit) {
+        return statementDelegate.getBankStatement(filter, after, limit);
+    }
+
+    private void submit(List<TransferRequest> requests) {
+        if (!running) {
+            throw new IllegalStateException("Motor de transferências indisponível");
+        }
+
+        Map<Long, Seed> seeds = new HashMap<>();
+        List<JournalRecord.Leg> legs = new ArrayList<>(requests.size());
+        long now = System.currentTimeMillis();
+        for (TransferRequest request : requests) {
+            legs.add(new JournalRecord.Leg(
+                    resolve(request.getFromAccountNumber(), seeds, "Conta de origem não encontrada"),
+                    resolve(request.getToAccountNumber(), seeds, "Conta de destino não encontrada"),
+                    toCents(request.getAmount()),
+                    now,
+                    request.getDescription()));
+        }
+
+        Command command = new Command(legs, seeds, new CompletableFuture<>());
+        try {
+            if (!ringBuffer.offer(command, properties.getSubmitTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Motor de transferências sobrecarregado");
+            }
+            command.done().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Transferência interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the id of an account, loading its balance from the database as a seed
+     * when the writer has not registered it yet.
+     */
+    private long resolve(String accountNumber, Map<Long, Seed> seeds, String notFoundMessage) {
+        Long id = registeredIds.get(accountNumber);
+        if (id != null) {
+            return id;
+        }
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new EntityNotFountException(notFoundMessage));
+        seeds.put(account.getId(), new Seed(accountNumber, toCentsExact(hotAccountBalances.effectiveBalance(account))));
+        return account.getId();
+    }
+
+    private static long toCents(BigDecimal amount) {
+        try {
+            long cents = amount.movePointRight(2).longValueExact();
+            if (cents > 0) {
+                return cents;
+            }
+        } catch (ArithmeticException | NullPointerException e) {
+            // fall through
+        }
+        throw new BadRequestException("Valor inválido: " + amount);
+    }
+
+    private static long toCentsExact(BigDecimal balance) {
+        return balance.setScale(2, RoundingMode.UNNECESSARY).movePointRight(2).longValueExact();
+    }
+
+    // ---------------------------------------------------------------- writer thread
+
+    private void runWriter() {
+        List<Command> batch = new ArrayList<>(properties.getWriterBatch());
+        List<Command> accepted = new ArrayList<>(properties.getWriterBatch());
+        List<JournalRecord> records = new ArrayList<>(properties.getWriterBatch());
+
+        while (running || !ringBuffer.isEmpty()) {
+            try {
+                Command first = ringBuffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                ringBuffer.drainTo(batch, properties.getWriterBatch() - 1);
+
+                for (Command command : batch) {
+                    try {
+                        records.add(apply(command));
+                        accepted.add(command);
+                    } catch (RuntimeException e) {
+                        command.done().completeExceptionally(e);
+                    }
+                }
+
+                for (JournalRecord record : records) {
+                    journal.append(record);
+                }
+                journal.force();
+
+                for (int i = 0; i < accepted.size(); i++) {
+                    flusher.enqueue(records.get(i));
+                    accepted.get(i).done().complete(null);
+                }
+            } catch (IOException e) {
+                // The journal can no longer be trusted: stop accepting transfers
+                log.error("Ledger journal write failed, stopping the engine", e);
+                running = false;
+                accepted.forEach(c -> c.done().completeExceptionally(
+                        new IllegalStateException("Estado da transferência desconhecido", e)));
+                ringBuffer.forEach(c -> c.done().completeExceptionally(
+                        new IllegalStateException("Motor de transferências indisponível", e)));
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+                accepted.clear();
+                records.clear();
+            }
+        }
+    }
+
+    /**
+     * Applies a command to the table, all legs or none.
+     *
+     * @return the journal record of the applied command
+     */
+    private JournalRecord apply(Command command) {
+        command.seeds().forEach((id, seed) -> {
+            table.putIfAbsent(id, seed.balanceCents());
+            registeredIds.putIfAbsent(seed.accountNumber(), id);
+        });
+
+        List<JournalRecord.Leg> legs = command.legs();
+        for (int i = 0; i < legs.size(); i++) {
+            JournalRecord.Leg leg = legs.get(i);
+            int source = table.slotOf(leg.sourceId());
+            if (table.balance(source) < leg.amountCents()) {
+                revert(legs, i);
+                throw new BalanceNotEnoughException("Saldo insuficiente na conta de origem");
+            }
+            table.add(source, -leg.amountCents());
+            table.add(table.slotOf(leg.destinationId()), leg.amountCents());
+        }
+        return new JournalRecord(++sequence, legs);
+    }
+
+    private void revert(List<JournalRecord.Leg> legs, int applied) {
+        for (int i = applied - 1; i >= 0; i--) {
+            JournalRecord.Leg leg = legs.get(i);
+            table.add(table.slotOf(leg.destinationId()), -leg.amountCents());
+            table.add(table.slotOf(leg.sourceId()), leg.amountCents());
+        }
+    }
+}
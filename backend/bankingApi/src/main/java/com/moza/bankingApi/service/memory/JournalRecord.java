@@ -0,0 +1,19 @@
+package com.moza.bankingApi.service.memory;
+
+import java.util.List;
+
+/**
+ * One durable entry of the ledger journal: a transfer, or an atomic batch of transfers,
+ * accepted by the writer thread.
+ *
+ * @param sequence monotonically increasing sequence assigned by the writer
+ * @param legs     the applied legs, in order
+ */
+record JournalRecord(long sequence, List<Leg> legs) {
+
+    /**
+     * A single movement of funds, in minor units (cents).
+     */
+    record Leg(long sourceId, long destinationId, long amountCents, long timestampMillis, String description) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.moza.bankingApi.service.memory;
+
+import com.moza.bankingApi.model.LedgerCheckpoint;
+import com.moza.bankingApi.model.Transaction;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.LedgerCheckpointRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.service.impl.AccountReadCache;
+import com.moza.bankingApi.service.impl.MonthlySummaryRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background thread writing journaled transfers to the relational tables in batches.
+ *
+ * <p>Each flush inserts the {@link Transaction} rows, applies one relative balance update per
+ * touched account (in id order), adds the transfers to the monthly summaries and advances the
+ * {@link LedgerCheckpoint}, all in one database transaction, then evicts the touched accounts from
+ * the {@link AccountReadCache}. A failed flush is retried with the same records, so the database
+ * never skips a journal record. Once committed, the journal segments covered by the checkpoint
+ * are deleted.</p>
+ */
+@Slf4j
+final class LedgerFlusher implements Runnable {
+
+    private final BlockingQueue<JournalRecord> pending;
+    private final LedgerJournal journal;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final AccountReadCache accountReadCache;
+    private final MonthlySummaryRecorder monthlySummaryRecorder;
+    private final long intervalMs;
+    private final int batchSize;
+
+    private volatile boolean running = true;
+
+    LedgerFlusher(int capacity, LedgerJournal journal, TransactionTemplate transactionTemplate,
+                  TransactionRepository transactionRepository, AccountRepository accountRepository,
+                  LedgerCheckpointRepository checkpointRepository, AccountReadCache accountReadCache,
+                  MonthlySummaryRecorder monthlySummaryRecorder,
+                  long intervalMs, int batchSize) {
+        this.pending = new ArrayBlockingQueue<>(capacity);
+        this.journal = journal;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.accountReadCache = accountReadCache;
+        this.monthlySummaryRecorder = monthlySummaryRecorder;
+        this.intervalMs = intervalMs;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Hands a durable record over to the flusher, waiting while the flusher is a full queue behind.
+     */
+    void enqueue(JournalRecord record) throws InterruptedException {
+        pending.put(record);
+    }
+
+    /**
+     * Flushes records on the calling thread; used to catch up with the journal on startup.
+     */
+    void flushNow(List<JournalRecord> records) {
+        flush(records);
+    }
+
+    /**
+     * Stops the thread once every pending record has been flushed.
+     */
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        List<JournalRecord> batch = new ArrayList<>(batchSize);
+        while (running || !pending.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    JournalRecord first = pending.poll(intervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    pending.drainTo(batch, batchSize - 1);
+                }
+                flush(batch);
+                journal.release(batch.get(batch.size() - 1).sequence());
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("Could not release flushed journal segments", e);
+                batch.clear();
+            } catch (RuntimeException e) {
+                if (!running) {
+                    // Shutting down: the records stay in the journal and are replayed on the next start
+                    log.error("Ledger flush of {} records failed during shutdown", batch.size(), e);
+                    return;
+                }
+                log.error("Ledger flush of {} records failed, retrying", batch.size(), e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private void flush(List<JournalRecord> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Transaction> transactions = new ArrayList<>();
+            Map<Long, Long> deltas = new TreeMap<>();
+
+            for (JournalRecord record : batch) {
+                for (JournalRecord.Leg leg : record.legs()) {
+                    BigDecimal amount = BigDecimal.valueOf(leg.amountCents(), 2);
+                    LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(leg.timestampMillis()), ZoneId.systemDefault());
+                    transactions.add(new Transaction(
+                            null,
+                            accountRepository.getReferenceById(leg.sourceId()),
+                            accountRepository.getReferenceById(leg.destinationId()),
+                            amount,
+                            leg.description(),
+                            timestamp));
+                    // Both rows are locked by the balance updates below, before the summaries are written
+                    monthlySummaryRecorder.record(leg.sourceId(), leg.destinationId(), amount, timestamp, true);
+                    deltas.merge(leg.sourceId(), -leg.amountCents(), Long::sum);
+                    deltas.merge(leg.destinationId(), leg.amountCents(), Long::sum);
+                }
+            }
+
+            transactionRepository.saveAll(transactions);
+            deltas.forEach((id, cents) -> {
+                if (cents != 0) {
+                    accountRepository.addToBalance(id, BigDecimal.valueOf(cents, 2));
+                }
+            });
+            checkpointRepository.save(new LedgerCheckpoint(
+                    LedgerCheckpoint.SINGLETON_ID, batch.get(batch.size() - 1).sequence()));
+            accountReadCache.evictAfterCommit(deltas.keySet());
+        });
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(Math.max(intervalMs, 100));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
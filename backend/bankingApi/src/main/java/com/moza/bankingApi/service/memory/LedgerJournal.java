@@ -0,0 +1,205 @@
+package com.moza.bankingApi.service.memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of the in-memory ledger, stored in fixed-size memory-mapped
+ * segment files named after the first sequence they contain.
+ *
+ * <p>Record layout: {@code int length | long sequence | int legCount | legs... | int crc32},
+ * where each leg is {@code long source | long destination | long cents | long epochMillis |
+ * int descriptionLength | description UTF-8}. A zero length marks the end of a segment; a torn
+ * record (bad length or checksum) after a crash ends the replay.</p>
+ *
+ * <p>{@link #append} and {@link #force} are called by the writer thread only;
+ * {@link #release} is called by the flusher thread.</p>
+ */
+final class LedgerJournal implements AutoCloseable {
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+
+    private MappedByteBuffer current;
+    private int forcedUpTo;
+
+    private record Segment(long firstSequence, Path path) {
+    }
+
+    LedgerJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.getFileName().toString().startsWith(PREFIX))
+                    .sorted()
+                    .forEach(p -> segments.add(new Segment(sequenceOf(p), p)));
+        }
+    }
+
+    /**
+     * Replays every intact record with a sequence greater than {@code afterSequence}, in order.
+     *
+     * @return the sequence of the last intact record, or {@code afterSequence} if there is none
+     */
+    long replay(long afterSequence, Consumer<JournalRecord> consumer) throws IOException {
+        long last = afterSequence;
+        for (Segment segment : List.copyOf(segments)) {
+            try (FileChannel channel = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                JournalRecord record;
+                while ((record = read(buffer)) != null) {
+                    if (record.sequence() > last) {
+                        consumer.accept(record);
+                        last = record.sequence();
+                    }
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Writes a record into the current segment, rolling to a new segment when it is full.
+     * The record is durable only after the next {@link #force()}.
+     */
+    void append(JournalRecord record) throws IOException {
+        byte[] payload = encode(record);
+        int needed = Integer.BYTES + payload.length + Integer.BYTES + Integer.BYTES;
+        if (needed > segmentSize) {
+            throw new IOException("Journal record of " + needed + " bytes exceeds the segment size");
+        }
+        if (current == null || current.remaining() < needed) {
+            roll(record.sequence());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        current.putInt(payload.length);
+        current.put(payload);
+        current.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Flushes every record appended since the previous call to the storage device.
+     */
+    void force() {
+        if (current != null && current.position() > forcedUpTo) {
+            current.force(forcedUpTo, current.position() - forcedUpTo);
+            forcedUpTo = current.position();
+        }
+    }
+
+    /**
+     * Deletes the segments whose records are all covered by {@code flushedSequence}, i.e. already
+     * reflected in the database. The segment being written is never deleted.
+     */
+    void release(long flushedSequence) throws IOException {
+        List<Segment> obsolete = new ArrayList<>();
+        synchronized (segments) {
+            while (segments.size() > 1 && segments.get(1).firstSequence() <= flushedSequence + 1) {
+                obsolete.add(segments.remove(0));
+            }
+        }
+        for (Segment segment : obsolete) {
+            Files.deleteIfExists(segment.path());
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        current = null;
+    }
+
+    private void roll(long firstSequence) throws IOException {
+        force();
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+        // A segment with the same name can only hold a torn first record left by a crash: overwrite it
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        forcedUpTo = 0;
+        synchronized (segments) {
+            segments.removeIf(segment -> segment.path().equals(path));
+            segments.add(new Segment(firstSequence, path));
+        }
+    }
+
+    private static byte[] encode(JournalRecord record) {
+        List<byte[]> descriptions = new ArrayList<>(record.legs().size());
+        int size = Long.BYTES + Integer.BYTES;
+        for (JournalRecord.Leg leg : record.legs()) {
+            byte[] description = leg.description() == null
+                    ? new byte[0] : leg.description().getBytes(StandardCharsets.UTF_8);
+            descriptions.add(description);
+            size += 4 * Long.BYTES + Integer.BYTES + description.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(record.sequence());
+        buffer.putInt(record.legs().size());
+        for (int i = 0; i < record.legs().size(); i++) {
+            JournalRecord.Leg leg = record.legs().get(i);
+            buffer.putLong(leg.sourceId());
+            buffer.putLong(leg.destinationId());
+            buffer.putLong(leg.amountCents());
+            buffer.putLong(leg.timestampMillis());
+            buffer.putInt(descriptions.get(i).length);
+            buffer.put(descriptions.get(i));
+        }
+        return buffer.array();
+    }
+
+    private static JournalRecord read(MappedByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining() - Integer.BYTES) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt()) {
+            return null;
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        long sequence = in.getLong();
+        int count = in.getInt();
+        List<JournalRecord.Leg> legs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long source = in.getLong();
+            long destination = in.getLong();
+            long cents = in.getLong();
+            long timestamp = in.getLong();
+            byte[] description = new byte[in.getInt()];
+            in.get(description);
+            legs.add(new JournalRecord.Leg(source, destination, cents, timestamp,
+                    description.length == 0 ? null : new String(description, StandardCharsets.UTF_8)));
+        }
+        return new JournalRecord(sequence, legs);
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
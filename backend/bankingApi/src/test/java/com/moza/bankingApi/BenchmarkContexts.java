@@ -0,0 +1,28 @@
+package com.moza.bankingApi;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application for the benchmarks comparing several configurations in one run: each
+ * configuration gets its own context, without a web server, to be closed before the next starts.
+ */
+public final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    /**
+     * Starts the application with the test configuration plus {@code properties}.
+     *
+     * @param properties {@code key=value} pairs
+     * @return the running context
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(BankingApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,233 @@
+package com.moza.bankingApi.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.UserRepository;
+import com.moza.bankingApi.service.TransactionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Behaviour of the account endpoints of {@link AccountController}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext
+class AccountControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void createAccounts() {
+        // Accounts are kept across tests: the read caches know their ids
+        if (accountRepository.findByAccountNumber("ME1").isEmpty()) {
+            createAccount("ME1", "cliente1");
+            createAccount("ME2", "cliente2");
+        }
+        if (accountRepository.findByAccountNumber("LST1").isEmpty()) {
+            String[] names = {"Ana", "Ana", "Bia", null, "Carla", null, null};
+            for (int i = 0; i < names.length; i++) {
+                Account account = new Account();
+                account.setUserName(names[i]);
+                account.setAccountNumber("LST" + (i + 1));
+                account.setBalance(BigDecimal.ZERO);
+                accountRepository.save(account);
+            }
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "admin1", roles = "ADMIN")
+    void listingByNamePagesThroughAccountsWithoutNameLast() throws Exception {
+        assertEquals(List.of("LST1", "LST2", "LST3", "LST5", "LST4", "LST6", "LST7"), listAll("userName", "asc"));
+        assertEquals(List.of("LST5", "LST3", "LST2", "LST1", "LST7", "LST6", "LST4"), listAll("userName", "desc"));
+        assertEquals(List.of("LST1", "LST2", "LST3", "LST4", "LST5", "LST6", "LST7"), listAll("id", "asc"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin1", roles = "ADMIN")
+    void listingRejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/").param("sort", "userName").param("after", "Ana,x"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "cliente1", roles = "CLIENTE")
+    void clientsCannotListAccounts() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/accounts")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "cliente1", roles = "CLIENTE")
+    void clientsCannotCreateAccounts() throws Exception {
+        long accounts = accountRepository.count();
+
+        mockMvc.perform(post("/api/v1/accounts/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"cliente1\",\"balance\":1000000}"))
+                .andExpect(status().isForbidden());
+
+        assertEquals(accounts, accountRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = "admin1", roles = "ADMIN")
+    void adminsCreateAccounts() throws Exception {
+        long accounts = accountRepository.count();
+
+        mockMvc.perform(post("/api/v1/accounts/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"cliente8\",\"userName\":\"Cliente Oito\",\"balance\":0}"))
+                .andExpect(status().isOk());
+
+        assertEquals(accounts + 1, accountRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = "cliente1", roles = "CLIENTE")
+    void clientsCannotConfigureHotSlots() throws Exception {
+        mockMvc.perform(put("/api/v1/accounts/ME2/hot-slots").param("slots", "4"))
+                .andExpect(status().isForbidden());
+
+        assertEquals(0, accountRepository.findByAccountNumber("ME2").orElseThrow().getHotSlots());
+    }
+
+    @Test
+    @WithMockUser(username = "admin1", roles = "ADMIN")
+    void adminsConfigureHotSlots() throws Exception {
+        mockMvc.perform(put("/api/v1/accounts/LST7/hot-slots").param("slots", "4"))
+                .andExpect(status().isOk());
+        assertEquals(4, accountRepository.findByAccountNumber("LST7").orElseThrow().getHotSlots());
+
+        mockMvc.perform(put("/api/v1/accounts/LST7/hot-slots").param("slots", "0"))
+                .andExpect(status().isOk());
+        assertEquals(0, accountRepository.findByAccountNumber("LST7").orElseThrow().getHotSlots());
+    }
+
+    @Test
+    @WithMockUser(username = "cliente1", roles = "CLIENTE")
+    void clientsReadOnlyTheirOwnPastBalance() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/me/balance").param("asOf", "2024-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("ME1"));
+
+        mockMvc.perform(get("/api/v1/accounts/ME2/balance").param("asOf", "2024-01-01T00:00:00"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/accounts/ME1/balance").param("asOf", "2024-01-01T00:00:00"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "admin1", roles = "ADMIN")
+    void adminsReadThePastBalanceOfAnyAccount() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/ME2/balance").param("asOf", "2024-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("ME2"));
+    }
+
+    @Test
+    @WithMockUser(username = "cliente1", roles = "CLIENTE")
+    void firstReadOfMyAccountIsASingleQueryIncludingPendingBalances() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/accounts/me"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("ME1"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(username = "cliente2", roles = "CLIENTE")
+    void myAccountIsNotModifiedUntilATransferTouchesIt() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/accounts/me"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/v1/accounts/me").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber("ME2");
+        request.setToAccountNumber("ME1");
+        request.setAmount(BigDecimal.ONE);
+        transactionService.transfer(request);
+
+        String changed = mockMvc.perform(get("/api/v1/accounts/me").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+        mockMvc.perform(get("/api/v1/accounts/me").header(HttpHeaders.IF_NONE_MATCH, changed))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Follows the {@code next} links of the listing of the {@code LST} accounts, two per page.
+     */
+    private List<String> listAll(String sort, String direction) throws Exception {
+        List<String> accountNumbers = new ArrayList<>();
+        String next = "/api/v1/accounts/?accountNumber=LST&sort=" + sort + "&direction=" + direction + "&limit=2";
+        while (next != null) {
+            MockHttpServletResponse response = mockMvc.perform(get(URI.create(next)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            accountNumbers.addAll(JsonPath.read(response.getContentAsString(), "$[*].accountNumber"));
+            String link = response.getHeader(HttpHeaders.LINK);
+            next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        }
+        return accountNumbers;
+    }
+
+    private void createAccount(String accountNumber, String username) {
+        Account account = new Account();
+        account.setUserName(accountNumber);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(new BigDecimal("100.00"));
+        account.setUser(userRepository.findByUsername(username).orElseThrow());
+        accountRepository.save(account);
+    }
+}
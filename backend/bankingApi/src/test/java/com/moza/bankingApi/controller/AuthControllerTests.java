@@ -0,0 +1,107 @@
+package com.moza.bankingApi.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Behaviour of the bearer tokens issued by {@link AuthController}, in stateless mode.
+ */
+@SpringBootTest(properties = "app.security.stateless=true")
+@AutoConfigureMockMvc
+@DirtiesContext
+class AuthControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private UserDetailsService userDetailsService;
+
+    @BeforeEach
+    void createAccount() {
+        if (accountRepository.findByAccountNumber("AUTH1").isEmpty()) {
+            Account account = new Account();
+            account.setUserName("AUTH1");
+            account.setAccountNumber("AUTH1");
+            account.setBalance(BigDecimal.ZERO);
+            account.setUser(userRepository.findByUsername("cliente7").orElseThrow());
+            accountRepository.save(account);
+        }
+    }
+
+    @Test
+    void statelessTokenAuthenticatesWithoutLoadingTheUser() throws Exception {
+        String token = login("cliente7", "senha123");
+        clearInvocations(userDetailsService);
+
+        me(token).andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("AUTH1"));
+        me(token).andExpect(status().isOk());
+
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void loggedOutTokenIsRejected() throws Exception {
+        String token = login("cliente7", "senha123");
+        String other = login("cliente7", "senha123");
+        me(token).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        me(token).andExpect(status().isForbidden());
+        me(other).andExpect(status().isOk());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() throws Exception {
+        String token = login("cliente7", "senha123");
+
+        me(token.substring(0, token.length() - 2) + "xx").andExpect(status().isForbidden());
+    }
+
+    private String login(String username, String password) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.token");
+    }
+
+    private ResultActions me(String token) throws Exception {
+        return mockMvc.perform(get("/api/v1/accounts/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
@@ -0,0 +1,172 @@
+package com.moza.bankingApi.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.oneOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Behaviour of transfers submitted with {@code Prefer: respond-async} to {@link TransactionController}.
+ * One transfer executes at a time and one more may wait, so the third concurrent submission is refused.
+ */
+@SpringBootTest(properties = {"app.transfer.async.concurrency=1", "app.transfer.async.queue-capacity=1"})
+@AutoConfigureMockMvc
+@DirtiesContext
+@WithMockUser(username = "cliente3", roles = "CLIENTE")
+class TransactionControllerAsyncTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @MockitoSpyBean
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void createAccounts() {
+        if (accountRepository.findByAccountNumber("ASY1").isEmpty()) {
+            createAccount("ASY1");
+            createAccount("ASY2");
+        }
+    }
+
+    @Test
+    void acceptedTransferIsPolledUntilCompleted() throws Exception {
+        BigDecimal before = balance("ASY2");
+        CountDownLatch gate = holdTransfers();
+
+        MockHttpServletResponse response = submit("ASY1", "ASY2", "10")
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value(oneOf("PENDING", "PROCESSING")))
+                .andReturn().getResponse();
+        String id = JsonPath.read(response.getContentAsString(), "$.id");
+        assertEquals("/api/v1/transactions/" + id + "/status", response.getHeader(HttpHeaders.LOCATION));
+        assertEquals(before, balance("ASY2"));
+
+        gate.countDown();
+
+        assertEquals("COMPLETED", awaitFinalStatus(id));
+        assertEquals(before.add(BigDecimal.TEN), balance("ASY2"));
+    }
+
+    @Test
+    void failedTransferReportsItsReason() throws Exception {
+        String id = JsonPath.read(submit("ASY1", "ASY2", "1000000")
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+
+        assertEquals("FAILED", awaitFinalStatus(id));
+        mockMvc.perform(get("/api/v1/transactions/" + id + "/status"))
+                .andExpect(jsonPath("$.message").isNotEmpty())
+                .andExpect(jsonPath("$.completedAt").isNotEmpty());
+    }
+
+    @Test
+    void statusIsOnlyVisibleToTheSubmitter() throws Exception {
+        String id = JsonPath.read(submit("ASY1", "ASY2", "1")
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+
+        mockMvc.perform(get("/api/v1/transactions/" + id + "/status").with(user("cliente4").roles("CLIENTE")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/transactions/unknown/status"))
+                .andExpect(status().isNotFound());
+        assertEquals("COMPLETED", awaitFinalStatus(id));
+    }
+
+    @Test
+    void fullQueueIsRefusedWith503() throws Exception {
+        CountDownLatch gate = holdTransfers();
+        String running = JsonPath.read(submit("ASY1", "ASY2", "1")
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+        String queued = JsonPath.read(submit("ASY1", "ASY2", "1")
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+
+        submit("ASY1", "ASY2", "1")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        gate.countDown();
+        assertEquals("COMPLETED", awaitFinalStatus(running));
+        assertEquals("COMPLETED", awaitFinalStatus(queued));
+        submit("ASY1", "ASY2", "1").andExpect(status().isAccepted());
+    }
+
+    /**
+     * Makes the transfers started from now on wait for the returned latch before executing.
+     */
+    private CountDownLatch holdTransfers() {
+        CountDownLatch gate = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            assertTrue(gate.await(30, TimeUnit.SECONDS));
+            return invocation.callRealMethod();
+        }).when(transactionService).transfer(any());
+        return gate;
+    }
+
+    private String awaitFinalStatus(String id) throws Exception {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (true) {
+            String status = JsonPath.read(mockMvc.perform(get("/api/v1/transactions/" + id + "/status"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(), "$.status");
+            if (!"PENDING".equals(status) && !"PROCESSING".equals(status)) {
+                return status;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "transfer " + id + " still " + status);
+            Thread.sleep(20);
+        }
+    }
+
+    private ResultActions submit(String from, String to, String amount) throws Exception {
+        return mockMvc.perform(post("/api/v1/transactions/transfer")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromAccountNumber\":\"" + from + "\",\"toAccountNumber\":\"" + to + "\",\"amount\":" + amount + "}"));
+    }
+
+    private BigDecimal balance(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+    }
+
+    private void createAccount(String accountNumber) {
+        Account account = new Account();
+        account.setUserName(accountNumber);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(new BigDecimal("1000.00"));
+        accountRepository.save(account);
+    }
+}
@@ -0,0 +1,158 @@
+package com.moza.bankingApi.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.Transaction;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.repository.UserRepository;
+import com.moza.bankingApi.service.archive.TransactionArchiver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Behaviour of the statement export of {@code GET /api/v1/transactions/extract/export}, with part
+ * of the history moved to the archive.
+ */
+@SpringBootTest(properties = {"app.archive.enabled=true", "app.archive.retention-days=30"})
+@AutoConfigureMockMvc
+@DirtiesContext
+@WithMockUser(username = "cliente9", roles = "CLIENTE")
+class TransactionControllerExportTests {
+
+    private static final LocalDateTime OLD = LocalDateTime.of(2023, 1, 10, 10, 0);
+    private static final LocalDateTime OLDER = LocalDateTime.of(2023, 1, 5, 8, 30);
+    private static final LocalDateTime RECENT = LocalDate.now().minusDays(2).atTime(10, 0);
+
+    /**
+     * Ids of the transactions of EXP1, oldest first: two archived, then two still in the database.
+     */
+    private static final List<Long> ids = new ArrayList<>();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionArchiver transactionArchiver;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("transaction-archive").toString();
+        registry.add("app.archive.dir", () -> directory);
+    }
+
+    @BeforeEach
+    void createHistory() {
+        if (accountRepository.findByAccountNumber("EXP1").isPresent()) {
+            return;
+        }
+        Account mine = createAccount("EXP1", "cliente9");
+        // A number needing quotes in CSV
+        Account other = createAccount("EXP\"2,B", "cliente10");
+        ids.add(save(mine, other, "10.00", OLDER));
+        ids.add(save(other, mine, "20.50", OLD));
+        ids.add(save(mine, other, "5.00", RECENT));
+        ids.add(save(other, mine, "7.25", RECENT.plusHours(1)));
+
+        transactionArchiver.archive();
+        assertEquals(2, transactionRepository.count());
+    }
+
+    @Test
+    void exportsCsvWithArchivedRowsFirst() throws Exception {
+        String body = export("csv")
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"extrato.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(String.join("\n",
+                "id,dateTime,type,otherAccount,amount",
+                ids.get(0) + "," + OLDER + ",ENVIADA,\"EXP\"\"2,B\",10.00",
+                ids.get(1) + "," + OLD + ",RECEBIDA,\"EXP\"\"2,B\",20.50",
+                ids.get(2) + "," + RECENT + ",ENVIADA,\"EXP\"\"2,B\",5.00",
+                ids.get(3) + "," + RECENT.plusHours(1) + ",RECEBIDA,\"EXP\"\"2,B\",7.25") + "\n", body);
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLineWithArchivedRowsFirst() throws Exception {
+        String body = export("ndjson")
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(ids.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(ids.get(i), ((Number) JsonPath.read(lines[i], "$.id")).longValue());
+            assertEquals("EXP\"2,B", JsonPath.read(lines[i], "$.otherAccount"));
+        }
+        assertEquals("RECEBIDA", JsonPath.read(lines[1], "$.type"));
+        assertEquals(7.25, ((Number) JsonPath.read(lines[3], "$.amount")).doubleValue());
+    }
+
+    @Test
+    void rejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/transactions/extract/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions export(String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/transactions/extract/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    private Account createAccount(String accountNumber, String username) {
+        Account account = new Account();
+        account.setUserName(accountNumber);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(new BigDecimal("1000.00"));
+        account.setUser(userRepository.findByUsername(username).orElseThrow());
+        return accountRepository.save(account);
+    }
+
+    private Long save(Account source, Account destination, String amount, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setSource(source);
+        transaction.setDestination(destination);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTimestamp(timestamp);
+        return transactionRepository.save(transaction).getId();
+    }
+}
@@ -0,0 +1,162 @@
+package com.moza.bankingApi.controller;
+
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.exception.ConflictException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.IdempotencyRecord;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.IdempotencyRecordRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.service.IdempotencyService;
+import com.moza.bankingApi.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Behaviour of the {@code Idempotency-Key} header of {@code POST /api/v1/transactions/transfer}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+@WithMockUser(username = "cliente1", roles = "CLIENTE")
+class TransactionControllerIdempotencyTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void resetAccounts() {
+        idempotencyRecordRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        for (String number : new String[]{"IDEM1", "IDEM2"}) {
+            Account account = new Account();
+            account.setUserName(number);
+            account.setAccountNumber(number);
+            account.setBalance(new BigDecimal("100.00"));
+            accountRepository.save(account);
+        }
+    }
+
+    @Test
+    void retryWithSameKeyAndBodyReturnsStoredResponseWithoutTransferringAgain() throws Exception {
+        transfer("key-1", "10.00").andExpect(status().isOk());
+        transfer("key-1", "10.00").andExpect(status().isOk());
+
+        assertEquals(1, transactionRepository.count());
+        assertEquals(0, new BigDecimal("90.00").compareTo(accountRepository.findByAccountNumber("IDEM1").orElseThrow().getBalance()));
+    }
+
+    @Test
+    void keyReusedWithDifferentBodyIsRejectedWith422() throws Exception {
+        transfer("key-2", "10.00").andExpect(status().isOk());
+        transfer("key-2", "20.00").andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void keyOfAttemptInProgressIsRejectedWith409AndRetryAfter() throws Exception {
+        transfer("key-3", "10.00").andExpect(status().isOk());
+        String requestHash = idempotencyRecordRepository.findById("cliente1:key-3").orElseThrow().getRequestHash();
+        // A claim of the same request still running on another node: unknown to this node's memory
+        idempotencyRecordRepository.save(new IdempotencyRecord("cliente1:key-4", requestHash, false, null, LocalDateTime.now(), null));
+
+        transfer("key-4", "10.00")
+                .andExpect(status().isConflict())
+                .andExpect(header().exists("Retry-After"));
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void keyLeftClaimedByCrashedAttemptIsTakenOverOnceItsLeaseRanOut() throws Exception {
+        transfer("key-5", "10.00").andExpect(status().isOk());
+        String requestHash = idempotencyRecordRepository.findById("cliente1:key-5").orElseThrow().getRequestHash();
+        // Claimed by a node that crashed before its transfer committed
+        idempotencyRecordRepository.save(new IdempotencyRecord("cliente1:key-6", requestHash, false, null,
+                LocalDateTime.now().minusHours(1), null));
+
+        transfer("key-6", "10.00").andExpect(status().isOk());
+        transfer("key-6", "10.00").andExpect(status().isOk());
+
+        assertEquals(2, transactionRepository.count());
+        assertTrue(idempotencyRecordRepository.findById("cliente1:key-6").orElseThrow().isCompleted());
+    }
+
+    @Test
+    void failedTransferReleasesItsKey() throws Exception {
+        transfer("key-7", "1000.00").andExpect(status().isBadRequest());
+
+        assertFalse(idempotencyRecordRepository.existsById("cliente1:key-7"));
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void attemptWhoseKeyWasTakenOverRollsBackItsTransfer() {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber("IDEM1");
+        request.setToAccountNumber("IDEM2");
+        request.setAmount(new BigDecimal("10.00"));
+
+        assertThrows(ConflictException.class, () -> idempotencyService.execute("key-8", request, () -> {
+            transactionService.transfer(request);
+            // Another node takes the key over while this attempt is still running
+            new TransactionTemplate(transactionManager, new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+                    .executeWithoutResult(status -> idempotencyRecordRepository.findById("cliente1:key-8").orElseThrow()
+                            .setCreatedAt(LocalDateTime.now()));
+            return "ok";
+        }));
+
+        assertEquals(0, transactionRepository.count());
+        assertEquals(0, new BigDecimal("100.00").compareTo(accountRepository.findByAccountNumber("IDEM1").orElseThrow().getBalance()));
+        assertFalse(idempotencyRecordRepository.findById("cliente1:key-8").orElseThrow().isCompleted());
+    }
+
+    private ResultActions transfer(String key, String amount) throws Exception {
+        return mockMvc.perform(post("/api/v1/transactions/transfer")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromAccountNumber\":\"IDEM1\",\"toAccountNumber\":\"IDEM2\",\"amount\":" + amount + "}"));
+    }
+}
@@ -0,0 +1,157 @@
+package com.moza.bankingApi.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.Transaction;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Behaviour of the statement of {@code GET /api/v1/transactions/extract}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+@WithMockUser(username = "cliente5", roles = "CLIENTE")
+class TransactionControllerStatementTests {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2024, 3, 1, 10, 0);
+    private static final LocalDateTime SECOND = LocalDateTime.of(2024, 3, 2, 9, 0);
+    private static final LocalDateTime THIRD = LocalDateTime.of(2024, 4, 15, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void createHistory() {
+        // The history is kept across tests: the read caches know the account and its first page
+        if (accountRepository.findByAccountNumber("ST1").isPresent()) {
+            return;
+        }
+        Account mine = createAccount("ST1", "cliente5");
+        Account other = createAccount("ST2", "cliente6");
+        // Several transfers share a timestamp, so pages end inside a tie
+        for (int amount = 1; amount <= 5; amount++) {
+            save(mine, other, amount, FIRST);
+        }
+        for (int amount = 10; amount <= 30; amount += 10) {
+            save(other, mine, amount, SECOND);
+        }
+        save(mine, other, 100, THIRD);
+    }
+
+    @Test
+    void pagesThroughTransfersWithEqualTimestampsWithoutDuplicatesOrGaps() throws Exception {
+        List<Long> expected = transactionRepository.findAll().stream()
+                .sorted(Comparator.comparing(Transaction::getTimestamp).thenComparing(Transaction::getId).reversed())
+                .map(Transaction::getId)
+                .toList();
+
+        for (int limit : new int[]{1, 2, 4, 9, 50}) {
+            assertEquals(expected, statement("", limit, "$[*].id").stream()
+                    .map(id -> ((Number) id).longValue())
+                    .toList(), "limit " + limit);
+        }
+    }
+
+    @Test
+    void filtersByTypePeriodAndAmountAcrossPages() throws Exception {
+        assertEquals(List.of("30.0", "20.0", "10.0"), amounts("&type=RECEBIDA"));
+        assertEquals(List.of("100.0", "5.0", "4.0", "3.0"), amounts("&type=enviada&minAmount=3"));
+        assertEquals(List.of("30.0", "20.0", "10.0"), amounts("&from=2024-03-02&to=2024-03-31"));
+        assertEquals(List.of("5.0", "4.0", "3.0", "2.0", "1.0"), amounts("&to=2024-03-01"));
+        assertEquals(List.of("100.0"), amounts("&from=2024-04-15"));
+        assertEquals(List.of("20.0", "10.0", "5.0"), amounts("&minAmount=5&maxAmount=20"));
+        assertEquals(List.of(), amounts("&from=2024-05-01"));
+    }
+
+    @Test
+    void rejectsInvalidFilters() throws Exception {
+        mockMvc.perform(get("/api/v1/transactions/extract").param("type", "OUTRA"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/transactions/extract").param("from", "2024-03-02").param("to", "2024-03-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/transactions/extract").param("minAmount", "20").param("maxAmount", "10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/transactions/extract").param("after", "2024-03-01T10:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Returns the amounts of a filtered statement, read two transfers per page.
+     */
+    private List<String> amounts(String query) throws Exception {
+        return statement(query, 2, "$[*].amount").stream().map(String::valueOf).toList();
+    }
+
+    /**
+     * Follows the {@code next} links of a statement and collects {@code path} from every page.
+     */
+    private List<Object> statement(String query, int limit, String path) throws Exception {
+        List<Object> values = new ArrayList<>();
+        String next = "/api/v1/transactions/extract?limit=" + limit + query;
+        while (next != null) {
+            MockHttpServletResponse response = mockMvc.perform(get(URI.create(next)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            List<Object> page = JsonPath.read(response.getContentAsString(), path);
+            values.addAll(page);
+            String link = response.getHeader(HttpHeaders.LINK);
+            next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        }
+        return values;
+    }
+
+    private Account createAccount(String accountNumber, String username) {
+        Account account = new Account();
+        account.setUserName(accountNumber);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(new BigDecimal("1000.00"));
+        account.setUser(userRepository.findByUsername(username).orElseThrow());
+        return accountRepository.save(account);
+    }
+
+    private void save(Account source, Account destination, int amount, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setSource(source);
+        transaction.setDestination(destination);
+        transaction.setAmount(new BigDecimal(amount).setScale(2));
+        transaction.setTimestamp(timestamp);
+        transactionRepository.save(transaction);
+    }
+}
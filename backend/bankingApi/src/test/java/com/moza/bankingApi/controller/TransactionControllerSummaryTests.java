@@ -0,0 +1,170 @@
+package com.moza.bankingApi.controller;
+
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.UserRepository;
+import com.moza.bankingApi.service.TransactionService;
+import com.moza.bankingApi.service.impl.MonthlySummaryRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Behaviour of the monthly summaries of {@code GET /api/v1/transactions/summary}, as maintained by
+ * the {@link MonthlySummaryRecorder}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class TransactionControllerSummaryTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private MonthlySummaryRecorder monthlySummaryRecorder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * SUM1 holds 1000.00 after receiving 300.00 and sending 50.00 in January 2024, sending 100.00
+     * in February and receiving 200.00 in March, the last credit on a shard of its summary.
+     */
+    @BeforeEach
+    void createHistory() {
+        if (accountRepository.findByAccountNumber("SUM1").isPresent()) {
+            return;
+        }
+        Account mine = createAccount("SUM1", "cliente4", "1000.00");
+        Account other = createAccount("SUM2", null, "1000.00");
+        transactionTemplate.executeWithoutResult(status -> {
+            record(other, mine, "300.00", LocalDateTime.of(2024, 1, 3, 10, 0), true);
+            record(mine, other, "50.00", LocalDateTime.of(2024, 1, 31, 23, 59));
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                record(mine, other, "100.00", LocalDateTime.of(2024, 2, 1, 0, 0)));
+        transactionTemplate.executeWithoutResult(status ->
+                record(other, mine, "200.00", LocalDateTime.of(2024, 3, 15, 12, 0), false));
+    }
+
+    @Test
+    @WithMockUser(username = "admin1", roles = "ADMIN")
+    void adminsReadTheTotalsAndDerivedBalancesOfAnyAccount() throws Exception {
+        mockMvc.perform(get("/api/v1/transactions/summary/SUM1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].month").value("2024-03"))
+                .andExpect(jsonPath("$[0].totalSent").value(0.0))
+                .andExpect(jsonPath("$[0].totalReceived").value(200.0))
+                .andExpect(jsonPath("$[0].transactionCount").value(1))
+                .andExpect(jsonPath("$[0].openingBalance").value(800.0))
+                .andExpect(jsonPath("$[0].closingBalance").value(1000.0))
+                .andExpect(jsonPath("$[1].month").value("2024-02"))
+                .andExpect(jsonPath("$[1].totalSent").value(100.0))
+                .andExpect(jsonPath("$[1].openingBalance").value(900.0))
+                .andExpect(jsonPath("$[1].closingBalance").value(800.0))
+                .andExpect(jsonPath("$[2].month").value("2024-01"))
+                .andExpect(jsonPath("$[2].totalSent").value(50.0))
+                .andExpect(jsonPath("$[2].totalReceived").value(300.0))
+                .andExpect(jsonPath("$[2].transactionCount").value(2))
+                .andExpect(jsonPath("$[2].openingBalance").value(650.0))
+                .andExpect(jsonPath("$[2].closingBalance").value(900.0));
+    }
+
+    @Test
+    @WithMockUser(username = "cliente4", roles = "CLIENTE")
+    void clientsReadOnlyTheirOwnAccount() throws Exception {
+        mockMvc.perform(get("/api/v1/transactions/summary").param("months", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].month").value("2024-03"))
+                .andExpect(jsonPath("$[1].month").value("2024-02"))
+                .andExpect(jsonPath("$[1].openingBalance").value(900.0));
+
+        mockMvc.perform(get("/api/v1/transactions/summary/SUM1"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/transactions/summary/SUM2"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "cliente4", roles = "CLIENTE")
+    void rejectsMonthsOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/v1/transactions/summary").param("months", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/transactions/summary").param("months", "121"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin1", roles = "ADMIN")
+    void transfersAddToTheCurrentMonth() throws Exception {
+        createAccount("SUM3", null, "100.00");
+        createAccount("SUM4", null, "0.00");
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber("SUM3");
+        request.setToAccountNumber("SUM4");
+        request.setAmount(new BigDecimal("25.00"));
+        transactionService.transfer(request);
+        transactionService.transfer(request);
+
+        mockMvc.perform(get("/api/v1/transactions/summary/SUM4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].month").value(YearMonth.now().toString()))
+                .andExpect(jsonPath("$[0].totalReceived").value(50.0))
+                .andExpect(jsonPath("$[0].transactionCount").value(2))
+                .andExpect(jsonPath("$[0].openingBalance").value(0.0))
+                .andExpect(jsonPath("$[0].closingBalance").value(50.0));
+        mockMvc.perform(get("/api/v1/transactions/summary/SUM3"))
+                .andExpect(jsonPath("$[0].totalSent").value(50.0))
+                .andExpect(jsonPath("$[0].openingBalance").value(100.0))
+                .andExpect(jsonPath("$[0].closingBalance").value(50.0));
+    }
+
+    private void record(Account source, Account destination, String amount, LocalDateTime timestamp) {
+        record(source, destination, amount, timestamp, true);
+    }
+
+    private void record(Account source, Account destination, String amount, LocalDateTime timestamp,
+                        boolean destinationLocked) {
+        monthlySummaryRecorder.record(source.getId(), destination.getId(), new BigDecimal(amount), timestamp,
+                destinationLocked);
+    }
+
+    private Account createAccount(String accountNumber, String username, String balance) {
+        Account account = new Account();
+        account.setUserName(accountNumber);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(new BigDecimal(balance));
+        if (username != null) {
+            account.setUser(userRepository.findByUsername(username).orElseThrow());
+        }
+        return accountRepository.save(account);
+    }
+}
@@ -0,0 +1,110 @@
+package com.moza.bankingApi.controller;
+
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Behaviour of the transfer endpoints of {@link TransactionController}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+@WithMockUser(username = "cliente1", roles = "CLIENTE")
+class TransactionControllerTests {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100.00");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void resetAccounts() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        for (String number : new String[]{"TX1", "TX2", "TX3"}) {
+            Account account = new Account();
+            account.setUserName(number);
+            account.setAccountNumber(number);
+            account.setBalance(INITIAL_BALANCE);
+            accountRepository.save(account);
+        }
+    }
+
+    @Test
+    void transferToNumberWithWrongCheckDigitsIsRejectedWith400() throws Exception {
+        transfer("{\"fromAccountNumber\":\"TX1\",\"toAccountNumber\":\"1234567890123\",\"amount\":10}")
+                .andExpect(status().isBadRequest());
+        transfer("{\"fromAccountNumber\":\"TX1\",\"toAccountNumber\":\"TX2\",\"amount\":10}")
+                .andExpect(status().isOk());
+
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void batchAppliesEveryLegInOrder() throws Exception {
+        // The second leg spends money the first one credits
+        batch("[{\"fromAccountNumber\":\"TX1\",\"toAccountNumber\":\"TX2\",\"amount\":60},"
+                + "{\"fromAccountNumber\":\"TX2\",\"toAccountNumber\":\"TX3\",\"amount\":150}]")
+                .andExpect(status().isOk());
+
+        assertEquals(2, transactionRepository.count());
+        assertBalances("40.00", "10.00", "250.00");
+    }
+
+    @Test
+    void batchWithAFailingLegChangesNothing() throws Exception {
+        batch("[{\"fromAccountNumber\":\"TX1\",\"toAccountNumber\":\"TX2\",\"amount\":60},"
+                + "{\"fromAccountNumber\":\"TX2\",\"toAccountNumber\":\"TX3\",\"amount\":10},"
+                + "{\"fromAccountNumber\":\"TX1\",\"toAccountNumber\":\"TX3\",\"amount\":60}]")
+                .andExpect(status().isBadRequest());
+        batch("[{\"fromAccountNumber\":\"TX1\",\"toAccountNumber\":\"TX2\",\"amount\":10},"
+                + "{\"fromAccountNumber\":\"TX2\",\"toAccountNumber\":\"TX9\",\"amount\":10}]")
+                .andExpect(status().isNotFound());
+
+        assertEquals(0, transactionRepository.count());
+        assertBalances("100.00", "100.00", "100.00");
+    }
+
+    private void assertBalances(String... expected) {
+        for (int i = 0; i < expected.length; i++) {
+            String number = "TX" + (i + 1);
+            assertEquals(new BigDecimal(expected[i]),
+                    accountRepository.findByAccountNumber(number).orElseThrow().getBalance(), number);
+        }
+    }
+
+    private ResultActions batch(String body) throws Exception {
+        return mockMvc.perform(post("/api/v1/transactions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private ResultActions transfer(String body) throws Exception {
+        return mockMvc.perform(post("/api/v1/transactions/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
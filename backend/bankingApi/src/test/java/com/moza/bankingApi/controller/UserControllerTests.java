@@ -0,0 +1,167 @@
+package com.moza.bankingApi.controller;
+
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.User;
+import com.moza.bankingApi.model.enums.Role;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.UserRepository;
+import com.moza.bankingApi.service.impl.AccountNumbers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Behaviour of the bulk customer import of {@code POST /api/v1/users/import}, two rows per batch.
+ */
+@SpringBootTest(properties = "app.onboarding.batch-size=2")
+@AutoConfigureMockMvc
+@DirtiesContext
+@WithMockUser(username = "admin1", roles = "ADMIN")
+class UserControllerTests {
+
+    private static final String HEADER = "username,password,role,userName,nuit,balance,accountNumber\r\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void createAccount() {
+        if (accountRepository.findByAccountNumber("IMPDB").isEmpty()) {
+            Account account = new Account();
+            account.setUserName("IMPDB");
+            account.setAccountNumber("IMPDB");
+            account.setBalance(BigDecimal.ZERO);
+            accountRepository.save(account);
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "cliente1", roles = "CLIENTE")
+    void clientsCannotImportCustomers() throws Exception {
+        importCsv(HEADER + "intruder,pw,ADMIN,Intruder,1,0,\r\n")
+                .andExpect(status().isForbidden());
+
+        assertTrue(userRepository.findByUsername("intruder").isEmpty());
+    }
+
+    @Test
+    void importsValidRowsAndReportsTheOthersByLine() throws Exception {
+        String csv = "\uFEFF" + HEADER
+                + "imp1,pw1,CLIENTE,\"Silva, Ana\",100,10.50,\r\n"
+                // A quoted field spanning two lines, with escaped quotes; the role defaults to CLIENTE
+                + "imp2,pw2,,\"Multi\nLine \"\"Quoted\"\"\",101,0,IMPLEG1\r\n"
+                + "imp3,pw3,CLIENTE,Three,102,5,\r\n"
+                + "imp1,pw,CLIENTE,Again,103,1,\r\n"
+                + "imp4,pw,CLIENTE,Four,104,1,IMPLEG1\r\n"
+                + "cliente1,pw,CLIENTE,Taken,105,1,\r\n"
+                + "imp5,pw,CLIENTE,Five,106,1,IMPDB\r\n"
+                + "imp6,pw,CLIENTE,Six,107,1,1234567890123\r\n"
+                + "imp7,pw,GERENTE,Seven,108,1,\r\n"
+                + "imp8,pw,CLIENTE,Eight,109,-1,\r\n"
+                + "imp9,,CLIENTE,Nine,110,1,\r\n"
+                + "\r\n"
+                + "imp10,pw,CLIENTE,Ten,111,abc,\r\n"
+                + "imp11,pw11,ADMIN,Eleven,112,0,";
+
+        importCsv(csv)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(13))
+                .andExpect(jsonPath("$.created").value(4))
+                .andExpect(jsonPath("$.errors[*].line").value(contains(6, 7, 8, 9, 10, 11, 12, 13, 15)))
+                .andExpect(jsonPath("$.errors[*].username").value(contains(
+                        "imp1", "imp4", "cliente1", "imp5", "imp6", "imp7", "imp8", "imp9", "imp10")));
+
+        Account first = account("imp1");
+        assertEquals("Silva, Ana", first.getUserName());
+        assertEquals(new BigDecimal("10.50"), first.getBalance());
+        assertTrue(AccountNumbers.isValid(first.getAccountNumber()));
+
+        Account second = account("imp2");
+        assertEquals("Multi\nLine \"Quoted\"", second.getUserName());
+        assertEquals("IMPLEG1", second.getAccountNumber());
+        assertEquals(Role.CLIENTE, userRepository.findByUsername("imp2").orElseThrow().getRole());
+
+        User eleventh = userRepository.findByUsername("imp11").orElseThrow();
+        assertEquals(Role.ADMIN, eleventh.getRole());
+        assertTrue(passwordEncoder.matches("pw11", eleventh.getPassword()));
+        assertTrue(userRepository.findByUsername("imp4").isEmpty());
+        assertEquals(1, accountRepository.findAll().stream().filter(a -> "IMPDB".equals(a.getAccountNumber())).count());
+    }
+
+    @Test
+    void rejectsHeaderWithoutARequiredColumn() throws Exception {
+        importCsv("username,password,role,userName,balance\r\nhdr1,pw,CLIENTE,X,0\r\n")
+                .andExpect(status().isBadRequest());
+
+        assertTrue(userRepository.findByUsername("hdr1").isEmpty());
+    }
+
+    @Test
+    void rejectsEmptyFileAndUnterminatedQuotes() throws Exception {
+        importCsv("").andExpect(status().isBadRequest());
+        importCsv(HEADER + "quo1,pw,CLIENTE,\"Open,1,0,\r\n").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void batchCollidingWithACustomerCreatedMeanwhileIsRetriedRowByRow() throws Exception {
+        // As if cliente2 had been created after its batch was checked
+        doReturn(List.of()).when(userRepository).findExistingUsernames(any());
+
+        importCsv(HEADER
+                + "race1,pw,CLIENTE,One,1,0,\r\n"
+                + "cliente2,pw,CLIENTE,Two,2,0,\r\n"
+                + "race3,pw,CLIENTE,Three,3,0,\r\n")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.errors.length()").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].username").value("cliente2"));
+
+        account("race1");
+        account("race3");
+    }
+
+    private Account account(String username) {
+        Long userId = userRepository.findByUsername(username).orElseThrow().getId();
+        return accountRepository.findAll().stream()
+                .filter(a -> a.getUser() != null && userId.equals(a.getUser().getId()))
+                .findFirst().orElseThrow();
+    }
+
+    private ResultActions importCsv(String csv) throws Exception {
+        return mockMvc.perform(post("/api/v1/users/import")
+                .contentType("text/csv")
+                .content(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,143 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.dto.response.TransactionResponse;
+import com.moza.bankingApi.model.Account;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Data-volume benchmark of the filtered statement queries. Loads {@code bench.transactions} rows
+ * (1M by default) spread over a year and {@value #ACCOUNTS} accounts, one of them taking part in
+ * a fifth of the transfers, then times a first page of that busy account, a
+ * type and date filter and an amount filter, printing the H2 plans with their scan counts. The same queries
+ * are then repeated after dropping the {@code (account, timestamp)} indexes, for comparison.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dtest=StatementQueryBenchmark}.</p>
+ */
+@Tag("benchmark")
+@SpringBootTest
+@DirtiesContext
+class StatementQueryBenchmark {
+
+    private static final int ROWS = Integer.getInteger("bench.transactions", 1_000_000);
+    private static final int ACCOUNTS = 1000;
+    private static final int PAGE = 50;
+    private static final int REPETITIONS = 20;
+    private static final LocalDateTime EPOCH = LocalDate.of(2025, 1, 1).atStartOfDay();
+    private static final LocalDateTime OPEN_START = LocalDate.of(1000, 1, 1).atStartOfDay();
+    private static final LocalDateTime OPEN_END = LocalDate.of(9999, 12, 31).atStartOfDay();
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void filteredStatementsOnALargeLedger() {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setAccountNumber("STMT" + i);
+            account.setBalance(BigDecimal.ZERO);
+            accounts.add(account);
+        }
+        accountRepository.saveAll(accounts);
+        long firstId = accounts.get(0).getId();
+        long accountId = firstId;
+
+        // One transfer every ~30 s over a year. The first account, like a merchant's, sends one in ten
+        // of them and receives another one in ten; the rest are spread over every account
+        long start = System.nanoTime();
+        jdbcTemplate.update(String.format(
+                "insert into transaction (id, source_id, destination_id, amount, description, timestamp) " +
+                        "select x, case when mod(x, 10) = 0 then %1$d else %1$d + mod(x * 7, %2$d) end, " +
+                        "case when mod(x, 10) = 1 then %1$d else %1$d + mod(x * 13 + 1, %2$d) end, " +
+                        "mod(x, 100000) / 100.0, 'bench', " +
+                        "dateadd(SECOND, x * 31536000 / %3$d, timestamp '%4$s') from system_range(1, %3$d)",
+                firstId, ACCOUNTS, ROWS, sql(EPOCH)));
+        jdbcTemplate.execute("analyze");
+        System.out.printf("loaded %d transactions in %.1f s%n", ROWS, (System.nanoTime() - start) / 1e9);
+
+        System.out.println("--- with (account, timestamp) indexes");
+        runQueries(accountId);
+
+        jdbcTemplate.execute("drop index idx_transaction_source_timestamp");
+        jdbcTemplate.execute("drop index idx_transaction_destination_timestamp");
+        System.out.println("--- without (account, timestamp) indexes");
+        runQueries(accountId);
+    }
+
+    private void runQueries(long accountId) {
+        LocalDateTime march = EPOCH.plusMonths(2);
+        LocalDateTime april = EPOCH.plusMonths(3);
+        BigDecimal min = new BigDecimal("900.00");
+
+        time("first page, both sides", () -> merge(
+                transactionRepository.findSentStatement(accountId, OPEN_START, OPEN_END, 0L, null, null, Limit.of(PAGE)),
+                transactionRepository.findReceivedStatement(accountId, OPEN_START, OPEN_END, 0L, null, null, Limit.of(PAGE))));
+        time("ENVIADA in March", () -> transactionRepository.findSentStatement(
+                accountId, march, april, 0L, null, null, Limit.of(PAGE)));
+        time("amount >= 900, both sides", () -> merge(
+                transactionRepository.findSentStatement(accountId, OPEN_START, OPEN_END, 0L, min, null, Limit.of(PAGE)),
+                transactionRepository.findReceivedStatement(accountId, OPEN_START, OPEN_END, 0L, min, null, Limit.of(PAGE))));
+
+        explain("first page", accountId, OPEN_START, OPEN_END);
+        explain("March", accountId, march, april);
+    }
+
+    private void time(String label, Supplier<List<TransactionResponse>> query) {
+        for (int i = 0; i < REPETITIONS; i++) {
+            assertFalse(query.get().isEmpty(), label);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REPETITIONS; i++) {
+            assertTrue(query.get().size() <= 2 * PAGE);
+        }
+        System.out.printf("%-28s %8.2f ms/page%n", label, (System.nanoTime() - start) / 1e6 / REPETITIONS);
+    }
+
+    /**
+     * Prints the executed plan, with its {@code scanCount}, of the SQL generated for
+     * {@link TransactionRepository#findSentStatement}.
+     */
+    private void explain(String label, long accountId, LocalDateTime from, LocalDateTime before) {
+        System.out.println("plan, " + label + ":");
+        System.out.println(jdbcTemplate.queryForObject("explain analyze " +
+                        "select t1_0.amount,t1_0.timestamp,'ENVIADA',d1_0.account_number,t1_0.id " +
+                        "from transaction t1_0 join account d1_0 on d1_0.id=t1_0.destination_id " +
+                        "where t1_0.source_id=? and t1_0.timestamp>=? and t1_0.timestamp<=? " +
+                        "and (t1_0.timestamp<? or t1_0.id<?) " +
+                        "and (? is null or t1_0.amount>=?) and (? is null or t1_0.amount<=?) " +
+                        "order by t1_0.timestamp desc,t1_0.id desc fetch first ? rows only",
+                String.class, accountId, from, before, before, 0L, null, null, null, null, PAGE));
+    }
+
+    private static String sql(LocalDateTime timestamp) {
+        return timestamp.toString().replace('T', ' ');
+    }
+
+    private static List<TransactionResponse> merge(List<TransactionResponse> sent, List<TransactionResponse> received) {
+        List<TransactionResponse> page = new ArrayList<>(sent);
+        page.addAll(received);
+        return page;
+    }
+}
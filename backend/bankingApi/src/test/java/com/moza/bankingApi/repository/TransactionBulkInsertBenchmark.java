@@ -0,0 +1,101 @@
+package com.moza.bankingApi.repository;
+
+import com.moza.bankingApi.BenchmarkContexts;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.Transaction;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Bulk-insert benchmark of {@link Transaction} rows, measuring rows per second and JDBC statements
+ * per row with the pooled-lo sequence generators and insert batching enabled, and with neither:
+ * one generator round trip and one statement per row, as before.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark}; {@code -Dbench.transactions=1000000} for the full 1M rows.</p>
+ */
+@Tag("benchmark")
+class TransactionBulkInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("bench.transactions", 100_000);
+    private static final int CHUNK = 1_000;
+
+    private TransactionRepository transactionRepository;
+    private AccountRepository accountRepository;
+    private TransactionTemplate transactionTemplate;
+    private EntityManagerFactory entityManagerFactory;
+
+    static Stream<Arguments> configurations() {
+        return Stream.of(
+                arguments("batched", new String[]{"spring.jpa.properties.hibernate.generate_statistics=true"}),
+                arguments("unbatched", new String[]{
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=1",
+                        "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=none"}));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("configurations")
+    void bulkInsertTransactions(String name, String[] properties) {
+        try (ConfigurableApplicationContext context = BenchmarkContexts.start(properties)) {
+            transactionRepository = context.getBean(TransactionRepository.class);
+            accountRepository = context.getBean(AccountRepository.class);
+            transactionTemplate = context.getBean(TransactionTemplate.class);
+            entityManagerFactory = context.getBean(EntityManagerFactory.class);
+            bulkInsert(name);
+        }
+    }
+
+    private void bulkInsert(String name) {
+        Account source = accountRepository.save(account("BULK-SRC"));
+        Account destination = accountRepository.save(account("BULK-DST"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int done = 0; done < ROWS; done += CHUNK) {
+            int size = Math.min(CHUNK, ROWS - done);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Transaction> chunk = new ArrayList<>(size);
+                LocalDateTime now = LocalDateTime.now();
+                for (int i = 0; i < size; i++) {
+                    chunk.add(new Transaction(null, source, destination, BigDecimal.ONE, "bulk", now));
+                }
+                transactionRepository.saveAll(chunk);
+            });
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%s: %d rows in %.1f s, %.0f rows/s, %.3f statements/row%n",
+                name,
+                ROWS,
+                elapsed / 1e9,
+                ROWS / (elapsed / 1e9),
+                (double) statistics.getPrepareStatementCount() / ROWS);
+
+        assertEquals(ROWS, transactionRepository.count());
+    }
+
+    private static Account account(String number) {
+        Account account = new Account();
+        account.setAccountNumber(number);
+        account.setBalance(BigDecimal.ZERO);
+        return account;
+    }
+}
@@ -0,0 +1,108 @@
+package com.moza.bankingApi.security.service;
+
+import com.moza.bankingApi.BenchmarkContexts;
+import com.moza.bankingApi.model.User;
+import com.moza.bankingApi.model.enums.Role;
+import com.moza.bankingApi.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Load test of the user lookup done by {@code JwtFilter} on every request: concurrent clients
+ * authenticate as a small set of users, and the rate of queries reaching the database is
+ * reported next to the rate of lookups.
+ *
+ * <p>Runs with the user cache and, as a baseline, without it, where every lookup queries the
+ * database. Run with {@code mvn test -Pbenchmark}. A password change must be visible to the next
+ * lookup.</p>
+ */
+@Tag("benchmark")
+class UserDetailsCacheBenchmark {
+
+    private static final int USERS = 50;
+    private static final int CLIENTS = 16;
+    private static final int LOOKUPS_PER_CLIENT = 2_000;
+
+    private UserDetailsServiceImpl userDetailsService;
+    private UserRepository userRepository;
+    private EntityManagerFactory entityManagerFactory;
+
+    static Stream<Arguments> configurations() {
+        return Stream.of(
+                arguments("cached", new String[]{"spring.jpa.properties.hibernate.generate_statistics=true"}),
+                arguments("uncached", new String[]{
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "app.security.user-cache.enabled=false"}));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("configurations")
+    void queriesTheDatabaseOnlyOnMisses(String name, String[] properties) throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkContexts.start(properties)) {
+            userDetailsService = context.getBean(UserDetailsServiceImpl.class);
+            userRepository = context.getBean(UserRepository.class);
+            entityManagerFactory = context.getBean(EntityManagerFactory.class);
+            System.out.println(name);
+            lookUpConcurrently();
+        }
+    }
+
+    private void lookUpConcurrently() throws Exception {
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder().username("load" + i).password("hash" + i).role(Role.CLIENTE).build());
+        }
+        userRepository.saveAll(users);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < LOOKUPS_PER_CLIENT; i++) {
+                    int user = random.nextInt(USERS);
+                    assertEquals("hash" + user, userDetailsService.loadUserByUsername("load" + user).getPassword());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        long lookups = (long) CLIENTS * LOOKUPS_PER_CLIENT;
+        long queries = statistics.getPrepareStatementCount();
+        System.out.printf("%12s %12s %12s %14s%n", "lookups/s", "queries/s", "queries", "queries/lookup");
+        System.out.printf("%12.0f %12.0f %12d %14.4f%n",
+                lookups * 1e9 / elapsed, queries * 1e9 / elapsed, queries, (double) queries / lookups);
+
+        User changed = userRepository.findByUsername("load0").orElseThrow();
+        changed.setPassword("changed");
+        userRepository.save(changed);
+        UserDetails reloaded = userDetailsService.loadUserByUsername("load0");
+        assertEquals("changed", reloaded.getPassword());
+    }
+}
@@ -0,0 +1,56 @@
+package com.moza.bankingApi.security.service;
+
+import com.moza.bankingApi.model.User;
+import com.moza.bankingApi.model.enums.Role;
+import com.moza.bankingApi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Eviction of the {@link UserDetailsCache} by the {@link UserDetailsCacheListener}.
+ */
+@SpringBootTest
+@DirtiesContext
+class UserDetailsCacheTests {
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void updatingAUserEvictsItsCachedDetails() {
+        assertEquals("ROLE_CLIENTE", authority(userDetailsService.loadUserByUsername("cliente3")));
+
+        User user = userRepository.findByUsername("cliente3").orElseThrow();
+        user.setRole(Role.ADMIN);
+        user.setPassword("{noop}changed");
+        userRepository.save(user);
+
+        UserDetails reloaded = userDetailsService.loadUserByUsername("cliente3");
+        assertEquals("ROLE_ADMIN", authority(reloaded));
+        assertEquals("{noop}changed", reloaded.getPassword());
+    }
+
+    @Test
+    void cachedUsersKeepTheirCredentials() {
+        // Spring Security erases the credentials of the principal it authenticates
+        UserDetails first = userDetailsService.loadUserByUsername("cliente4");
+        assertNotNull(first.getPassword());
+
+        assertEquals(first.getPassword(), userDetailsService.loadUserByUsername("cliente4").getPassword());
+    }
+
+    private static String authority(UserDetails user) {
+        return user.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,123 @@
+package com.moza.bankingApi.service.archive;
+
+import com.moza.bankingApi.config.ArchiveProperties;
+import com.moza.bankingApi.dto.request.StatementCursor;
+import com.moza.bankingApi.dto.response.TransactionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionArchiveTests {
+
+    private static final long ACCOUNT = 7;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final LocalDateTime FROM = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private TransactionArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        archive = new TransactionArchive(new ArchiveProperties() {
+            @Override
+            public String getDir() {
+                return dir.toString();
+            }
+
+            @Override
+            public int getBlockRows() {
+                return 3;
+            }
+
+            @Override
+            public int getIndexCacheSize() {
+                return 16;
+            }
+        }, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void pagesThroughArchiveAndDatabaseWithoutDuplicatesOrGaps() throws Exception {
+        // Rows 8 to 10 were archived by a run whose deletion has not committed: they are in both places
+        archive.append(ACCOUNT, rows(1, 10));
+        List<TransactionResponse> database = rows(8, 15).stream().map(ArchiveRow::toResponse).toList();
+
+        List<Long> seen = new ArrayList<>();
+        LocalDateTime before = TO;
+        long beforeId = 0;
+        while (true) {
+            List<TransactionResponse> page = archive.completeStatement(ACCOUNT,
+                    databasePage(database, before, beforeId, 4), FROM, before, beforeId, row -> true, 4);
+            if (page.isEmpty()) {
+                break;
+            }
+            assertThat(page).hasSizeLessThanOrEqualTo(4);
+            page.forEach(row -> seen.add(row.getId()));
+            TransactionResponse last = page.get(page.size() - 1);
+            before = last.getDateTime();
+            beforeId = last.getId();
+        }
+
+        assertThat(seen).containsExactlyElementsOf(LongStream.rangeClosed(1, 15).map(i -> 16 - i).boxed().toList());
+    }
+
+    @Test
+    void seesRowsAppendedAfterTheIndexWasCached() throws Exception {
+        archive.append(ACCOUNT, rows(1, 4));
+        assertThat(archive.newestArchived(ACCOUNT)).isEqualTo(new StatementCursor(timestamp(4), 4L));
+
+        archive.append(ACCOUNT, rows(5, 6));
+
+        assertThat(archive.newestArchived(ACCOUNT)).isEqualTo(new StatementCursor(timestamp(6), 6L));
+    }
+
+    @Test
+    void returnsTheDatabasePageWhenTheAccountHasNoArchive() {
+        List<TransactionResponse> database = rows(1, 2).stream().map(ArchiveRow::toResponse).toList();
+
+        assertThat(archive.completeStatement(ACCOUNT, database, FROM, TO, 0, row -> true, 4)).isSameAs(database);
+        assertThat(archive.newestArchived(ACCOUNT)).isNull();
+    }
+
+    /**
+     * Emulates {@code TransactionRepository.findSentStatement}: newest first, strictly before the cursor.
+     */
+    private static List<TransactionResponse> databasePage(List<TransactionResponse> rows, LocalDateTime before,
+                                                          long beforeId, int limit) {
+        return rows.stream()
+                .filter(row -> row.getDateTime().isBefore(before)
+                        || (row.getDateTime().isEqual(before) && row.getId() < beforeId))
+                .sorted(Comparator.comparing(TransactionResponse::getDateTime)
+                        .thenComparing(TransactionResponse::getId)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Rows {@code first..last}, two per timestamp so that pages break inside a tie.
+     */
+    private static List<ArchiveRow> rows(long first, long last) {
+        return LongStream.rangeClosed(first, last)
+                .mapToObj(id -> new ArchiveRow(id, timestamp(id), true, 99, "MZ99", BigDecimal.TEN, null))
+                .toList();
+    }
+
+    private static LocalDateTime timestamp(long id) {
+        return BASE.plusMinutes(id / 2);
+    }
+}
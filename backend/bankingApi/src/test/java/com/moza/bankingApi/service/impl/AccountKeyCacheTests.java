@@ -0,0 +1,54 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Eviction of the {@link AccountKeyCache} by the {@link AccountKeyCacheListener}.
+ */
+@SpringBootTest
+@DirtiesContext
+class AccountKeyCacheTests {
+
+    @Autowired
+    private AccountKeyCache accountKeyCache;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void switchingAnAccountToHotModeEvictsItsKey() {
+        Account account = new Account();
+        account.setAccountNumber("KEY1");
+        account.setBalance(BigDecimal.ZERO);
+        accountRepository.save(account);
+        assertEquals(0, accountKeyCache.find("KEY1").orElseThrow().hotSlots());
+
+        account.setHotSlots(4);
+        accountRepository.save(account);
+
+        assertEquals(4, accountKeyCache.find("KEY1").orElseThrow().hotSlots());
+    }
+
+    @Test
+    void removingAnAccountEvictsItsKey() {
+        Account account = new Account();
+        account.setAccountNumber("KEY2");
+        account.setBalance(BigDecimal.ZERO);
+        accountRepository.save(account);
+        assertTrue(accountKeyCache.find("KEY2").isPresent());
+
+        accountRepository.delete(account);
+
+        assertTrue(accountKeyCache.find("KEY2").isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+package com.moza.bankingApi.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ISO 7064 MOD 97-10 check digits of the allocated account numbers.
+ */
+class AccountNumbersTests {
+
+    @Test
+    void formattedNumbersHaveThirteenDigitsAndValidCheckDigits() {
+        for (long body : new long[]{AccountNumbers.FIRST_BODY, 12_345_678_901L, AccountNumbers.BODY_LIMIT - 1}) {
+            String number = AccountNumbers.format(body);
+
+            assertEquals(AccountNumbers.LENGTH, number.length());
+            assertTrue(number.startsWith(Long.toString(body)));
+            assertTrue(AccountNumbers.isValid(number), number);
+        }
+    }
+
+    @Test
+    void everySingleMistypedDigitIsDetected() {
+        String number = AccountNumbers.format(12_345_678_901L);
+        for (int i = 0; i < number.length(); i++) {
+            for (char digit = '0'; digit <= '9'; digit++) {
+                if (digit != number.charAt(i)) {
+                    String typo = number.substring(0, i) + digit + number.substring(i + 1);
+                    assertFalse(AccountNumbers.isValid(typo), typo);
+                }
+            }
+        }
+    }
+
+    @Test
+    void swapOfAdjacentDigitsIsDetected() {
+        String number = AccountNumbers.format(12_345_678_901L);
+        for (int i = 0; i + 1 < number.length(); i++) {
+            if (number.charAt(i) != number.charAt(i + 1)) {
+                String swapped = number.substring(0, i) + number.charAt(i + 1) + number.charAt(i) + number.substring(i + 2);
+                assertFalse(AccountNumbers.isValid(swapped), swapped);
+            }
+        }
+    }
+
+    @Test
+    void onlyThirteenAsciiDigitsHaveTheAllocatedFormat() {
+        assertTrue(AccountNumbers.hasAllocatedFormat("1234567890123"));
+        assertFalse(AccountNumbers.hasAllocatedFormat("123456789012"));
+        assertFalse(AccountNumbers.hasAllocatedFormat("12345678901234"));
+        assertFalse(AccountNumbers.hasAllocatedFormat("12345678901a3"));
+        assertFalse(AccountNumbers.hasAllocatedFormat(null));
+        assertFalse(AccountNumbers.isValid("LEG1"));
+    }
+}
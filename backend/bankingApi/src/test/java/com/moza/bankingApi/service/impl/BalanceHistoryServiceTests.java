@@ -0,0 +1,112 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.model.AccountBalanceCheckpoint;
+import com.moza.bankingApi.model.Transaction;
+import com.moza.bankingApi.repository.AccountBalanceCheckpointRepository;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.service.BalanceHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Balances as of a past instant computed by {@link BalanceHistoryServiceImpl}.
+ */
+@SpringBootTest
+@DirtiesContext
+class BalanceHistoryServiceTests {
+
+    @Autowired
+    private BalanceHistoryService balanceHistoryService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountBalanceCheckpointRepository checkpointRepository;
+
+    private Account account;
+
+    /**
+     * BAL1 held 500.00 on 2024-01-01, received 200.00 on the 10th, sent 50.00 on the 20th and
+     * received 100.00 on 2024-02-05, which leaves it with 750.00.
+     */
+    @BeforeEach
+    void createHistory() {
+        checkpointRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        account = createAccount("BAL1", "750.00");
+        Account other = createAccount("BAL2", "10000.00");
+        save(other, account, "200.00", LocalDateTime.of(2024, 1, 10, 10, 0));
+        save(account, other, "50.00", LocalDateTime.of(2024, 1, 20, 10, 0));
+        save(other, account, "100.00", LocalDateTime.of(2024, 2, 5, 10, 0));
+    }
+
+    @Test
+    void withoutCheckpointWalksBackFromTheCurrentBalance() {
+        assertBalance("500.00", LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertBalance("500.00", LocalDateTime.of(2024, 1, 10, 10, 0));
+        assertBalance("700.00", LocalDateTime.of(2024, 1, 10, 10, 0, 1));
+        assertBalance("650.00", LocalDateTime.of(2024, 1, 21, 0, 0));
+        assertBalance("750.00", LocalDateTime.of(2024, 3, 1, 0, 0));
+    }
+
+    @Test
+    void withCheckpointAddsTheTransfersSinceItsDay() {
+        checkpointRepository.save(new AccountBalanceCheckpoint(account.getId(), LocalDate.of(2024, 1, 20), new BigDecimal("650.00")));
+        // A correction made outside any transfer: only instants before the checkpoint still see it
+        accountRepository.save(accountRepository.findById(account.getId()).map(a -> {
+            a.setBalance(new BigDecimal("760.00"));
+            return a;
+        }).orElseThrow());
+
+        assertBalance("650.00", LocalDateTime.of(2024, 1, 21, 0, 0));
+        assertBalance("650.00", LocalDateTime.of(2024, 2, 5, 10, 0));
+        assertBalance("750.00", LocalDateTime.of(2024, 2, 6, 0, 0));
+        assertBalance("710.00", LocalDateTime.of(2024, 1, 15, 0, 0));
+    }
+
+    @Test
+    void rejectsInstantsInTheFuture() {
+        assertThrows(BadRequestException.class,
+                () -> balanceHistoryService.getBalanceAsOf("BAL1", LocalDateTime.now().plusDays(1)));
+    }
+
+    private void assertBalance(String expected, LocalDateTime asOf) {
+        assertEquals(new BigDecimal(expected), balanceHistoryService.getBalanceAsOf("BAL1", asOf).getBalance(),
+                "as of " + asOf);
+    }
+
+    private Account createAccount(String accountNumber, String balance) {
+        Account account = new Account();
+        account.setUserName(accountNumber);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(new BigDecimal(balance));
+        return accountRepository.save(account);
+    }
+
+    private void save(Account source, Account destination, String amount, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setSource(source);
+        transaction.setDestination(destination);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTimestamp(timestamp);
+        transactionRepository.save(transaction);
+    }
+}
@@ -0,0 +1,123 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.exception.BalanceNotEnoughException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Benchmark of the group-commit stage: transfers/s against database commits/s as the number of
+ * concurrent clients grows. Without group commit both figures are equal; with it, one commit
+ * carries many transfers once several clients are active. A few transfers are sized to fail, to
+ * show that they fail alone without rolling back their group.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark}.</p>
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "app.transfer.group-commit.enabled=true")
+@DirtiesContext
+class GroupCommitBenchmark {
+
+    private static final int ACCOUNTS = 200;
+    private static final int TRANSFERS_PER_CLIENT = 200;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void commitsManyTransfersAtOnceUnderConcurrency() throws Exception {
+        assertInstanceOf(GroupCommitTransactionService.class, transactionService);
+
+        System.out.printf("%8s %12s %12s %12s %10s%n", "clients", "transfers/s", "commits/s", "per commit", "rejected");
+        // The first round only warms up the JIT and the connection pool
+        for (int clients : new int[]{16, 1, 4, 16, 64}) {
+            transactionRepository.deleteAll();
+            accountRepository.deleteAll();
+            List<Account> accounts = new ArrayList<>();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                Account account = new Account();
+                account.setUserName("group" + i);
+                account.setAccountNumber("GROUP" + i);
+                account.setBalance(INITIAL_BALANCE);
+                accounts.add(account);
+            }
+            accountRepository.saveAll(accounts);
+            runRound(clients);
+        }
+    }
+
+    private void runRound(int clients) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        double commitsBefore = meterRegistry.counter("bank.transfer.group.commits").count();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_CLIENT; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+
+                    TransferRequest request = new TransferRequest();
+                    request.setFromAccountNumber("GROUP" + from);
+                    request.setToAccountNumber("GROUP" + to);
+                    // One transfer in a hundred asks for more than any account holds
+                    request.setAmount(random.nextInt(100) == 0 ? new BigDecimal("1000000") : BigDecimal.valueOf(random.nextInt(1, 50)));
+                    try {
+                        transactionService.transfer(request);
+                        ok.incrementAndGet();
+                    } catch (BalanceNotEnoughException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        double commits = meterRegistry.counter("bank.transfer.group.commits").count() - commitsBefore;
+        System.out.printf("%8d %12.0f %12.0f %12.1f %10d%n",
+                clients, clients * TRANSFERS_PER_CLIENT / seconds, commits / seconds, ok.get() / commits, rejected.get());
+
+        BigDecimal total = accountRepository.findAll().stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total), "money was created or destroyed");
+        assertEquals(ok.get(), transactionRepository.count());
+    }
+}
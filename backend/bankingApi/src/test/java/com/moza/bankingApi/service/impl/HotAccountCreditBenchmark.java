@@ -0,0 +1,117 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountBalanceSlotRepository;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.service.AccountService;
+import com.moza.bankingApi.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contention benchmark of credits to a single merchant account. Every client debits its own
+ * account, so the only shared row is the merchant's: with hot mode off every credit serialises on
+ * it, with N slots up to N credits proceed in parallel.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark}.</p>
+ */
+@Tag("benchmark")
+@SpringBootTest
+@DirtiesContext
+class HotAccountCreditBenchmark {
+
+    private static final int CLIENTS = 16;
+    private static final int CREDITS_PER_CLIENT = 150;
+    private static final String MERCHANT = "MERCHANT";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private HotAccountBalances hotAccountBalances;
+
+    @Test
+    void creditThroughputScalesWithSlotCount() throws Exception {
+        System.out.printf("%8s %12s%n", "slots", "credits/s");
+        for (int slots : new int[]{0, 1, 2, 4, 8, 16}) {
+            reset();
+            accountService.configureHotSlots(MERCHANT, slots);
+            double throughput = runRound();
+            System.out.printf("%8d %12.0f%n", slots, throughput);
+
+            Account merchant = accountRepository.findByAccountNumber(MERCHANT).orElseThrow();
+            BigDecimal expected = BigDecimal.valueOf((long) CLIENTS * CREDITS_PER_CLIENT);
+            assertEquals(0, expected.compareTo(hotAccountBalances.effectiveBalance(merchant)), "merchant balance");
+        }
+    }
+
+    private void reset() {
+        slotRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        accountRepository.save(account(MERCHANT, BigDecimal.ZERO));
+        for (int c = 0; c < CLIENTS; c++) {
+            accountRepository.save(account("PAYER" + c, BigDecimal.valueOf(CREDITS_PER_CLIENT)));
+        }
+    }
+
+    private double runRound() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            String payer = "PAYER" + c;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < CREDITS_PER_CLIENT; i++) {
+                    TransferRequest request = new TransferRequest();
+                    request.setFromAccountNumber(payer);
+                    request.setToAccountNumber(MERCHANT);
+                    request.setAmount(BigDecimal.ONE);
+                    transactionService.transfer(request);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        return CLIENTS * CREDITS_PER_CLIENT / (elapsed / 1e9);
+    }
+
+    private static Account account(String number, BigDecimal balance) {
+        Account account = new Account();
+        account.setUserName(number);
+        account.setAccountNumber(number);
+        account.setBalance(balance);
+        return account;
+    }
+}
@@ -0,0 +1,111 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Concurrency behaviour of the transfers of {@link TransactionServiceImpl}.
+ */
+@SpringBootTest
+@DirtiesContext
+class TransactionServiceImplTests {
+
+    private static final int TRANSFERS_PER_THREAD = 50;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void opposingTransfersBetweenTwoAccountsAllCompleteAndConserveMoney() throws Exception {
+        createAccount("LOCK1");
+        createAccount("LOCK2");
+
+        // Half the threads go one way, half the other: without a global lock order they would deadlock
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            boolean forward = t % 2 == 0;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    transactionService.transfer(request(forward ? "LOCK1" : "LOCK2", forward ? "LOCK2" : "LOCK1"));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertEquals(threads * TRANSFERS_PER_THREAD, transactionRepository.count());
+        assertEquals(new BigDecimal("1000.00"), balance("LOCK1"));
+        assertEquals(new BigDecimal("1000.00"), balance("LOCK2"));
+    }
+
+    @Test
+    void rejectsTransfersOfNoOrNonPositiveAmount() {
+        createAccount("NEG1");
+        createAccount("NEG2");
+        long transactions = transactionRepository.count();
+
+        for (BigDecimal amount : new BigDecimal[]{null, BigDecimal.ZERO, new BigDecimal("-10.00")}) {
+            TransferRequest request = request("NEG1", "NEG2");
+            request.setAmount(amount);
+            assertThrows(BadRequestException.class, () -> transactionService.transfer(request), "amount " + amount);
+        }
+
+        assertEquals(transactions, transactionRepository.count());
+        assertEquals(new BigDecimal("1000.00"), balance("NEG1"));
+        assertEquals(new BigDecimal("1000.00"), balance("NEG2"));
+    }
+
+    private void createAccount(String accountNumber) {
+        Account account = new Account();
+        account.setUserName(accountNumber);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(new BigDecimal("1000.00"));
+        accountRepository.save(account);
+    }
+
+    private BigDecimal balance(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+    }
+
+    private static TransferRequest request(String from, String to) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from);
+        request.setToAccountNumber(to);
+        request.setAmount(BigDecimal.ONE);
+        return request;
+    }
+}
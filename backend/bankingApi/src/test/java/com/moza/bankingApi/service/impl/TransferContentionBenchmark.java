@@ -0,0 +1,146 @@
+package com.moza.bankingApi.service.impl;
+
+import com.moza.bankingApi.BenchmarkContexts;
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.exception.BalanceNotEnoughException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Multi-threaded throughput/latency benchmark of {@link TransactionServiceImpl#transfer} against
+ * the embedded database. Transfers are drawn at random over a small set of accounts, so opposite
+ * transfers (A&rarr;B / B&rarr;A) collide constantly.
+ *
+ * <p>The same load runs against each configuration of {@link #configurations()}, each in its own
+ * application context. Run with {@code mvn test -Pbenchmark}. After every round the total money
+ * in the system must be unchanged and no balance may be negative.</p>
+ */
+@Tag("benchmark")
+class TransferContentionBenchmark {
+
+    private static final int ACCOUNTS = 8;
+    private static final int TRANSFERS_PER_CLIENT = 200;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    private TransactionService transactionService;
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+
+    static Stream<Arguments> configurations() {
+        return Stream.of(
+                arguments("pessimistic", new String[0]),
+                arguments("optimistic", new String[]{"app.transfer.concurrency=OPTIMISTIC"}),
+                // Baseline: every transfer resolves both account numbers with a query before locking
+                arguments("uncached account keys", new String[]{"app.cache.account-keys.enabled=false"}));
+    }
+
+    private void resetAccounts() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUserName("bench" + i);
+            account.setAccountNumber("BENCH" + i);
+            account.setBalance(INITIAL_BALANCE);
+            accountRepository.save(account);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("configurations")
+    void scalesWithConcurrentClientsWithoutCorruptingBalances(String name, String[] properties) throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkContexts.start(properties)) {
+            transactionService = context.getBean(TransactionService.class);
+            accountRepository = context.getBean(AccountRepository.class);
+            transactionRepository = context.getBean(TransactionRepository.class);
+
+            System.out.println(name);
+            System.out.printf("%8s %12s %10s %10s %10s %10s%n", "clients", "transfers/s", "p50 ms", "p99 ms", "ok", "rejected");
+            for (int clients : new int[]{1, 2, 4, 8, 16, 32}) {
+                resetAccounts();
+                runRound(clients);
+            }
+        }
+    }
+
+    private void runRound(int clients) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                long[] latencies = new long[TRANSFERS_PER_CLIENT];
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_CLIENT; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+
+                    TransferRequest request = new TransferRequest();
+                    request.setFromAccountNumber("BENCH" + from);
+                    request.setToAccountNumber("BENCH" + to);
+                    request.setAmount(BigDecimal.valueOf(random.nextInt(1, 50)));
+
+                    long t0 = System.nanoTime();
+                    try {
+                        transactionService.transfer(request);
+                        ok.incrementAndGet();
+                    } catch (BalanceNotEnoughException e) {
+                        rejected.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - t0;
+                }
+                return latencies;
+            }));
+        }
+
+        long[] all = new long[clients * TRANSFERS_PER_CLIENT];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        Arrays.sort(all);
+        System.out.printf("%8d %12.0f %10.2f %10.2f %10d %10d%n",
+                clients,
+                all.length / (elapsed / 1e9),
+                all[all.length / 2] / 1e6,
+                all[(int) (all.length * 0.99)] / 1e6,
+                ok.get(),
+                rejected.get());
+
+        List<Account> accounts = accountRepository.findAll();
+        BigDecimal total = accounts.stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total), "money was created or destroyed");
+        assertTrue(accounts.stream().allMatch(a -> a.getBalance().signum() >= 0), "negative balance");
+        assertEquals(ok.get(), transactionRepository.count());
+    }
+}
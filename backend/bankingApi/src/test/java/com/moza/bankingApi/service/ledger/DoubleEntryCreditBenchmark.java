@@ -0,0 +1,105 @@
+package com.moza.bankingApi.service.ledger;
+
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.PostingRepository;
+import com.moza.bankingApi.service.TransactionService;
+import com.moza.bankingApi.service.impl.HotAccountBalances;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Contention benchmark of credits to a single merchant account with the double-entry engine.
+ * Credits are inserts only, so the merchant row is never locked, while the snapshotter keeps
+ * folding the merchant's postings into its balance in the background.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark}; compare with {@code HotAccountCreditBenchmark}.</p>
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"app.transactions.engine=double-entry", "app.transfer.ledger.snapshot-interval-ms=100"})
+@DirtiesContext
+class DoubleEntryCreditBenchmark {
+
+    private static final int CLIENTS = 16;
+    private static final int CREDITS_PER_CLIENT = 150;
+    private static final String MERCHANT = "MERCHANT";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PostingRepository postingRepository;
+
+    @Autowired
+    private HotAccountBalances hotAccountBalances;
+
+    @Test
+    void creditsToOneAccountDoNotSerialise() throws Exception {
+        assertInstanceOf(DoubleEntryTransactionService.class, transactionService);
+
+        accountRepository.save(account(MERCHANT, BigDecimal.ZERO));
+        for (int c = 0; c < CLIENTS; c++) {
+            accountRepository.save(account("PAYER" + c, BigDecimal.valueOf(3L * CREDITS_PER_CLIENT)));
+        }
+
+        System.out.printf("%8s %12s%n", "round", "credits/s");
+        for (int round = 1; round <= 3; round++) {
+            System.out.printf("%8d %12.0f%n", round, runRound());
+        }
+
+        Account merchant = accountRepository.findByAccountNumber(MERCHANT).orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(3L * CLIENTS * CREDITS_PER_CLIENT)
+                .compareTo(hotAccountBalances.effectiveBalance(merchant)), "merchant balance");
+        assertEquals(6L * CLIENTS * CREDITS_PER_CLIENT, postingRepository.count());
+    }
+
+    private double runRound() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            String payer = "PAYER" + c;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < CREDITS_PER_CLIENT; i++) {
+                    TransferRequest request = new TransferRequest();
+                    request.setFromAccountNumber(payer);
+                    request.setToAccountNumber(MERCHANT);
+                    request.setAmount(BigDecimal.ONE);
+                    transactionService.transfer(request);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        return CLIENTS * CREDITS_PER_CLIENT / (elapsed / 1e9);
+    }
+
+    private static Account account(String number, BigDecimal balance) {
+        Account account = new Account();
+        account.setUserName(number);
+        account.setAccountNumber(number);
+        account.setBalance(balance);
+        return account;
+    }
+}
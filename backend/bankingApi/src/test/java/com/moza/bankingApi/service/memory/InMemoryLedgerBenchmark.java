@@ -0,0 +1,149 @@
+package com.moza.bankingApi.service.memory;
+
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.exception.BalanceNotEnoughException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.repository.TransactionRepository;
+import com.moza.bankingApi.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput/latency benchmark of the {@link InMemoryTransactionService} engine. Each round the
+ * clients transfer at random between accounts; once the flusher has caught up, the database must
+ * hold one row per accepted transfer and the same total money as before.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark}.</p>
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "app.transactions.engine=memory")
+@DirtiesContext
+class InMemoryLedgerBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final int TRANSFERS_PER_CLIENT = 2000;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("ledger-journal").toString();
+        registry.add("app.ledger.memory.journal-dir", () -> directory);
+    }
+
+    @Test
+    void acknowledgesTransfersFromMemoryAndFlushesThemToTheDatabase() throws Exception {
+        assertInstanceOf(InMemoryTransactionService.class, transactionService);
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setUserName("ledger" + i);
+            account.setAccountNumber("LEDGER" + i);
+            account.setBalance(INITIAL_BALANCE);
+            accounts.add(account);
+        }
+        accountRepository.saveAll(accounts);
+
+        System.out.printf("%8s %12s %10s %10s %10s %10s%n", "clients", "transfers/s", "p50 ms", "p99 ms", "ok", "rejected");
+        long accepted = 0;
+        for (int clients : new int[]{1, 2, 4, 8, 16, 32}) {
+            accepted += runRound(clients);
+        }
+
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (transactionRepository.count() < accepted && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(accepted, transactionRepository.count());
+
+        List<Account> flushed = accountRepository.findAll();
+        BigDecimal total = flushed.stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total), "money was created or destroyed");
+        assertTrue(flushed.stream().allMatch(a -> a.getBalance().signum() >= 0), "negative balance");
+    }
+
+    private long runRound(int clients) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                long[] latencies = new long[TRANSFERS_PER_CLIENT];
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_CLIENT; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+
+                    TransferRequest request = new TransferRequest();
+                    request.setFromAccountNumber("LEDGER" + from);
+                    request.setToAccountNumber("LEDGER" + to);
+                    request.setAmount(BigDecimal.valueOf(random.nextInt(1, 5000), 2));
+
+                    long t0 = System.nanoTime();
+                    try {
+                        transactionService.transfer(request);
+                        ok.incrementAndGet();
+                    } catch (BalanceNotEnoughException e) {
+                        rejected.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - t0;
+                }
+                return latencies;
+            }));
+        }
+
+        long[] all = new long[clients * TRANSFERS_PER_CLIENT];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        Arrays.sort(all);
+        System.out.printf("%8d %12.0f %10.2f %10.2f %10d %10d%n",
+                clients,
+                all.length / (elapsed / 1e9),
+                all[all.length / 2] / 1e6,
+                all[(int) (all.length * 0.99)] / 1e6,
+                ok.get(),
+                rejected.get());
+        return ok.get();
+    }
+}
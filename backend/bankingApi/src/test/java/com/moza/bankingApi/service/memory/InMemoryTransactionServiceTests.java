@@ -0,0 +1,87 @@
+package com.moza.bankingApi.service.memory;
+
+import com.moza.bankingApi.dto.request.TransferRequest;
+import com.moza.bankingApi.exception.BadRequestException;
+import com.moza.bankingApi.model.Account;
+import com.moza.bankingApi.repository.AccountRepository;
+import com.moza.bankingApi.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Batch rules of the {@link InMemoryTransactionService} engine, which must match the other engines.
+ */
+@SpringBootTest(properties = {"app.transactions.engine=memory", "app.transfer.batch.max-legs=3"})
+@DirtiesContext
+class InMemoryTransactionServiceTests {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("ledger-journal").toString();
+        registry.add("app.ledger.memory.journal-dir", () -> directory);
+    }
+
+    @BeforeEach
+    void createAccounts() {
+        if (accountRepository.findByAccountNumber("MEM1").isEmpty()) {
+            createAccount("MEM1");
+            createAccount("MEM2");
+        }
+    }
+
+    @Test
+    void rejectsBatchesTheOtherEnginesReject() {
+        assertInstanceOf(InMemoryTransactionService.class, transactionService);
+
+        assertThrows(BadRequestException.class, () -> transactionService.transferBatch(List.of()));
+        assertThrows(BadRequestException.class, () -> transactionService.transferBatch(List.of(
+                leg("MEM1", "MEM2", "1.00"), leg("MEM1", "MEM2", "1.00"),
+                leg("MEM1", "MEM2", "1.00"), leg("MEM1", "MEM2", "1.00"))));
+        assertThrows(BadRequestException.class, () -> transactionService.transferBatch(List.of(
+                leg("MEM1", "MEM2", "1.00"), leg("MEM2", "MEM1", "-5.00"))));
+        assertThrows(BadRequestException.class, () -> transactionService.transferBatch(List.of(
+                leg("MEM1", "MEM2", "1.00"), leg("MEM2", "1234567890100", "1.00"))));
+    }
+
+    @Test
+    void rejectsAmountsWithMoreThanTwoDecimals() {
+        assertThrows(BadRequestException.class, () -> transactionService.transferBatch(List.of(
+                leg("MEM1", "MEM2", "1.005"))));
+        assertThrows(BadRequestException.class, () -> transactionService.transfer(leg("MEM1", "MEM2", "0.001")));
+    }
+
+    private void createAccount(String accountNumber) {
+        Account account = new Account();
+        account.setUserName(accountNumber);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(new BigDecimal("100.00"));
+        accountRepository.save(account);
+    }
+
+    private static TransferRequest leg(String from, String to, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from);
+        request.setToAccountNumber(to);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+}
@@ -32,7 +32,6 @@ export class AdminDashboardComponent implements OnInit {
   accountForm: FormGroup = this.fb.group({
     userName: ['', Validators.required],
     nuit: ['', Validators.required],
-    accountNumber: ['', Validators.required],
     balance: [0, [Validators.required, Validators.min(0)]],
     username: ['', Validators.required]
   });
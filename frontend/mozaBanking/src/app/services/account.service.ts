@@ -6,7 +6,7 @@ import { Observable } from 'rxjs';
 export interface AccountCreatePayload {
   userName: string;
   nuit: string;
-  accountNumber: string;
+  accountNumber?: string;
   balance: number;
   username: string;
 }
@@ -19,6 +19,13 @@ export class AuthService {
   }
 
   logout() {
+    const token = this.getToken();
+    if (token) {
+      // Revokes the token on the server, so a copy of it stops working too
+      this.http.post('http://localhost:8080/api/v1/auth/logout', null, {
+        headers: { Authorization: `Bearer ${token}` }
+      }).subscribe({ error: () => {} });
+    }
     localStorage.removeItem('token');
   }
 